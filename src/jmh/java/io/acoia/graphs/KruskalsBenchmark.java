@@ -0,0 +1,94 @@
+package io.acoia.graphs;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+/**
+ * Kruskal's over random graphs with random long weights, both as a ValueGraph and as the equivalent
+ * edge list.  SPARSE graphs have an average degree of 8, and DENSE graphs have about half of all
+ * possible edges.
+ *
+ * The largest graphs need a big heap: 10^7 edges as a ValueGraph take a few GB, hence -Xmx8g.  Pick
+ * sizes with -p edges=... to leave them out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class KruskalsBenchmark {
+  public enum Density {
+    SPARSE, DENSE
+  }
+
+  @Param({ "1000", "100000", "10000000" })
+  public int edges;
+
+  @Param
+  public Density density;
+
+  private ValueGraph<Integer, Long> graph;
+  private int nodeCount;
+  private int[] src;
+  private int[] dst;
+  private long[] weights;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    nodeCount = density == Density.SPARSE ? Math.max(edges / 4, 2) : (int) Math.ceil(2 * Math.sqrt(edges)) + 1;
+    Random random = new Random(edges);
+    MutableValueGraph<Integer, Long> g = ValueGraphBuilder
+        .undirected()
+        .expectedNodeCount(nodeCount)
+        .build();
+    for (int n = 0; n < nodeCount; n++) {
+      g.addNode(n);
+    }
+
+    src = new int[edges];
+    dst = new int[edges];
+    weights = new long[edges];
+    int e = 0;
+    while (e < edges) {
+      int u = random.nextInt(nodeCount);
+      int v = random.nextInt(nodeCount);
+      if (u == v || g.edgeValueOrDefault(u, v, null) != null)
+        continue;
+      long w = random.nextInt(1 << 30);
+      g.putEdgeValue(u, v, w);
+      src[e] = u;
+      dst[e] = v;
+      weights[e] = w;
+      e++;
+    }
+    graph = g;
+  }
+
+  @Benchmark
+  public ValueGraph<Integer, Long> valueGraph() {
+    return MinimumSpanningTree.kruskals(graph);
+  }
+
+  @Benchmark
+  public int[] edgeList() {
+    return MinimumSpanningTree.kruskals(nodeCount, src, dst, weights);
+  }
+}
@@ -0,0 +1,119 @@
+package io.acoia.numbers;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BigGCD against BigInteger.gcd() for numbers of the given size.  RANDOM pairs are uniform, and
+ * FIBONACCI pairs are consecutive Fibonacci numbers.  magnitudes() reuses its result array, so with
+ * the gc profiler it shows what BigGCD allocates without the BigInteger conversions.
+ *
+ * The sizes straddle BigGCD.HALF_GCD_THRESHOLD (2^20 bits), where BigGCD switches from Lehmer's
+ * algorithm alone to half-GCD reduction first.  bigGcd() runs each size both with that threshold
+ * and with half-GCD turned off (the halfGcdThreshold parameter of its Threshold state), so the two
+ * paths can be compared at the same size, e.g. -p bits=2097152 -p halfGcdThreshold=1048576,2147483647.
+ * The other benchmarks don't use the parameter, so they only run once per size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BigGcdBenchmark {
+  public enum Input {
+    RANDOM, FIBONACCI
+  }
+
+  @Param({ "256", "4096", "65536", "524288", "2097152" })
+  public int bits;
+
+  @Param
+  public Input input;
+
+  private BigInteger a;
+  private BigInteger b;
+  private int[] aMagnitude;
+  private int[] bMagnitude;
+  private int[] result;
+  private final BigGCD gcd = new BigGCD();
+
+  @State(Scope.Benchmark)
+  public static class Threshold {
+    @Param({ "1048576", "2147483647" })
+    public int halfGcdThreshold;
+
+    private BigGCD gcd;
+
+    @Setup(Level.Trial)
+    public void createGcd() {
+      gcd = new BigGCD(halfGcdThreshold);
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (input == Input.RANDOM) {
+      Random random = new Random(bits);
+      a = new BigInteger(bits, random);
+      b = new BigInteger(bits, random);
+    }
+    else {
+      // F(n) has about 0.694n bits.  Fast doubling, as adding our way up is quadratic in bits.
+      BigInteger[] pair = fibonacci((int) Math.ceil(bits / 0.6942419136306174));
+      a = pair[0];
+      b = pair[1];
+    }
+    aMagnitude = BigGCD.magnitude(a);
+    bMagnitude = BigGCD.magnitude(b);
+    result = new int[Math.max(aMagnitude.length, bMagnitude.length)];
+  }
+
+  // Returns F(n) and F(n + 1).
+  private static BigInteger[] fibonacci(int n) {
+    BigInteger a = BigInteger.ZERO;
+    BigInteger b = BigInteger.ONE;
+    for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+      BigInteger c = a.multiply(b.shiftLeft(1).subtract(a));
+      BigInteger d = a.multiply(a).add(b.multiply(b));
+      if ((n & bit) != 0) {
+        a = d;
+        b = c.add(d);
+      }
+      else {
+        a = c;
+        b = d;
+      }
+    }
+    return new BigInteger[] { a, b };
+  }
+
+  @Benchmark
+  public BigInteger bigInteger() {
+    return a.gcd(b);
+  }
+
+  @Benchmark
+  public BigInteger bigGcd(Threshold threshold) {
+    return threshold.gcd.gcd(a, b);
+  }
+
+  @Benchmark
+  public int magnitudes() {
+    return gcd.gcd(aMagnitude, aMagnitude.length, bMagnitude, bMagnitude.length, result);
+  }
+}
@@ -0,0 +1,86 @@
+package io.acoia.numbers;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EuclidsGCD.gcd() against BinaryGCD.gcd() on long pairs, reported per gcd.  RANDOM pairs are
+ * uniform over the positive longs; FIBONACCI pairs are consecutive Fibonacci numbers, which take
+ * the most Euclidean steps for their size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GcdBenchmark {
+  public enum Input {
+    RANDOM, FIBONACCI
+  }
+
+  private static final int PAIRS = 1 << 10;
+
+  @Param
+  public Input input;
+
+  private long[] a;
+  private long[] b;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(PAIRS);
+    long[] fibonacci = new long[93];
+    fibonacci[1] = 1;
+    for (int i = 2; i < fibonacci.length; i++) {
+      fibonacci[i] = fibonacci[i - 1] + fibonacci[i - 2];
+    }
+    a = new long[PAIRS];
+    b = new long[PAIRS];
+    for (int i = 0; i < PAIRS; i++) {
+      if (input == Input.RANDOM) {
+        a[i] = random.nextLong() >>> 1;
+        b[i] = random.nextLong() >>> 1;
+      }
+      else {
+        int n = fibonacci.length - 1 - random.nextInt(16);
+        a[i] = fibonacci[n];
+        b[i] = fibonacci[n - 1];
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public long euclid() {
+    long sum = 0;
+    for (int i = 0; i < PAIRS; i++) {
+      sum += EuclidsGCD.gcd(a[i], b[i]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public long binary() {
+    long sum = 0;
+    for (int i = 0; i < PAIRS; i++) {
+      sum += BinaryGCD.gcd(a[i], b[i]);
+    }
+    return sum;
+  }
+}
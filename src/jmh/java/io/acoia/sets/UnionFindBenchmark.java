@@ -0,0 +1,161 @@
+package io.acoia.sets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * UnionFind join, findRoot and sets under three union patterns: random pairs, binomial (i joined to
+ * i + 2^k for k = 0, 1, 2... in turn, so every join links two roots of equal rank and builds the
+ * tallest trees union by rank allows, of depth log2(size)) and a star (everything joined to 0, so
+ * every join hangs a singleton off one root).  Joining i to i + 1 would build the same star.
+ * IntUnionFind runs the same joins as a baseline, and DenseUnionFind the same joins and finds for
+ * comparison.
+ *
+ * The join benchmarks include building the UnionFind, so they report the time for size joins.
+ * findRoot runs on a UnionFind that has had all the joins, after path compression has flattened it
+ * in warmup, which is the steady state of a long-lived UnionFind.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnionFindBenchmark {
+  public enum Pattern {
+    RANDOM, BINOMIAL, STAR
+  }
+
+  private static final int QUERIES = 1 << 12;
+
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  @Param
+  public Pattern pattern;
+
+  private List<Integer> members;
+  private int[] left;
+  private int[] right;
+  private Integer[] queries;
+  private UnionFind<Integer> joined;
+  private DenseUnionFind<Integer> denseJoined;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(size);
+    members = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      members.add(i);
+    }
+    left = new int[size - 1];
+    right = new int[size - 1];
+    if (pattern == Pattern.BINOMIAL) {
+      // Each pass joins neighbouring blocks of 2^k members, whose roots are their first members.
+      int j = 0;
+      for (int stride = 1; stride < size; stride <<= 1) {
+        for (int i = 0; i + stride < size; i += stride << 1) {
+          left[j] = i;
+          right[j] = i + stride;
+          j++;
+        }
+      }
+    }
+    else {
+      for (int i = 0; i < size - 1; i++) {
+        if (pattern == Pattern.RANDOM) {
+          left[i] = random.nextInt(size);
+          right[i] = random.nextInt(size);
+        }
+        else {
+          left[i] = 0;
+          right[i] = i + 1;
+        }
+      }
+    }
+    queries = new Integer[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      queries[i] = members.get(random.nextInt(size));
+    }
+    joined = joinAll();
+    denseJoined = joinAllDense();
+  }
+
+  private UnionFind<Integer> joinAll() {
+    UnionFind<Integer> uf = new UnionFind<>(members);
+    for (int i = 0; i < left.length; i++) {
+      uf.join(members.get(left[i]), members.get(right[i]));
+    }
+    return uf;
+  }
+
+  private DenseUnionFind<Integer> joinAllDense() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>(members);
+    for (int i = 0; i < left.length; i++) {
+      uf.join(members.get(left[i]), members.get(right[i]));
+    }
+    return uf;
+  }
+
+  @Benchmark
+  public UnionFind<Integer> join() {
+    return joinAll();
+  }
+
+  @Benchmark
+  public DenseUnionFind<Integer> joinDenseUnionFind() {
+    return joinAllDense();
+  }
+
+  @Benchmark
+  public IntUnionFind joinIntUnionFind() {
+    IntUnionFind uf = new IntUnionFind(size);
+    for (int i = 0; i < left.length; i++) {
+      uf.join(left[i], right[i]);
+    }
+    return uf;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int findRoot() {
+    int sum = 0;
+    for (Integer q : queries) {
+      sum += joined.findRoot(q);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int findRootDenseUnionFind() {
+    int sum = 0;
+    for (Integer q : queries) {
+      sum += denseJoined.findRoot(q);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public Collection<Set<Integer>> sets() {
+    return joined.sets();
+  }
+}
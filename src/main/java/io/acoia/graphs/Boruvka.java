@@ -0,0 +1,88 @@
+package io.acoia.graphs;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import io.acoia.sets.ConcurrentUnionFind;
+
+/**
+ * Borůvka's minimum spanning tree algorithm, run in parallel on the common fork-join pool.
+ *
+ * Each round every component picks its cheapest outgoing edge, and all of those edges are added to
+ * the forest at once, at least halving the number of components.  So there are at most log2(V)
+ * rounds, and within a round both steps are data parallel:
+ *
+ * - every remaining edge offers itself to the components at both of its ends, which keep the least
+ *   offer with a CAS loop, and
+ * - every component's cheapest edge is joined in a ConcurrentUnionFind.
+ *
+ * Edges are compared with an EdgeOrder, which breaks ties by edge index, so the cheapest edges form a
+ * forest and the result is the same forest Kruskal's finds with the same tie-breaking.  When two
+ * components pick the same edge only one of their joins succeeds, so each edge is taken once.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class Boruvka {
+  private static final int NONE = -1;
+
+  private Boruvka() {
+  }
+
+  /**
+   * Returns the indices of the edges in the minimum spanning forest, in ascending index order.
+   */
+  static int[] boruvkas(int nodeCount, int[] src, int[] dst, EdgeOrder order) {
+    ConcurrentUnionFind uf = new ConcurrentUnionFind(nodeCount);
+    AtomicIntegerArray cheapest = new AtomicIntegerArray(nodeCount);
+    boolean[] inTree = new boolean[src.length];
+
+    int[] edges = IntStream.range(0, src.length).toArray();
+    while (true) {
+      // Drop the edges that are now within a single component.  This keeps each round's work
+      // proportional to the edges that can still be chosen.
+      edges = IntStream.of(edges)
+          .parallel()
+          .filter(e -> !uf.sameSet(src[e], dst[e]))
+          .toArray();
+      if (edges.length == 0)
+        break;
+
+      IntStream.range(0, nodeCount).parallel().forEach(n -> cheapest.lazySet(n, NONE));
+      IntStream.of(edges).parallel().forEach(e -> {
+        offer(cheapest, uf.findRoot(src[e]), e, order);
+        offer(cheapest, uf.findRoot(dst[e]), e, order);
+      });
+
+      IntStream.range(0, nodeCount).parallel().forEach(n -> {
+        int e = cheapest.get(n);
+        if (e != NONE && uf.join(src[e], dst[e]))
+          inTree[e] = true;
+      });
+    }
+
+    return IntStream.range(0, inTree.length).filter(e -> inTree[e]).toArray();
+  }
+
+  private static void offer(AtomicIntegerArray cheapest, int root, int e, EdgeOrder order) {
+    while (true) {
+      int current = cheapest.get(root);
+      if (current != NONE && order.compare(current, e) <= 0)
+        return;
+      if (cheapest.compareAndSet(root, current, e))
+        return;
+    }
+  }
+
+  /**
+   * As per boruvkas(int, int[], int[], EdgeOrder) but with long keys, and with the result in the
+   * order Kruskal's would choose the edges.
+   */
+  static int[] boruvkas(int nodeCount, int[] src, int[] dst, long[] keys) {
+    int[] tree = boruvkas(nodeCount, src, dst, EdgeOrder.of(keys));
+    EdgeSort.sort(keys, tree, 0, tree.length);
+    return tree;
+  }
+}
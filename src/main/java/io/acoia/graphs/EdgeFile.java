@@ -0,0 +1,28 @@
+package io.acoia.graphs;
+
+/**
+ * The binary edge file format read by EdgeFileReader and written by EdgeFileWriter.
+ *
+ * A file is a 24 byte header followed by one 24 byte record per edge, all big-endian:
+ *
+ * - header: the magic number 0x41434546 ("ACEF"), the format version (int), the node count (long)
+ *   and the edge count (long).
+ * - record: the edge's source node (long), target node (long) and weight (double).
+ *
+ * Nodes are the longs 0 to nodeCount - 1.  Fixed size records mean any edge can be found by its
+ * index, and chunks of a file can be memory-mapped without parsing.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class EdgeFile {
+  static final int MAGIC = 0x41434546;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 24;
+  static final int RECORD_BYTES = 24;
+
+  private EdgeFile() {
+  }
+}
@@ -0,0 +1,139 @@
+package io.acoia.graphs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a binary edge file, as described by EdgeFile, one edge at a time.
+ *
+ * The file is memory-mapped a chunk at a time, so reading is sequential and allocation free however
+ * large the file is.  Call next() to move to each edge and then src(), dst() and weight() to read it:
+ *
+ * <pre>
+ * try (EdgeFileReader reader = new EdgeFileReader(file)) {
+ *   while (reader.next()) {
+ *     process(reader.src(), reader.dst(), reader.weight());
+ *   }
+ * }
+ * </pre>
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class EdgeFileReader implements Closeable {
+  // 2^21 records is a 48MB mapping.
+  private static final long CHUNK_RECORDS = 1 << 21;
+
+  private final FileChannel channel;
+  private final long nodeCount;
+  private final long edgeCount;
+  private MappedByteBuffer chunk;
+  private long chunkStart;
+  private long position = -1;
+  private long src;
+  private long dst;
+  private double weight;
+
+  /**
+   * Opens the given edge file.  If it isn't a valid edge file then an IOException is thrown.
+   */
+  public EdgeFileReader(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(EdgeFile.HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0)
+          throw new IOException(file + " is too short to be an edge file");
+      }
+      header.flip();
+      if (header.getInt() != EdgeFile.MAGIC)
+        throw new IOException(file + " is not an edge file");
+      int version = header.getInt();
+      if (version != EdgeFile.VERSION)
+        throw new IOException(file + " has unsupported edge file version " + version);
+      nodeCount = header.getLong();
+      edgeCount = header.getLong();
+      if (channel.size() < EdgeFile.HEADER_BYTES + edgeCount * EdgeFile.RECORD_BYTES)
+        throw new IOException(file + " is truncated, expected " + edgeCount + " edges");
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of nodes in the graph, the nodes being 0 to nodeCount() - 1.
+   */
+  public long nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns the number of edges in the file.
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Moves to the next edge, returning false if there are no more edges.
+   */
+  public boolean next() throws IOException {
+    if (position + 1 >= edgeCount)
+      return false;
+    position++;
+
+    if (chunk == null || position - chunkStart >= CHUNK_RECORDS) {
+      chunkStart = position;
+      long records = Math.min(CHUNK_RECORDS, edgeCount - position);
+      chunk = channel.map(FileChannel.MapMode.READ_ONLY, EdgeFile.HEADER_BYTES + position * EdgeFile.RECORD_BYTES,
+          records * EdgeFile.RECORD_BYTES);
+    }
+
+    src = chunk.getLong();
+    dst = chunk.getLong();
+    weight = chunk.getDouble();
+    return true;
+  }
+
+  /**
+   * Returns the index of the current edge in the file.
+   */
+  public long position() {
+    return position;
+  }
+
+  /**
+   * Returns the source node of the current edge.
+   */
+  public long src() {
+    return src;
+  }
+
+  /**
+   * Returns the target node of the current edge.
+   */
+  public long dst() {
+    return dst;
+  }
+
+  /**
+   * Returns the weight of the current edge.
+   */
+  public double weight() {
+    return weight;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,91 @@
+package io.acoia.graphs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a binary edge file, as described by EdgeFile, for MinimumSpanningTree's external
+ * kruskals().
+ *
+ * Edges are buffered and written to a FileChannel in large blocks.  The edge count in the header is
+ * filled in by close(), so a file isn't valid until it's been closed.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class EdgeFileWriter implements Closeable {
+  private static final int BUFFER_RECORDS = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * EdgeFile.RECORD_BYTES);
+  private final long nodeCount;
+  private long edgeCount;
+
+  /**
+   * Creates (or truncates) the given file and prepares to write edges between the nodes 0 to
+   * nodeCount - 1 to it.
+   */
+  public EdgeFileWriter(Path file, long nodeCount) throws IOException {
+    if (nodeCount < 0)
+      throw new IllegalArgumentException("Node count must not be negative: " + nodeCount);
+    this.nodeCount = nodeCount;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    channel.position(EdgeFile.HEADER_BYTES);
+  }
+
+  /**
+   * Appends an edge.  If src or dst are not between 0 and nodeCount - 1 then an
+   * IllegalArgumentException is thrown.
+   */
+  public void write(long src, long dst, double weight) throws IOException {
+    if (src < 0 || src >= nodeCount || dst < 0 || dst >= nodeCount)
+      throw new IllegalArgumentException("Edge " + src + " - " + dst + " is not between nodes 0 and " + (nodeCount - 1));
+    if (!buffer.hasRemaining())
+      flush();
+    buffer.putLong(src).putLong(dst).putDouble(weight);
+    edgeCount++;
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Returns the number of edges written so far.
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Writes any buffered edges and the header, and closes the file.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!channel.isOpen())
+      return;
+    try {
+      flush();
+      ByteBuffer header = ByteBuffer.allocate(EdgeFile.HEADER_BYTES);
+      header.putInt(EdgeFile.MAGIC).putInt(EdgeFile.VERSION).putLong(nodeCount).putLong(edgeCount).flip();
+      channel.position(0);
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+    }
+    finally {
+      channel.close();
+    }
+  }
+}
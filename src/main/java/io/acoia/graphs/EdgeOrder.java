@@ -0,0 +1,45 @@
+package io.acoia.graphs;
+
+import java.util.List;
+
+/**
+ * A strict total order over the edges of an edge list, identified by their index.
+ *
+ * The order is by weight, with equal weights ordered by index.  This is the order Kruskal's considers
+ * edges in, so any algorithm that always picks the least edge under this order finds the same
+ * spanning forest as Kruskal's, even when weights are tied.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@FunctionalInterface
+interface EdgeOrder {
+
+  /**
+   * Returns a negative number, zero or a positive number as edge e1 is less than, the same as or
+   * greater than edge e2.
+   */
+  int compare(int e1, int e2);
+
+  /**
+   * The order of edges with the given long keys, such as those from EdgeSort.
+   */
+  static EdgeOrder of(long[] keys) {
+    return (e1, e2) -> {
+      int c = Long.compare(keys[e1], keys[e2]);
+      return c != 0 ? c : Integer.compare(e1, e2);
+    };
+  }
+
+  /**
+   * The order of edges with the given Comparable values.
+   */
+  static <E extends Comparable<E>> EdgeOrder of(List<E> values) {
+    return (e1, e2) -> {
+      int c = values.get(e1).compareTo(values.get(e2));
+      return c != 0 ? c : Integer.compare(e1, e2);
+    };
+  }
+}
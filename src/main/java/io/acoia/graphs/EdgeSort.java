@@ -0,0 +1,104 @@
+package io.acoia.graphs;
+
+/**
+ * Primitive sorting helpers for edge lists.
+ *
+ * Edge weights are sorted as long keys.  double weights are first mapped to longs whose signed order
+ * matches Double.compare(), so both kinds of weight share the same radix sort.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class EdgeSort {
+
+  private EdgeSort() {
+  }
+
+  /**
+   * Maps a double to a long such that comparing the longs gives the same order as Double.compare()
+   * on the doubles.  In particular -0.0 sorts before 0.0 and NaN sorts after positive infinity.
+   */
+  static long sortableKey(double d) {
+    long bits = Double.doubleToLongBits(d);
+    // Negative doubles order backwards by their bits, so flip everything but the sign.
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns sortableKey() of each of the given weights.
+   */
+  static long[] sortableKeys(double[] weights) {
+    long[] keys = new long[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      keys[i] = sortableKey(weights[i]);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the indices of the given keys in ascending key order, with equal keys in ascending index
+   * order.  This is an LSD radix sort that runs in O(n) time, skipping any byte of the keys that's
+   * the same for every key.
+   */
+  static int[] sortedIndices(long[] keys) {
+    int[] indices = new int[keys.length];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = i;
+    }
+    sort(keys, indices, 0, indices.length);
+    return indices;
+  }
+
+  /**
+   * Sorts indices[from, to) by keys[index].  Indices with equal keys keep their relative order.
+   */
+  static void sort(long[] keys, int[] indices, int from, int to) {
+    int n = to - from;
+    if (n < 2)
+      return;
+
+    // Sorting (key, index) pairs rather than just indices keeps each pass sequential in memory.
+    long[] k = new long[n];
+    int[] idx = new int[n];
+    int[][] counts = new int[Long.BYTES][257];
+    for (int i = 0; i < n; i++) {
+      int index = indices[from + i];
+      // Flip the sign bit so that the unsigned byte order matches the signed order.
+      long key = keys[index] ^ Long.MIN_VALUE;
+      k[i] = key;
+      idx[i] = index;
+      for (int pass = 0; pass < Long.BYTES; pass++) {
+        counts[pass][(int) ((key >>> (pass << 3)) & 0xff) + 1]++;
+      }
+    }
+
+    long[] kTemp = new long[n];
+    int[] idxTemp = new int[n];
+    for (int pass = 0; pass < Long.BYTES; pass++) {
+      int shift = pass << 3;
+      int[] count = counts[pass];
+      if (count[(int) ((k[0] >>> shift) & 0xff) + 1] == n)
+        continue; // Every key has the same byte here.
+
+      for (int b = 1; b < count.length; b++) {
+        count[b] += count[b - 1];
+      }
+      for (int i = 0; i < n; i++) {
+        int pos = count[(int) ((k[i] >>> shift) & 0xff)]++;
+        kTemp[pos] = k[i];
+        idxTemp[pos] = idx[i];
+      }
+
+      long[] kSwap = k;
+      k = kTemp;
+      kTemp = kSwap;
+      int[] idxSwap = idx;
+      idx = idxTemp;
+      idxTemp = idxSwap;
+    }
+
+    System.arraycopy(idx, 0, indices, from, n);
+  }
+}
@@ -0,0 +1,372 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import io.acoia.sets.IntUnionFind;
+
+/**
+ * The Euclidean minimum spanning tree of a set of points, found without building the complete graph.
+ *
+ * This is Borůvka's algorithm with the cheapest edge out of each component found by nearest neighbour
+ * searches in a k-d tree.  Each round every point searches for its nearest point in another component,
+ * in parallel on the common fork-join pool, and each component takes the nearest of its points'
+ * answers.  The k-d tree records which subtrees lie entirely within one component so that searches
+ * skip them, and each component keeps the shortest edge out of it found so far, as a bound that its
+ * points' searches give up beyond.  A point whose nearest neighbour is still in another component
+ * keeps it without searching again.  There are at most log2(n) rounds, and memory is O(n) rather
+ * than the O(n²) of the complete graph.
+ *
+ * Edges are ordered by length, then by their lower point index, then by their higher point index.
+ * That's a strict order, so the tree is the one Kruskal's finds on the complete graph with its edges
+ * listed as (0, 1), (0, 2) ... (0, n - 1), (1, 2) and so on.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class EuclideanBoruvka {
+  static final int LEAF_SIZE = 8;
+  private static final int NONE = -1;
+  private static final long INFINITY_BITS = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+  private final double[] points;
+  private final int dimensions;
+  private final int pointCount;
+
+  // The k-d tree.  Node k covers the points order[start[k]] to order[end[k] - 1] within the bounding
+  // box boxMin[k * dimensions ...] to boxMax[k * dimensions ...].  Children always follow their
+  // parent, and leaves have no children.
+  private final int[] order;
+  private final int[] start;
+  private final int[] end;
+  private final int[] left;
+  private final int[] right;
+  private final double[] boxMin;
+  private final double[] boxMax;
+  private int nodeCount;
+
+  // The component of each point, and of each node whose points are all in one component (or NONE).
+  private final int[] component;
+  private final int[] nodeComponent;
+  // The shortest edge out of each component found so far this round, as doubleToLongBits().
+  private final AtomicLongArray componentBound;
+
+  // The edges of the tree: src[i] < dst[i] with length weights[i].
+  final int[] src;
+  final int[] dst;
+  final double[] weights;
+
+  /**
+   * Finds the minimum spanning tree of the given points, each of which is the given number of
+   * consecutive coordinates.  The edges are left in src, dst and weights, in the order Kruskal's
+   * would choose them.
+   */
+  EuclideanBoruvka(double[] points, int dimensions) {
+    if (dimensions < 1)
+      throw new IllegalArgumentException("Dimensions must be at least 1: " + dimensions);
+    if (points.length % dimensions != 0)
+      throw new IllegalArgumentException("Coordinate count " + points.length + " is not a multiple of " + dimensions);
+    for (int i = 0; i < points.length; i++) {
+      if (Double.isNaN(points[i]) || Double.isInfinite(points[i]))
+        throw new IllegalArgumentException("Coordinate " + i + " is not finite: " + points[i]);
+    }
+
+    this.points = points;
+    this.dimensions = dimensions;
+    this.pointCount = points.length / dimensions;
+
+    // Only nodes of more than LEAF_SIZE points are split, so every leaf has at least LEAF_SIZE / 2.
+    int minLeafSize = LEAF_SIZE / 2;
+    int maxNodes = Math.max(2 * ((pointCount + minLeafSize - 1) / minLeafSize), 1);
+    order = IntStream.range(0, pointCount).toArray();
+    start = new int[maxNodes];
+    end = new int[maxNodes];
+    left = new int[maxNodes];
+    right = new int[maxNodes];
+    boxMin = new double[maxNodes * dimensions];
+    boxMax = new double[maxNodes * dimensions];
+    build(0, pointCount);
+
+    component = new int[pointCount];
+    nodeComponent = new int[nodeCount];
+    componentBound = new AtomicLongArray(pointCount);
+    int treeSize = Math.max(pointCount - 1, 0);
+    src = new int[treeSize];
+    dst = new int[treeSize];
+    weights = new double[treeSize];
+    boruvkas();
+  }
+
+  private int build(int from, int to) {
+    int k = nodeCount++;
+    start[k] = from;
+    end[k] = to;
+    left[k] = NONE;
+    right[k] = NONE;
+
+    int box = k * dimensions;
+    for (int d = 0; d < dimensions; d++) {
+      boxMin[box + d] = Double.POSITIVE_INFINITY;
+      boxMax[box + d] = Double.NEGATIVE_INFINITY;
+    }
+    for (int i = from; i < to; i++) {
+      int p = order[i] * dimensions;
+      for (int d = 0; d < dimensions; d++) {
+        boxMin[box + d] = Math.min(boxMin[box + d], points[p + d]);
+        boxMax[box + d] = Math.max(boxMax[box + d], points[p + d]);
+      }
+    }
+
+    if (to - from > LEAF_SIZE) {
+      // Split the widest dimension at the median.
+      int split = 0;
+      for (int d = 1; d < dimensions; d++) {
+        if (boxMax[box + d] - boxMin[box + d] > boxMax[box + split] - boxMin[box + split])
+          split = d;
+      }
+      int mid = (from + to) >>> 1;
+      select(from, to, mid, split);
+      left[k] = build(from, mid);
+      right[k] = build(mid, to);
+    }
+    return k;
+  }
+
+  // Partially sorts order[from, to) by the given coordinate so that order[nth] is in its sorted place.
+  private void select(int from, int to, int nth, int d) {
+    int lo = from;
+    int hi = to - 1;
+    while (lo < hi) {
+      double pivot = coordinate(order[(lo + hi) >>> 1], d);
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (coordinate(order[i], d) < pivot)
+          i++;
+        while (coordinate(order[j], d) > pivot)
+          j--;
+        if (i <= j) {
+          int temp = order[i];
+          order[i++] = order[j];
+          order[j--] = temp;
+        }
+      }
+      if (nth <= j)
+        hi = j;
+      else if (nth >= i)
+        lo = i;
+      else
+        return;
+    }
+  }
+
+  private double coordinate(int point, int d) {
+    return points[point * dimensions + d];
+  }
+
+  private void boruvkas() {
+    IntUnionFind uf = new IntUnionFind(pointCount);
+    int[] nearest = new int[pointCount];
+    double[] nearestDistance = new double[pointCount];
+    boolean[] exact = new boolean[pointCount];
+    int[] cheapest = new int[pointCount];
+    int treeSize = 0;
+
+    while (treeSize < src.length) {
+      for (int p = 0; p < pointCount; p++) {
+        component[p] = uf.findRoot(p);
+      }
+      // Children follow their parents, so this visits every node after its children.
+      for (int k = nodeCount - 1; k >= 0; k--) {
+        if (left[k] == NONE) {
+          int c = component[order[start[k]]];
+          for (int i = start[k] + 1; i < end[k] && c != NONE; i++) {
+            if (component[order[i]] != c)
+              c = NONE;
+          }
+          nodeComponent[k] = c;
+        }
+        else {
+          int c = nodeComponent[left[k]];
+          nodeComponent[k] = c == nodeComponent[right[k]] ? c : NONE;
+        }
+      }
+
+      // Merging only removes candidates, so if last round's exact answer is still in another
+      // component it's still the nearest and needn't be searched for again.
+      for (int c = 0; c < pointCount; c++) {
+        componentBound.lazySet(c, INFINITY_BITS);
+      }
+      IntStream.range(0, pointCount).parallel().forEach(p -> {
+        if (exact[p] && nearest[p] != NONE && component[nearest[p]] != component[p])
+          lowerBound(component[p], nearestDistance[p]);
+        else
+          nearest[p] = nearestInOtherComponent(p, nearestDistance, exact);
+      });
+
+      for (int p = 0; p < pointCount; p++) {
+        cheapest[p] = NONE;
+      }
+      for (int p = 0; p < pointCount; p++) {
+        if (nearest[p] == NONE)
+          continue;
+        int c = component[p];
+        int best = cheapest[c];
+        if (best == NONE
+            || compare(nearestDistance[p], p, nearest[p], nearestDistance[best], best, nearest[best]) < 0)
+          cheapest[c] = p;
+      }
+
+      for (int c = 0; c < pointCount; c++) {
+        int p = cheapest[c];
+        if (p != NONE && uf.join(p, nearest[p])) {
+          src[treeSize] = Math.min(p, nearest[p]);
+          dst[treeSize] = Math.max(p, nearest[p]);
+          weights[treeSize] = nearestDistance[p];
+          treeSize++;
+        }
+      }
+    }
+
+    sortKruskalOrder();
+  }
+
+  // Returns the nearest point to p that's not in p's component, leaving its distance in
+  // distances[p].  Equidistant points are ordered as edges, by their lower then higher index.
+  //
+  // Points further than the component's bound can't give its cheapest edge, so they're skipped.  If
+  // that cut the search short then the answer may not be p's nearest, exact[p] is set false, and NONE
+  // may be returned.
+  private int nearestInOtherComponent(int p, double[] distances, boolean[] exact) {
+    int c = component[p];
+    int best = NONE;
+    double bestDistance = Double.POSITIVE_INFINITY;
+    boolean truncated = false;
+    int[] stack = new int[64];
+    int sp = 0;
+    stack[sp++] = 0;
+    while (sp > 0) {
+      int k = stack[--sp];
+      if (nodeComponent[k] == c)
+        continue;
+      double box = boxDistance(k, p);
+      if (box > bestDistance)
+        continue;
+      if (box > Double.longBitsToDouble(componentBound.get(c))) {
+        truncated = true;
+        continue;
+      }
+
+      if (left[k] == NONE) {
+        for (int i = start[k]; i < end[k]; i++) {
+          int q = order[i];
+          if (component[q] == c)
+            continue;
+          double distance = distance(p, q);
+          if (best == NONE || compare(distance, p, q, bestDistance, p, best) < 0) {
+            best = q;
+            bestDistance = distance;
+            lowerBound(c, distance);
+          }
+        }
+      }
+      else {
+        if (sp + 2 > stack.length)
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        // Push the nearer child last so that it's searched first.
+        if (boxDistance(left[k], p) <= boxDistance(right[k], p)) {
+          stack[sp++] = right[k];
+          stack[sp++] = left[k];
+        }
+        else {
+          stack[sp++] = left[k];
+          stack[sp++] = right[k];
+        }
+      }
+    }
+    distances[p] = bestDistance;
+    exact[p] = !truncated;
+    return best;
+  }
+
+  // Lowers component c's bound to the given distance, if that's less.  Distances aren't negative, so
+  // their bits order the same way they do.
+  private void lowerBound(int c, double distance) {
+    long bits = Double.doubleToLongBits(distance);
+    while (true) {
+      long current = componentBound.get(c);
+      if (bits >= current || componentBound.compareAndSet(c, current, bits))
+        return;
+    }
+  }
+
+  /**
+   * The Euclidean distance between points p and q.
+   */
+  double distance(int p, int q) {
+    int a = p * dimensions;
+    int b = q * dimensions;
+    double sum = 0;
+    for (int d = 0; d < dimensions; d++) {
+      double diff = points[a + d] - points[b + d];
+      sum += diff * diff;
+    }
+    return Math.sqrt(sum);
+  }
+
+  // The distance from point p to the bounding box of node k, which is at most the distance to any
+  // point in it.
+  private double boxDistance(int k, int p) {
+    int box = k * dimensions;
+    int a = p * dimensions;
+    double sum = 0;
+    for (int d = 0; d < dimensions; d++) {
+      double x = points[a + d];
+      double diff;
+      if (x < boxMin[box + d])
+        diff = x - boxMin[box + d];
+      else if (x > boxMax[box + d])
+        diff = x - boxMax[box + d];
+      else
+        continue;
+      sum += diff * diff;
+    }
+    return Math.sqrt(sum);
+  }
+
+  // Compares the edges (p1, q1) and (p2, q2) with the given lengths.
+  private static int compare(double length1, int p1, int q1, double length2, int p2, int q2) {
+    int c = Double.compare(length1, length2);
+    if (c == 0)
+      c = Integer.compare(Math.min(p1, q1), Math.min(p2, q2));
+    if (c == 0)
+      c = Integer.compare(Math.max(p1, q1), Math.max(p2, q2));
+    return c;
+  }
+
+  private void sortKruskalOrder() {
+    int n = src.length;
+    long[] pairKeys = new long[n];
+    for (int i = 0; i < n; i++) {
+      pairKeys[i] = (long) src[i] * pointCount + dst[i];
+    }
+    int[] sorted = EdgeSort.sortedIndices(pairKeys);
+    // The sort is stable, so equal lengths stay in (lower, higher) index order.
+    EdgeSort.sort(EdgeSort.sortableKeys(weights), sorted, 0, n);
+
+    int[] sortedSrc = new int[n];
+    int[] sortedDst = new int[n];
+    double[] sortedWeights = new double[n];
+    for (int i = 0; i < n; i++) {
+      sortedSrc[i] = src[sorted[i]];
+      sortedDst[i] = dst[sorted[i]];
+      sortedWeights[i] = weights[sorted[i]];
+    }
+    System.arraycopy(sortedSrc, 0, src, 0, n);
+    System.arraycopy(sortedDst, 0, dst, 0, n);
+    System.arraycopy(sortedWeights, 0, weights, 0, n);
+  }
+}
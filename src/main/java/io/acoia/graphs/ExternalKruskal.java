@@ -0,0 +1,207 @@
+package io.acoia.graphs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import io.acoia.sets.OffHeapUnionFind;
+
+/**
+ * Kruskal's minimum spanning tree algorithm for edge files larger than memory.
+ *
+ * The edges are external merge sorted:
+ *
+ * - the input is read (memory-mapped, a chunk at a time) in runs of runEdges edges, each of which is
+ *   radix sorted in memory and spilled to a temporary edge file, then
+ * - the runs are merged, at most fanIn at a time, until few enough remain to merge in one pass.
+ *
+ * The final merge is streamed straight into Kruskal's union loop, which keeps nothing in memory but
+ * an OffHeapUnionFind over the nodes, and writes each tree edge to the output edge file.
+ *
+ * Equal weights are ordered by their position in the input, as the in-memory kruskals() orders them
+ * by index, so the output is the same tree in the same order.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class ExternalKruskal {
+  // About 60 bytes per edge while sorting: 24 for the edges, 12 for the sort keys and order, and 24
+  // for EdgeSort's working copies, so roughly 126MB per run.
+  static final int DEFAULT_RUN_EDGES = 1 << 21;
+  static final int DEFAULT_FAN_IN = 64;
+
+  @FunctionalInterface
+  private interface EdgeSink {
+    /** Accepts the next edge in order, returning false to stop the merge. */
+    boolean accept(long src, long dst, double weight) throws IOException;
+  }
+
+  private ExternalKruskal() {
+  }
+
+  /**
+   * Writes the minimum spanning forest of the input edge file to the output edge file, and returns
+   * the number of edges in it.
+   */
+  static long kruskals(Path input, Path output, Path spillDirectory, int runEdges, int fanIn) throws IOException {
+    if (runEdges < 1)
+      throw new IllegalArgumentException("Run size must be at least 1: " + runEdges);
+    if (fanIn < 2)
+      throw new IllegalArgumentException("Fan in must be at least 2: " + fanIn);
+
+    List<Path> runs = new ArrayList<>();
+    try {
+      long nodeCount;
+      try (EdgeFileReader reader = new EdgeFileReader(input)) {
+        nodeCount = reader.nodeCount();
+        sortRuns(reader, spillDirectory, runEdges, runs);
+      }
+
+      while (runs.size() > fanIn) {
+        List<Path> merged = new ArrayList<>();
+        try {
+          for (int i = 0; i < runs.size(); i += fanIn) {
+            List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+            Path run = Files.createTempFile(spillDirectory, "mst-merge", ".edges");
+            merged.add(run);
+            try (EdgeFileWriter writer = new EdgeFileWriter(run, nodeCount)) {
+              merge(group, (src, dst, weight) -> {
+                writer.write(src, dst, weight);
+                return true;
+              });
+            }
+          }
+        }
+        finally {
+          deleteAll(runs);
+          runs = merged;
+        }
+      }
+
+      OffHeapUnionFind uf = new OffHeapUnionFind(nodeCount);
+      long treeSize = Math.max(nodeCount - 1, 0);
+      try (EdgeFileWriter writer = new EdgeFileWriter(output, nodeCount)) {
+        if (treeSize > 0) {
+          merge(runs, (src, dst, weight) -> {
+            if (uf.join(src, dst))
+              writer.write(src, dst, weight);
+            return writer.edgeCount() < treeSize;
+          });
+        }
+        return writer.edgeCount();
+      }
+    }
+    finally {
+      deleteAll(runs);
+    }
+  }
+
+  private static void sortRuns(EdgeFileReader reader, Path spillDirectory, int runEdges, List<Path> runs)
+      throws IOException {
+    int capacity = (int) Math.min(runEdges, reader.edgeCount());
+    long[] src = new long[capacity];
+    long[] dst = new long[capacity];
+    double[] weights = new double[capacity];
+    long[] keys = new long[capacity];
+    int[] order = new int[capacity];
+    int n = 0;
+    while (reader.next()) {
+      src[n] = reader.src();
+      dst[n] = reader.dst();
+      weights[n] = reader.weight();
+      if (++n == capacity) {
+        runs.add(writeRun(reader.nodeCount(), src, dst, weights, keys, order, n, spillDirectory));
+        n = 0;
+      }
+    }
+    if (n > 0)
+      runs.add(writeRun(reader.nodeCount(), src, dst, weights, keys, order, n, spillDirectory));
+  }
+
+  // Sorts the first n edges into a new run file, using keys and order as scratch space.
+  private static Path writeRun(long nodeCount, long[] src, long[] dst, double[] weights, long[] keys, int[] order,
+      int n, Path spillDirectory) throws IOException {
+    for (int i = 0; i < n; i++) {
+      keys[i] = EdgeSort.sortableKey(weights[i]);
+      order[i] = i;
+    }
+    EdgeSort.sort(keys, order, 0, n);
+
+    Path run = Files.createTempFile(spillDirectory, "mst-run", ".edges");
+    try (EdgeFileWriter writer = new EdgeFileWriter(run, nodeCount)) {
+      for (int j = 0; j < n; j++) {
+        int i = order[j];
+        writer.write(src[i], dst[i], weights[i]);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(run);
+      throw e;
+    }
+    return run;
+  }
+
+  private static final class RunCursor {
+    final EdgeFileReader reader;
+    final int run;
+    long key;
+
+    RunCursor(EdgeFileReader reader, int run) {
+      this.reader = reader;
+      this.run = run;
+    }
+
+    boolean advance() throws IOException {
+      if (!reader.next())
+        return false;
+      key = EdgeSort.sortableKey(reader.weight());
+      return true;
+    }
+  }
+
+  /**
+   * Merges the given sorted runs into the sink.  Runs hold consecutive stretches of the input, so
+   * equal weights are taken from earlier runs first to keep them in input order.
+   */
+  private static void merge(List<Path> runs, EdgeSink sink) throws IOException {
+    PriorityQueue<RunCursor> queue = new PriorityQueue<>(Math.max(runs.size(), 1), (c1, c2) -> {
+      int c = Long.compare(c1.key, c2.key);
+      return c != 0 ? c : Integer.compare(c1.run, c2.run);
+    });
+    List<EdgeFileReader> readers = new ArrayList<>(runs.size());
+    try {
+      for (int i = 0; i < runs.size(); i++) {
+        EdgeFileReader reader = new EdgeFileReader(runs.get(i));
+        readers.add(reader);
+        RunCursor cursor = new RunCursor(reader, i);
+        if (cursor.advance())
+          queue.add(cursor);
+      }
+
+      while (!queue.isEmpty()) {
+        RunCursor cursor = queue.poll();
+        EdgeFileReader reader = cursor.reader;
+        if (!sink.accept(reader.src(), reader.dst(), reader.weight()))
+          return;
+        if (cursor.advance())
+          queue.add(cursor);
+      }
+    }
+    finally {
+      for (EdgeFileReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  private static void deleteAll(List<Path> files) throws IOException {
+    for (Path file : files) {
+      Files.deleteIfExists(file);
+    }
+  }
+}
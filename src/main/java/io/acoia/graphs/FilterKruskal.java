@@ -0,0 +1,178 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import io.acoia.sets.ConcurrentUnionFind;
+
+/**
+ * Filter-Kruskal (Osipov, Sanders & Singler, "The Filter-Kruskal Minimum Spanning Tree Algorithm",
+ * 2009) over a compact edge list.
+ *
+ * Rather than sorting every edge up front, the edges are partitioned quicksort style around a pivot
+ * weight.  The light half is processed first, and then any heavy edge whose endpoints the light half
+ * already connected is filtered out before the heavy half is partitioned any further.  On dense
+ * graphs most heavy edges are discarded this way without ever being sorted.
+ *
+ * The partition and filter steps are data parallel and run on the common fork-join pool.  The union
+ * find is a ConcurrentUnionFind, so the filter can query it from many threads at once; only the
+ * Kruskal's loop at the bottom of the recursion joins, and that runs on a single thread.
+ *
+ * Partitions are stable, so every range of edges stays in ascending index order.  Together with the
+ * stable radix sort at the leaves this means edges are considered in exactly the order
+ * MinimumSpanningTree.kruskals() considers them, and the same forest is returned.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class FilterKruskal {
+  // Ranges at most this size are radix sorted and handed straight to Kruskal's.
+  static final int SORT_THRESHOLD = 1 << 12;
+  // Ranges smaller than this are partitioned on the calling thread.
+  private static final int PARALLEL_THRESHOLD = 1 << 15;
+  private static final int CHUNK_SIZE = 1 << 13;
+  private static final int SAMPLE_SIZE = 31;
+
+  private final int[] src;
+  private final int[] dst;
+  private final long[] keys;
+  private final int sortThreshold;
+  private final ConcurrentUnionFind uf;
+  private final int[] edges;
+  private final int[] scratch;
+  private final boolean[] flags;
+  private final int[] tree;
+  private int treeSize;
+
+  private FilterKruskal(int nodeCount, int[] src, int[] dst, long[] keys, int sortThreshold) {
+    this.src = src;
+    this.dst = dst;
+    this.keys = keys;
+    this.sortThreshold = Math.max(sortThreshold, 1);
+    this.uf = new ConcurrentUnionFind(nodeCount);
+    this.edges = new int[keys.length];
+    for (int i = 0; i < edges.length; i++) {
+      edges[i] = i;
+    }
+    this.scratch = new int[keys.length];
+    this.flags = new boolean[keys.length];
+    this.tree = new int[Math.min(keys.length, Math.max(nodeCount - 1, 0))];
+  }
+
+  /**
+   * Returns the indices of the edges in the minimum spanning forest, in the order Kruskal's would
+   * choose them.
+   */
+  static int[] filterKruskals(int nodeCount, int[] src, int[] dst, long[] keys) {
+    return filterKruskals(nodeCount, src, dst, keys, SORT_THRESHOLD);
+  }
+
+  static int[] filterKruskals(int nodeCount, int[] src, int[] dst, long[] keys, int sortThreshold) {
+    FilterKruskal fk = new FilterKruskal(nodeCount, src, dst, keys, sortThreshold);
+    fk.run(0, fk.edges.length);
+    return fk.treeSize == fk.tree.length ? fk.tree : Arrays.copyOf(fk.tree, fk.treeSize);
+  }
+
+  private void run(int from, int to) {
+    while (treeSize < tree.length) {
+      if (to - from <= sortThreshold) {
+        kruskals(from, to);
+        return;
+      }
+
+      int pivot = choosePivot(from, to);
+      long pivotKey = keys[pivot];
+      int split = partition(from, to, e -> keys[e] < pivotKey || (keys[e] == pivotKey && e <= pivot));
+      if (split == to) {
+        // The sample was unlucky and nothing is heavier than the pivot, just sort the lot.
+        kruskals(from, to);
+        return;
+      }
+
+      run(from, split);
+      if (treeSize == tree.length)
+        return;
+      // Drop the heavy edges that the light edges already made redundant, then carry on with the
+      // rest of the heavy edges.
+      from = split;
+      to = partition(from, to, e -> !uf.sameSet(src[e], dst[e]));
+    }
+  }
+
+  private void kruskals(int from, int to) {
+    EdgeSort.sort(keys, edges, from, to);
+    for (int i = from; i < to && treeSize < tree.length; i++) {
+      int e = edges[i];
+      if (uf.join(src[e], dst[e]))
+        tree[treeSize++] = e;
+    }
+  }
+
+  private int choosePivot(int from, int to) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int[] sample = new int[SAMPLE_SIZE];
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = edges[random.nextInt(from, to)];
+    }
+    EdgeSort.sort(keys, sample, 0, sample.length);
+    return sample[sample.length / 2];
+  }
+
+  /**
+   * Stably reorders edges[from, to) so that the edges matching the predicate come first, and returns
+   * the index of the first edge that doesn't match.
+   */
+  private int partition(int from, int to, IntPredicate predicate) {
+    int n = to - from;
+    if (n < PARALLEL_THRESHOLD) {
+      int matched = from;
+      int unmatched = 0;
+      for (int i = from; i < to; i++) {
+        int e = edges[i];
+        if (predicate.test(e))
+          edges[matched++] = e;
+        else
+          scratch[unmatched++] = e;
+      }
+      System.arraycopy(scratch, 0, edges, matched, unmatched);
+      return matched;
+    }
+
+    // Count the matches in each chunk in parallel, work out where each chunk's edges go, and then
+    // move them there in parallel.
+    int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    int[] matchedBefore = new int[chunks + 1];
+    IntStream.range(0, chunks).parallel().forEach(c -> {
+      int count = 0;
+      for (int i = from + c * CHUNK_SIZE, end = Math.min(i + CHUNK_SIZE, to); i < end; i++) {
+        boolean matches = predicate.test(edges[i]);
+        flags[i] = matches;
+        if (matches)
+          count++;
+      }
+      matchedBefore[c + 1] = count;
+    });
+    for (int c = 0; c < chunks; c++) {
+      matchedBefore[c + 1] += matchedBefore[c];
+    }
+    int totalMatched = matchedBefore[chunks];
+
+    IntStream.range(0, chunks).parallel().forEach(c -> {
+      int start = from + c * CHUNK_SIZE;
+      int matched = from + matchedBefore[c];
+      int unmatched = from + totalMatched + (c * CHUNK_SIZE - matchedBefore[c]);
+      for (int i = start, end = Math.min(start + CHUNK_SIZE, to); i < end; i++) {
+        if (flags[i])
+          scratch[matched++] = edges[i];
+        else
+          scratch[unmatched++] = edges[i];
+      }
+    });
+    System.arraycopy(scratch, from, edges, from, n);
+    return from + totalMatched;
+  }
+}
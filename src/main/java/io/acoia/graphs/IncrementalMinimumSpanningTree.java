@@ -0,0 +1,392 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+
+/**
+ * A minimum spanning forest that is kept up to date as edges are added, without recomputing it from
+ * scratch.
+ *
+ * The forest is stored in a link-cut tree (Sleator & Tarjan, "A Data Structure for Dynamic Trees",
+ * 1983), with each tree edge represented by a node of its own between its two endpoints so that
+ * edges can carry weights.  When an edge (u, v, w) is added:
+ *
+ * - if u and v are in different trees the edge links them, otherwise
+ * - the heaviest edge on the tree path from u to v is found, and if w is less than it that edge is cut
+ *   and the new edge linked in its place.  This is the cycle property: the heaviest edge on any cycle
+ *   is never in the minimum spanning forest.
+ *
+ * Both cases take O(log V) amortised time, so the forest can follow a stream of edges for the cost of
+ * a few link-cut tree operations per edge rather than O(E log E) per batch.
+ *
+ * Equal weights are ordered by insertion, so after any sequence of addEdge() calls the forest is
+ * exactly the one MinimumSpanningTree.kruskals() would find on the same edges in the same order.
+ *
+ * Nodes are the ints 0 to nodeCount - 1.  This implementation is not threadsafe.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class IncrementalMinimumSpanningTree {
+
+  /**
+   * Receives the edges of the forest from forEachEdge().
+   */
+  @FunctionalInterface
+  public interface EdgeConsumer {
+    void accept(int u, int v, double weight);
+  }
+
+  private static final int NIL = -1;
+
+  private final int nodeCount;
+
+  // The link-cut tree.  Link-cut nodes 0 to nodeCount - 1 are the graph's nodes, and the rest are
+  // edges.  Each preferred path is a splay tree, ordered by depth unless flipped.
+  private int[] left;
+  private int[] right;
+  private int[] parent;
+  private boolean[] flipped;
+  // The heaviest edge in each splay subtree, or the node itself if the subtree has no edges.
+  private int[] heaviest;
+  private int[] splayStack;
+
+  // Per edge node: its endpoints (NIL if the slot is free), weight and insertion sequence.
+  private int[] edgeU;
+  private int[] edgeV;
+  private double[] weight;
+  private long[] sequence;
+  private int[] freeEdges;
+  private int freeEdgeCount;
+  private int edgeSlots;
+
+  private long nextSequence;
+  private int edgeCount;
+  private double totalWeight;
+
+  /**
+   * Initialises an empty forest over the nodes 0 to nodeCount - 1.
+   */
+  public IncrementalMinimumSpanningTree(int nodeCount) {
+    if (nodeCount < 0)
+      throw new IllegalArgumentException("Node count must not be negative: " + nodeCount);
+    this.nodeCount = nodeCount;
+    int capacity = nodeCount + Math.max(nodeCount - 1, 1);
+    left = new int[capacity];
+    right = new int[capacity];
+    parent = new int[capacity];
+    flipped = new boolean[capacity];
+    heaviest = new int[capacity];
+    splayStack = new int[capacity];
+    edgeU = new int[capacity];
+    edgeV = new int[capacity];
+    weight = new double[capacity];
+    sequence = new long[capacity];
+    freeEdges = new int[capacity];
+    for (int x = 0; x < nodeCount; x++) {
+      initNode(x);
+    }
+  }
+
+  private void initNode(int x) {
+    left[x] = NIL;
+    right[x] = NIL;
+    parent[x] = NIL;
+    flipped[x] = false;
+    heaviest[x] = x;
+    edgeU[x] = NIL;
+  }
+
+  /**
+   * Adds the edge (u, v) with the given weight, updating the forest if the edge belongs in it.
+   * Returns true if the edge was added to the forest, which may have displaced a heavier edge, or
+   * false if the forest is unchanged.
+   *
+   * If u or v are not nodes, or the weight is NaN, then an IllegalArgumentException is thrown.
+   */
+  public boolean addEdge(int u, int v, double w) {
+    checkNode(u);
+    checkNode(v);
+    if (Double.isNaN(w))
+      throw new IllegalArgumentException("Edge weight must not be NaN");
+    long seq = nextSequence++;
+    if (u == v)
+      return false;
+
+    if (findRoot(u) != findRoot(v)) {
+      linkEdge(u, v, w, seq);
+      return true;
+    }
+
+    int heaviestEdge = pathHeaviest(u, v);
+    // Ordered by Double.compare(), as heavier() and kruskals() order them, so -0.0 is lighter than 0.0.
+    if (Double.compare(weight[heaviestEdge], w) <= 0)
+      return false;
+
+    cut(edgeU[heaviestEdge], heaviestEdge);
+    cut(heaviestEdge, edgeV[heaviestEdge]);
+    totalWeight -= weight[heaviestEdge];
+    edgeCount--;
+    edgeU[heaviestEdge] = NIL;
+    freeEdges[freeEdgeCount++] = heaviestEdge;
+
+    linkEdge(u, v, w, seq);
+    return true;
+  }
+
+  /**
+   * Adds the edges (u[i], v[i]) with weights[i] in order, as per addEdge().  Returns the number of
+   * edges that were added to the forest.
+   */
+  public int addEdges(int[] u, int[] v, double[] weights) {
+    MinimumSpanningTree.checkEdgeList(u, v, weights.length);
+    int added = 0;
+    for (int i = 0; i < u.length; i++) {
+      if (addEdge(u[i], v[i], weights[i]))
+        added++;
+    }
+    return added;
+  }
+
+  /**
+   * Returns the total weight of the edges in the forest.
+   */
+  public double totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Returns the number of edges in the forest.
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the number of trees in the forest, counting each isolated node as a tree.
+   */
+  public int componentCount() {
+    return nodeCount - edgeCount;
+  }
+
+  /**
+   * Returns the number of nodes, the nodes being 0 to nodeCount() - 1.
+   */
+  public int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns true if u and v are connected by the edges added so far.
+   */
+  public boolean connected(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    return findRoot(u) == findRoot(v);
+  }
+
+  /**
+   * Passes every edge in the forest to the given consumer, in no particular order.
+   */
+  public void forEachEdge(EdgeConsumer consumer) {
+    for (int e = nodeCount; e < nodeCount + edgeSlots; e++) {
+      if (edgeU[e] != NIL)
+        consumer.accept(edgeU[e], edgeV[e], weight[e]);
+    }
+  }
+
+  private void checkNode(int n) {
+    if (n < 0 || n >= nodeCount)
+      throw new IllegalArgumentException("Node " + n + " is not between 0 and " + (nodeCount - 1));
+  }
+
+  private void linkEdge(int u, int v, double w, long seq) {
+    int e = newEdge();
+    edgeU[e] = u;
+    edgeV[e] = v;
+    weight[e] = w;
+    sequence[e] = seq;
+    link(u, e);
+    link(e, v);
+    totalWeight += w;
+    edgeCount++;
+  }
+
+  private int newEdge() {
+    int e;
+    if (freeEdgeCount > 0) {
+      e = freeEdges[--freeEdgeCount];
+    }
+    else {
+      e = nodeCount + edgeSlots++;
+      if (e == left.length)
+        grow();
+    }
+    initNode(e);
+    return e;
+  }
+
+  private void grow() {
+    int capacity = left.length * 2;
+    left = Arrays.copyOf(left, capacity);
+    right = Arrays.copyOf(right, capacity);
+    parent = Arrays.copyOf(parent, capacity);
+    flipped = Arrays.copyOf(flipped, capacity);
+    heaviest = Arrays.copyOf(heaviest, capacity);
+    splayStack = Arrays.copyOf(splayStack, capacity);
+    edgeU = Arrays.copyOf(edgeU, capacity);
+    edgeV = Arrays.copyOf(edgeV, capacity);
+    weight = Arrays.copyOf(weight, capacity);
+    sequence = Arrays.copyOf(sequence, capacity);
+    freeEdges = Arrays.copyOf(freeEdges, capacity);
+  }
+
+  // Link-cut tree operations.
+
+  // Returns whichever of the link-cut nodes a and b is the heavier edge.  Graph nodes are lighter
+  // than every edge, and equal weights are ordered by insertion.
+  private int heavier(int a, int b) {
+    boolean aIsEdge = a >= nodeCount;
+    boolean bIsEdge = b >= nodeCount;
+    if (aIsEdge != bIsEdge)
+      return aIsEdge ? a : b;
+    if (!aIsEdge)
+      return a;
+    int c = Double.compare(weight[a], weight[b]);
+    if (c == 0)
+      c = Long.compare(sequence[a], sequence[b]);
+    return c >= 0 ? a : b;
+  }
+
+  private boolean isSplayRoot(int x) {
+    int p = parent[x];
+    return p == NIL || (left[p] != x && right[p] != x);
+  }
+
+  private void update(int x) {
+    int h = x;
+    if (left[x] != NIL)
+      h = heavier(h, heaviest[left[x]]);
+    if (right[x] != NIL)
+      h = heavier(h, heaviest[right[x]]);
+    heaviest[x] = h;
+  }
+
+  private void pushDown(int x) {
+    if (flipped[x]) {
+      int temp = left[x];
+      left[x] = right[x];
+      right[x] = temp;
+      if (left[x] != NIL)
+        flipped[left[x]] ^= true;
+      if (right[x] != NIL)
+        flipped[right[x]] ^= true;
+      flipped[x] = false;
+    }
+  }
+
+  private void rotate(int x) {
+    int p = parent[x];
+    int g = parent[p];
+    boolean pIsRoot = isSplayRoot(p);
+    if (left[p] == x) {
+      left[p] = right[x];
+      if (right[x] != NIL)
+        parent[right[x]] = p;
+      right[x] = p;
+    }
+    else {
+      right[p] = left[x];
+      if (left[x] != NIL)
+        parent[left[x]] = p;
+      left[x] = p;
+    }
+    parent[p] = x;
+    parent[x] = g;
+    if (!pIsRoot) {
+      if (left[g] == p)
+        left[g] = x;
+      else
+        right[g] = x;
+    }
+    update(p);
+    update(x);
+  }
+
+  private void splay(int x) {
+    // Apply any pending flips from the top of the splay tree down before rotating.
+    int top = 0;
+    splayStack[top++] = x;
+    for (int y = x; !isSplayRoot(y); y = parent[y]) {
+      splayStack[top++] = parent[y];
+    }
+    while (top > 0) {
+      pushDown(splayStack[--top]);
+    }
+
+    while (!isSplayRoot(x)) {
+      int p = parent[x];
+      if (!isSplayRoot(p)) {
+        int g = parent[p];
+        if ((left[g] == p) == (left[p] == x))
+          rotate(p);
+        else
+          rotate(x);
+      }
+      rotate(x);
+    }
+  }
+
+  // Makes the path from x's tree root to x preferred, with x at the root of its splay tree.
+  private void access(int x) {
+    int last = NIL;
+    for (int y = x; y != NIL; y = parent[y]) {
+      splay(y);
+      right[y] = last;
+      update(y);
+      last = y;
+    }
+    splay(x);
+  }
+
+  private void makeRoot(int x) {
+    access(x);
+    flipped[x] ^= true;
+  }
+
+  private int findRoot(int x) {
+    access(x);
+    int y = x;
+    while (true) {
+      pushDown(y);
+      if (left[y] == NIL)
+        break;
+      y = left[y];
+    }
+    splay(y);
+    return y;
+  }
+
+  private void link(int x, int y) {
+    makeRoot(x);
+    parent[x] = y;
+  }
+
+  // Cuts the tree edge between the adjacent link-cut nodes x and y.
+  private void cut(int x, int y) {
+    makeRoot(x);
+    access(y);
+    // y's splay tree is now just the path x - y, with x as y's left child.
+    left[y] = NIL;
+    parent[x] = NIL;
+    update(y);
+  }
+
+  // Returns the heaviest edge on the tree path between the connected nodes u and v.
+  private int pathHeaviest(int u, int v) {
+    makeRoot(u);
+    access(v);
+    return heaviest[v];
+  }
+}
@@ -0,0 +1,134 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min heap of the nodes 0 to n - 1, each keyed by an edge index and ordered by an
+ * EdgeOrder.  Being indexed means a node's key can be decreased in place in O(log_d n) time, which is
+ * what Prim's algorithm needs.
+ *
+ * A wider heap is shallower, which makes decrease-key (the common operation on dense graphs)
+ * cheaper at the cost of more comparisons per poll.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class IndexedDaryHeap {
+  private static final int ABSENT = -1;
+
+  private final int arity;
+  private final EdgeOrder order;
+  private final int[] heap;
+  private final int[] position;
+  private final int[] key;
+  private int size;
+
+  IndexedDaryHeap(int nodeCount, int arity, EdgeOrder order) {
+    if (arity < 2)
+      throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+    this.arity = arity;
+    this.order = order;
+    this.heap = new int[nodeCount];
+    this.position = new int[nodeCount];
+    this.key = new int[nodeCount];
+    Arrays.fill(position, ABSENT);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  boolean contains(int node) {
+    return position[node] != ABSENT;
+  }
+
+  /**
+   * Returns the edge the given node is, or was last, keyed by.  The node must have been offered.
+   */
+  int key(int node) {
+    return key[node];
+  }
+
+  /**
+   * Adds the node with the given key, or if it's already in the heap lowers its key to the given
+   * key if that's less.  Returns true if the heap changed.
+   */
+  boolean offer(int node, int edge) {
+    int i = position[node];
+    if (i == ABSENT) {
+      i = size++;
+      heap[i] = node;
+      position[node] = i;
+    }
+    else if (order.compare(edge, key[node]) >= 0) {
+      return false;
+    }
+    key[node] = edge;
+    siftUp(i);
+    return true;
+  }
+
+  /**
+   * Removes and returns the node with the least key.
+   */
+  int poll() {
+    if (size == 0)
+      throw new NoSuchElementException();
+    int min = heap[0];
+    position[min] = ABSENT;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      position[heap[0]] = 0;
+      siftDown(0);
+    }
+    return min;
+  }
+
+  private boolean less(int i, int j) {
+    return order.compare(key[heap[i]], key[heap[j]]) < 0;
+  }
+
+  private void siftUp(int i) {
+    int node = heap[i];
+    int nodeKey = key[node];
+    while (i > 0) {
+      int parent = (i - 1) / arity;
+      if (order.compare(nodeKey, key[heap[parent]]) >= 0)
+        break;
+      heap[i] = heap[parent];
+      position[heap[i]] = i;
+      i = parent;
+    }
+    heap[i] = node;
+    position[node] = i;
+  }
+
+  private void siftDown(int i) {
+    while (true) {
+      int first = i * arity + 1;
+      if (first >= size)
+        return;
+      int smallest = first;
+      for (int c = first + 1, end = Math.min(first + arity, size); c < end; c++) {
+        if (less(c, smallest))
+          smallest = c;
+      }
+      if (!less(smallest, i))
+        return;
+      swap(i, smallest);
+      i = smallest;
+    }
+  }
+
+  private void swap(int i, int j) {
+    int temp = heap[i];
+    heap[i] = heap[j];
+    heap[j] = temp;
+    position[heap[i]] = i;
+    position[heap[j]] = j;
+  }
+}
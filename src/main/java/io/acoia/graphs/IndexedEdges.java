@@ -0,0 +1,78 @@
+package io.acoia.graphs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+/**
+ * A ValueGraph flattened into a compact edge list, so that the primitive MST algorithms can run over
+ * it.  Nodes are numbered in the graph's node iteration order and edges in its edge iteration order,
+ * which is the order kruskals(ValueGraph) breaks ties in.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class IndexedEdges<N, E> {
+  final ValueGraph<N, E> graph;
+  final List<N> nodes;
+  final Map<N, Integer> nodeIndex;
+  final int[] src;
+  final int[] dst;
+  final List<E> values;
+
+  IndexedEdges(ValueGraph<N, E> g) {
+    if (g.isDirected())
+      throw new IllegalArgumentException("Minimum spanning trees are not supported for directed graphs");
+
+    graph = g;
+    nodes = new ArrayList<>(g.nodes());
+    nodeIndex = new HashMap<>(nodes.size() * 2);
+    for (int i = 0; i < nodes.size(); i++) {
+      nodeIndex.put(nodes.get(i), i);
+    }
+
+    int edgeCount = g.edges().size();
+    src = new int[edgeCount];
+    dst = new int[edgeCount];
+    values = new ArrayList<>(edgeCount);
+    int e = 0;
+    for (EndpointPair<N> pair : g.edges()) {
+      src[e] = nodeIndex.get(pair.nodeU());
+      dst[e] = nodeIndex.get(pair.nodeV());
+      values.add(g.edgeValue(pair.nodeU(), pair.nodeV()));
+      e++;
+    }
+  }
+
+  int nodeCount() {
+    return nodes.size();
+  }
+
+  /**
+   * Builds a graph with every node of the original graph and the given edges, just as kruskals()
+   * returns.
+   */
+  ValueGraph<N, E> toGraph(int[] edges) {
+    MutableValueGraph<N, E> tree = ValueGraphBuilder
+        .undirected()
+        .allowsSelfLoops(false)
+        .expectedNodeCount(nodes.size())
+        .build();
+
+    for (N n : nodes) {
+      tree.addNode(n);
+    }
+    for (int e : edges) {
+      tree.putEdgeValue(nodes.get(src[e]), nodes.get(dst[e]), values.get(e));
+    }
+    return tree;
+  }
+}
@@ -0,0 +1,261 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import io.acoia.sets.IntUnionFind;
+
+/**
+ * A Kruskal reconstruction tree over an edge list, for answering bottleneck and threshold
+ * connectivity queries in O(1) time each.
+ *
+ * The tree records the merges Kruskal's makes: its leaves are the graph's nodes, and each minimum
+ * spanning forest edge becomes an internal node whose children are the trees that edge joined.  So
+ * the lowest common ancestor of u and v is the heaviest edge on their minimum spanning forest path,
+ * which is the minimax (bottleneck) edge between them, and u and v are connected by edges of weight
+ * at most w if and only if that edge weighs at most w.
+ *
+ * Rather than an Euler tour, the leaves are laid out in the tree's in-order, which puts exactly one
+ * internal node between each pair of neighbouring leaves.  Internal nodes are numbered in the order
+ * Kruskal's chose them, which increases towards the root, so the lowest common ancestor of two
+ * leaves is the highest numbered internal node between them.  That's a range maximum query, answered
+ * from a sparse table over the V - 1 gaps, so building takes O(E log E + V log V) time and
+ * O(V log V) space.
+ *
+ * Queries don't modify the tree, so they can be made from any number of threads.  The batch queries
+ * run in parallel on the common fork-join pool when they're large enough.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public final class KruskalReconstructionTree {
+  private static final int NONE = -1;
+  private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  private final int nodeCount;
+  // The minimum spanning forest edges, in the order Kruskal's chose them.
+  private final int[] tree;
+  // Exactly one of these is set: the weights of the forest edges, in the same order as tree.
+  private final long[] longWeights;
+  private final double[] doubleWeights;
+  // Each node's position in the in-order, and the id of its tree.
+  private final int[] position;
+  private final int[] component;
+  // gaps[j][i] is the highest numbered internal node between the leaves at positions i and
+  // i + 2^j, or NONE if they're in different trees.
+  private final int[][] gaps;
+
+  /**
+   * Builds the reconstruction tree of the given edge list, as per
+   * MinimumSpanningTree.kruskals(int nodeCount, int[] src, int[] dst, long[] weights).
+   */
+  public KruskalReconstructionTree(int nodeCount, int[] src, int[] dst, long[] weights) {
+    this(nodeCount, src, dst, MinimumSpanningTree.kruskals(nodeCount, src, dst, weights), weights, null);
+  }
+
+  /**
+   * As per KruskalReconstructionTree(int nodeCount, int[] src, int[] dst, long[] weights) but with
+   * double weights, which are ordered as per Double.compare().
+   */
+  public KruskalReconstructionTree(int nodeCount, int[] src, int[] dst, double[] weights) {
+    this(nodeCount, src, dst, MinimumSpanningTree.kruskals(nodeCount, src, dst, weights), null, weights);
+  }
+
+  private KruskalReconstructionTree(int nodeCount, int[] src, int[] dst, int[] tree, long[] longWeights,
+      double[] doubleWeights) {
+    this.nodeCount = nodeCount;
+    this.tree = tree;
+    int k = tree.length;
+    if (longWeights != null) {
+      this.longWeights = new long[k];
+      this.doubleWeights = null;
+      for (int i = 0; i < k; i++) {
+        this.longWeights[i] = longWeights[tree[i]];
+      }
+    }
+    else {
+      this.longWeights = null;
+      this.doubleWeights = new double[k];
+      for (int i = 0; i < k; i++) {
+        this.doubleWeights[i] = doubleWeights[tree[i]];
+      }
+    }
+
+    // Replay Kruskal's merges.  Internal node i (tree node nodeCount + i) has children left[i] and
+    // right[i], and top[r] is the tree node covering the union find set with root r.
+    int[] left = new int[k];
+    int[] right = new int[k];
+    boolean[] hasParent = new boolean[nodeCount + k];
+    int[] top = new int[nodeCount];
+    for (int n = 0; n < nodeCount; n++) {
+      top[n] = n;
+    }
+    IntUnionFind uf = new IntUnionFind(nodeCount);
+    for (int i = 0; i < k; i++) {
+      int e = tree[i];
+      left[i] = top[uf.findRoot(src[e])];
+      right[i] = top[uf.findRoot(dst[e])];
+      hasParent[left[i]] = true;
+      hasParent[right[i]] = true;
+      uf.join(src[e], dst[e]);
+      top[uf.findRoot(src[e])] = nodeCount + i;
+    }
+
+    // Lay out the leaves of each tree in in-order, noting the internal node in each gap.
+    position = new int[nodeCount];
+    component = new int[nodeCount];
+    int[] gap = new int[Math.max(nodeCount - 1, 0)];
+    Arrays.fill(gap, NONE);
+    int[] stack = new int[k];
+    int pos = 0;
+    int components = 0;
+    for (int root = 0; root < nodeCount + k; root++) {
+      if (hasParent[root])
+        continue;
+      int sp = 0;
+      int node = root;
+      while (true) {
+        while (node >= nodeCount) {
+          stack[sp++] = node;
+          node = left[node - nodeCount];
+        }
+        position[node] = pos;
+        component[node] = components;
+        pos++;
+        if (sp == 0)
+          break;
+        int internal = stack[--sp] - nodeCount;
+        gap[pos - 1] = internal;
+        node = right[internal];
+      }
+      components++;
+    }
+
+    int levels = 1;
+    while (1 << levels <= gap.length) {
+      levels++;
+    }
+    gaps = new int[levels][];
+    gaps[0] = gap;
+    for (int j = 1; j < levels; j++) {
+      int half = 1 << (j - 1);
+      int[] previous = gaps[j - 1];
+      int[] level = new int[gap.length - (1 << j) + 1];
+      for (int i = 0; i < level.length; i++) {
+        level[i] = Math.max(previous[i], previous[i + half]);
+      }
+      gaps[j] = level;
+    }
+  }
+
+  /**
+   * Returns the number of nodes, the nodes being 0 to nodeCount() - 1.
+   */
+  public int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns true if u and v are connected.
+   */
+  public boolean connected(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    return component[u] == component[v];
+  }
+
+  /**
+   * Returns the index of the bottleneck edge between u and v: the heaviest edge on their path in the
+   * minimum spanning forest, which is the lightest edge that any path between them must use.  Equal
+   * weights are ordered by index, as in kruskals().  Returns -1 if u and v are the same node or are
+   * not connected.
+   */
+  public int bottleneckEdge(int u, int v) {
+    int internal = lowestCommonAncestor(u, v);
+    return internal == NONE ? NONE : tree[internal];
+  }
+
+  /**
+   * Returns true if u and v are connected by a path of edges that each weigh at most maxWeight.
+   */
+  public boolean connected(int u, int v, long maxWeight) {
+    int internal = lowestCommonAncestor(u, v);
+    if (internal == NONE)
+      return u == v;
+    return longWeights != null ? longWeights[internal] <= maxWeight : doubleWeights[internal] <= maxWeight;
+  }
+
+  /**
+   * Returns true if u and v are connected by a path of edges that each weigh at most maxWeight, as
+   * ordered by Double.compare().
+   */
+  public boolean connected(int u, int v, double maxWeight) {
+    int internal = lowestCommonAncestor(u, v);
+    if (internal == NONE)
+      return u == v;
+    return longWeights != null ? longWeights[internal] <= maxWeight
+        : Double.compare(doubleWeights[internal], maxWeight) <= 0;
+  }
+
+  /**
+   * Returns bottleneckEdge(u[i], v[i]) for each i.
+   */
+  public int[] bottleneckEdges(int[] u, int[] v) {
+    checkQueries(u, v, v.length);
+    int[] result = new int[u.length];
+    queries(u.length).forEach(i -> result[i] = bottleneckEdge(u[i], v[i]));
+    return result;
+  }
+
+  /**
+   * Returns connected(u[i], v[i], maxWeights[i]) for each i.
+   */
+  public boolean[] connected(int[] u, int[] v, long[] maxWeights) {
+    checkQueries(u, v, maxWeights.length);
+    boolean[] result = new boolean[u.length];
+    queries(u.length).forEach(i -> result[i] = connected(u[i], v[i], maxWeights[i]));
+    return result;
+  }
+
+  /**
+   * Returns connected(u[i], v[i], maxWeights[i]) for each i.
+   */
+  public boolean[] connected(int[] u, int[] v, double[] maxWeights) {
+    checkQueries(u, v, maxWeights.length);
+    boolean[] result = new boolean[u.length];
+    queries(u.length).forEach(i -> result[i] = connected(u[i], v[i], maxWeights[i]));
+    return result;
+  }
+
+  // Returns the internal node (as an index into tree) that is the lowest common ancestor of u and v,
+  // or NONE if u and v are the same or in different trees.
+  private int lowestCommonAncestor(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    if (u == v || component[u] != component[v])
+      return NONE;
+    int from = Math.min(position[u], position[v]);
+    int to = Math.max(position[u], position[v]);
+    int level = 31 - Integer.numberOfLeadingZeros(to - from);
+    int[] gap = gaps[level];
+    return Math.max(gap[from], gap[to - (1 << level)]);
+  }
+
+  private void checkNode(int n) {
+    if (n < 0 || n >= nodeCount)
+      throw new IllegalArgumentException("Node " + n + " is not between 0 and " + (nodeCount - 1));
+  }
+
+  private static void checkQueries(int[] u, int[] v, int thirdLength) {
+    if (u.length != v.length || u.length != thirdLength)
+      throw new IllegalArgumentException("Query arrays must be the same length: " + u.length + ", " + v.length
+          + ", " + thirdLength);
+  }
+
+  private static IntStream queries(int count) {
+    IntStream range = IntStream.range(0, count);
+    return count < PARALLEL_THRESHOLD ? range : range.parallel();
+  }
+}
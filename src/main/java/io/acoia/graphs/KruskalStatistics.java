@@ -0,0 +1,100 @@
+package io.acoia.graphs;
+
+import io.acoia.jfr.JfrEventType;
+
+/**
+ * What one run of MinimumSpanningTree.kruskals() did: how long the sort and the union loop took,
+ * and how many edges the loop examined and accepted.  A slow run with edgesExamined() close to
+ * edgeCount() has a heavy edge in its tree; one that's mostly sort time has too many edges to sort.
+ *
+ * These are only collected for runs of MinimumSpanningTree.kruskals() that are given a consumer for
+ * them.  record() commits them as an "io.acoia.Kruskals" JDK Flight Recorder event, so passing
+ * KruskalStatistics::record puts the run in the recording; see io.acoia.jfr.JfrEventType.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public final class KruskalStatistics {
+  private static final JfrEventType EVENT = new JfrEventType("io.acoia.Kruskals", "Kruskal's",
+      "A run of Kruskal's minimum spanning tree algorithm")
+      .field("nodes", "Nodes")
+      .field("edges", "Edges")
+      .field("edgesExamined", "Edges Examined")
+      .field("edgesAccepted", "Edges Accepted")
+      .timespan("sortTime", "Sort Time")
+      .timespan("unionTime", "Union Time");
+
+  private final int nodeCount;
+  private final int edgeCount;
+  private final int edgesExamined;
+  private final int edgesAccepted;
+  private final long sortNanos;
+  private final long unionNanos;
+
+  KruskalStatistics(int nodeCount, int edgeCount, int edgesExamined, int edgesAccepted, long sortNanos,
+      long unionNanos) {
+    this.nodeCount = nodeCount;
+    this.edgeCount = edgeCount;
+    this.edgesExamined = edgesExamined;
+    this.edgesAccepted = edgesAccepted;
+    this.sortNanos = sortNanos;
+    this.unionNanos = unionNanos;
+  }
+
+  /**
+   * Returns the number of nodes in the graph.
+   */
+  public int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns the number of edges in the graph.
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the number of sorted edges the union loop looked at before the forest was complete.
+   */
+  public int edgesExamined() {
+    return edgesExamined;
+  }
+
+  /**
+   * Returns the number of edges in the minimum spanning forest.
+   */
+  public int edgesAccepted() {
+    return edgesAccepted;
+  }
+
+  /**
+   * Returns the time taken to sort the edges, in nanoseconds, or 0 if they came sorted.
+   */
+  public long sortNanos() {
+    return sortNanos;
+  }
+
+  /**
+   * Returns the time taken by the union loop, in nanoseconds.
+   */
+  public long unionNanos() {
+    return unionNanos;
+  }
+
+  /**
+   * Commits these statistics as a JDK Flight Recorder event, if JFR is recording it.
+   */
+  public void record() {
+    EVENT.commit(nodeCount, edgeCount, edgesExamined, edgesAccepted, sortNanos, unionNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "KruskalStatistics[nodes=" + nodeCount + ", edges=" + edgeCount + ", edgesExamined=" + edgesExamined
+        + ", edgesAccepted=" + edgesAccepted + ", sortNanos=" + sortNanos + ", unionNanos=" + unionNanos + "]";
+  }
+}
@@ -0,0 +1,87 @@
+package io.acoia.graphs;
+
+import io.acoia.sets.IntUnionFind;
+
+/**
+ * Kruskal's minimum spanning tree algorithm that only orders as many edges as it needs.
+ *
+ * Instead of sorting every edge up front the edges are heapified in O(E) time and popped in order,
+ * each pop costing O(log E).  The union loop stops as soon as the forest is complete, which is once
+ * it has V - C edges for a graph with C connected components, or earlier if the caller only wants the
+ * forest down to k components.  On graphs with many redundant heavy edges most of the heap is never
+ * popped, so most of the sorting work is skipped.
+ *
+ * Finding C takes one O(E α(V)) union find pass over the edges, which is cheap next to sorting them.
+ *
+ * Edges are compared with an EdgeOrder, so the edges chosen are the first ones Kruskal's would
+ * choose, in the same order.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class LazyKruskal {
+
+  private LazyKruskal() {
+  }
+
+  /**
+   * Returns the indices of the edges Kruskal's chooses, in the order it chooses them, stopping once
+   * the forest has no more than k components (or can't be reduced any further).
+   */
+  static int[] lazyKruskals(int nodeCount, int[] src, int[] dst, EdgeOrder order, int k) {
+    if (k < 1)
+      throw new IllegalArgumentException("Component count must be at least 1: " + k);
+
+    IntUnionFind components = new IntUnionFind(nodeCount);
+    for (int e = 0; e < src.length; e++) {
+      components.join(src[e], dst[e]);
+    }
+    int target = nodeCount - Math.max(components.componentCount(), Math.min(k, nodeCount));
+
+    int[] heap = new int[src.length];
+    for (int e = 0; e < heap.length; e++) {
+      heap[e] = e;
+    }
+    int heapSize = heap.length;
+    for (int i = heapSize / 2 - 1; i >= 0; i--) {
+      siftDown(heap, heapSize, i, order);
+    }
+
+    IntUnionFind uf = new IntUnionFind(nodeCount);
+    int[] tree = new int[Math.max(target, 0)];
+    int treeSize = 0;
+    while (treeSize < tree.length) {
+      int e = heap[0];
+      heap[0] = heap[--heapSize];
+      siftDown(heap, heapSize, 0, order);
+      if (uf.join(src[e], dst[e]))
+        tree[treeSize++] = e;
+    }
+    return tree;
+  }
+
+  private static void siftDown(int[] heap, int size, int i, EdgeOrder order) {
+    int e = heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && order.compare(heap[child + 1], heap[child]) < 0)
+        child++;
+      if (order.compare(heap[child], e) >= 0)
+        break;
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = e;
+  }
+
+  /**
+   * As per lazyKruskals(int, int[], int[], EdgeOrder, int) with long keys.
+   */
+  static int[] lazyKruskals(int nodeCount, int[] src, int[] dst, long[] keys, int k) {
+    return lazyKruskals(nodeCount, src, dst, EdgeOrder.of(keys), k);
+  }
+}
@@ -1,14 +1,25 @@
 package io.acoia.graphs;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.ValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
 
+import io.acoia.sets.IntUnionFind;
 import io.acoia.sets.UnionFind;
 
 /**
@@ -22,6 +33,64 @@ import io.acoia.sets.UnionFind;
  */
 public class MinimumSpanningTree {
 
+  /**
+   * The minimum spanning tree algorithms that minimumSpanningTree() can choose between.
+   */
+  public enum Algorithm {
+    /** Choose an algorithm based on the size and density of the graph. */
+    AUTO,
+    /** Kruskal's algorithm, best for sparse graphs. */
+    KRUSKAL,
+    /** Prim's algorithm with an indexed heap, best for dense graphs. */
+    PRIM,
+    /** Borůvka's algorithm, which runs in parallel and so suits large graphs on many cores. */
+    BORUVKA
+  }
+
+  // Average degree at and above which AUTO prefers Prim's to Kruskal's.
+  static final int PRIM_MIN_AVERAGE_DEGREE = 16;
+  // Edge count at and above which AUTO prefers Borůvka's to Kruskal's, if there's more than one core.
+  static final int BORUVKA_MIN_EDGES = 1 << 16;
+
+  /**
+   * Computes the minimum spanning tree (or forest) of the given graph with the algorithm that
+   * should suit it best.  See minimumSpanningTree(ValueGraph<N, E> g, Algorithm algorithm).
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> minimumSpanningTree(ValueGraph<N, E> g) {
+    return minimumSpanningTree(g, Algorithm.AUTO);
+  }
+
+  /**
+   * Computes the minimum spanning tree (or forest) of the given graph with the given algorithm.  All
+   * of the algorithms return the same tree, they differ only in how quickly they find it.
+   * 
+   * With Algorithm.AUTO the algorithm is chosen from the node and edge counts of the graph: Prim's
+   * for dense graphs, where it avoids sorting E edges, Borůvka's for large sparse graphs when the
+   * common fork-join pool has more than one thread, and Kruskal's otherwise.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> minimumSpanningTree(ValueGraph<N, E> g,
+      Algorithm algorithm) {
+    if (algorithm == Algorithm.AUTO)
+      algorithm = chooseAlgorithm(g.nodes().size(), g.edges().size(), ForkJoinPool.getCommonPoolParallelism());
+
+    switch (algorithm) {
+      case PRIM:
+        return prims(g);
+      case BORUVKA:
+        return boruvkas(g);
+      default:
+        return kruskals(g);
+    }
+  }
+
+  static Algorithm chooseAlgorithm(long nodeCount, long edgeCount, int parallelism) {
+    if (edgeCount >= nodeCount * PRIM_MIN_AVERAGE_DEGREE / 2 && nodeCount > 1)
+      return Algorithm.PRIM;
+    if (edgeCount >= BORUVKA_MIN_EDGES && parallelism > 1)
+      return Algorithm.BORUVKA;
+    return Algorithm.KRUSKAL;
+  }
+
   /**
    * Sorts the edges of the provided ValueGraph and then calls kruskals(ValueGraph<N, E> g,
    * List<EndpointPair<N>> sortedEdges). Due to the need to sort the edges this method requires edge
@@ -30,6 +99,18 @@ public class MinimumSpanningTree {
    * Due to the need to sort this method sorts the edges (O(E log(E))) before calling Kruskal's (O(E α(V))) .
    */
   public static <N, E extends Comparable<E>> ValueGraph<N, E> kruskals(ValueGraph<N, E> g) {
+    return kruskals(g, (Consumer<KruskalStatistics>) null);
+  }
+
+  /**
+   * As per kruskals(ValueGraph<N, E> g), and if statistics isn't null it's given the
+   * KruskalStatistics of this run on this thread, just before this method returns.  Pass
+   * KruskalStatistics::record to put the run in a JDK Flight Recorder recording.  With null nothing
+   * is timed.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> kruskals(ValueGraph<N, E> g,
+      Consumer<? super KruskalStatistics> statistics) {
+    long start = statistics == null ? 0 : System.nanoTime();
     Set<EndpointPair<N>> edges = g.edges();
 
     List<EndpointPair<N>> sortedEdges =
@@ -37,7 +118,7 @@ public class MinimumSpanningTree {
           .sorted((ep1, ep2) -> g.edgeValue(ep1.nodeU(), ep1.nodeV()).compareTo(g.edgeValue(ep2.nodeU(), ep2.nodeV())))
           .collect(Collectors.toList());
 
-    return kruskals(g, sortedEdges);
+    return kruskals(g, sortedEdges, statistics, statistics == null ? 0 : System.nanoTime() - start);
   }
 
   /**
@@ -55,6 +136,21 @@ public class MinimumSpanningTree {
    * runs in O(E α(V)) time.
    */
   public static <E, N> ValueGraph<N, E> kruskals(ValueGraph<N, E> g, List<EndpointPair<N>> sortedEdges) {
+    return kruskals(g, sortedEdges, null);
+  }
+
+  /**
+   * As per kruskals(ValueGraph<N, E> g, List<EndpointPair<N>> sortedEdges), giving the
+   * KruskalStatistics of this run to statistics if it isn't null.  See
+   * kruskals(ValueGraph<N, E> g, Consumer<? super KruskalStatistics> statistics).
+   */
+  public static <E, N> ValueGraph<N, E> kruskals(ValueGraph<N, E> g, List<EndpointPair<N>> sortedEdges,
+      Consumer<? super KruskalStatistics> statistics) {
+    return kruskals(g, sortedEdges, statistics, 0);
+  }
+
+  private static <E, N> ValueGraph<N, E> kruskals(ValueGraph<N, E> g, List<EndpointPair<N>> sortedEdges,
+      Consumer<? super KruskalStatistics> statistics, long sortNanos) {
 
     if (g.isDirected())
       throw new IllegalArgumentException("Kruskal's does not support directed graphs");
@@ -71,6 +167,7 @@ public class MinimumSpanningTree {
     }
 
     // Now we start kruskals.. most of the work is done by the UnionFind really...
+    long start = statistics == null ? 0 : System.nanoTime();
     UnionFind<N> uf = new UnionFind<>(g.nodes());
     for (EndpointPair<N> e : sortedEdges) {
       
@@ -83,7 +180,355 @@ public class MinimumSpanningTree {
       }
     }
 
+    if (statistics != null) {
+      statistics.accept(new KruskalStatistics(g.nodes().size(), g.edges().size(), sortedEdges.size(),
+          tree.edges().size(), sortNanos, System.nanoTime() - start));
+    }
     return tree;
   }
 
+  /**
+   * Kruskal's minimum spanning tree algorithm over a compact edge list, for graphs too large to
+   * hold as a ValueGraph.
+   * 
+   * Nodes are the ints 0 to nodeCount - 1 and edge i joins src[i] and dst[i] with weight weights[i].
+   * Edges are treated as undirected.  Returns the indices of the edges in the minimum spanning
+   * forest, in the order Kruskal's chose them (ascending weight, with equal weights in ascending
+   * index order).
+   * 
+   * The edges are sorted with a radix sort in O(E) time, and the union loop runs on an
+   * io.acoia.sets.IntUnionFind, so apart from a few arrays of size E and V nothing is allocated.
+   */
+  public static int[] kruskals(int nodeCount, int[] src, int[] dst, long[] weights) {
+    return kruskals(nodeCount, src, dst, weights, null);
+  }
+
+  /**
+   * As per kruskals(int nodeCount, int[] src, int[] dst, long[] weights), giving the
+   * KruskalStatistics of this run to statistics if it isn't null.  See
+   * kruskals(ValueGraph<N, E> g, Consumer<? super KruskalStatistics> statistics).
+   */
+  public static int[] kruskals(int nodeCount, int[] src, int[] dst, long[] weights,
+      Consumer<? super KruskalStatistics> statistics) {
+    checkEdgeList(src, dst, weights.length);
+    long start = statistics == null ? 0 : System.nanoTime();
+    int[] sortedEdges = EdgeSort.sortedIndices(weights);
+    return kruskals(nodeCount, src, dst, sortedEdges, statistics,
+        statistics == null ? 0 : System.nanoTime() - start);
+  }
+
+  /**
+   * As per kruskals(int nodeCount, int[] src, int[] dst, long[] weights) but with double weights,
+   * which are ordered as per Double.compare().
+   */
+  public static int[] kruskals(int nodeCount, int[] src, int[] dst, double[] weights) {
+    return kruskals(nodeCount, src, dst, weights, null);
+  }
+
+  /**
+   * As per kruskals(int nodeCount, int[] src, int[] dst, double[] weights), giving the
+   * KruskalStatistics of this run to statistics if it isn't null.  See
+   * kruskals(ValueGraph<N, E> g, Consumer<? super KruskalStatistics> statistics).
+   */
+  public static int[] kruskals(int nodeCount, int[] src, int[] dst, double[] weights,
+      Consumer<? super KruskalStatistics> statistics) {
+    checkEdgeList(src, dst, weights.length);
+    long start = statistics == null ? 0 : System.nanoTime();
+    int[] sortedEdges = EdgeSort.sortedIndices(EdgeSort.sortableKeys(weights));
+    return kruskals(nodeCount, src, dst, sortedEdges, statistics,
+        statistics == null ? 0 : System.nanoTime() - start);
+  }
+
+  /**
+   * Computes the minimum spanning forest of the given graph as a SpanningForest, which holds the
+   * chosen edges, their total weight and the tree each node is in without copying the graph.  Edge
+   * values are weighed with doubleValue().  The forest is the same one kruskals(ValueGraph<N, E> g)
+   * returns, which SpanningForest.asGraph() builds on demand.
+   */
+  public static <N, E extends Number & Comparable<E>> SpanningForest<N, E> minimumSpanningForest(ValueGraph<N, E> g) {
+    return minimumSpanningForest(g, Number::doubleValue);
+  }
+
+  /**
+   * As per minimumSpanningForest(ValueGraph<N, E> g), with edge values weighed by the given function
+   * for SpanningForest.totalWeight().  The forest itself only depends on the order of the values.
+   */
+  public static <N, E extends Comparable<E>> SpanningForest<N, E> minimumSpanningForest(ValueGraph<N, E> g,
+      ToDoubleFunction<? super E> weight) {
+    IndexedEdges<N, E> indexed = new IndexedEdges<>(g);
+    int[] tree = LazyKruskal.lazyKruskals(indexed.nodeCount(), indexed.src, indexed.dst, EdgeOrder.of(indexed.values), 1);
+    double totalWeight = 0;
+    for (int e : tree) {
+      totalWeight += weight.applyAsDouble(indexed.values.get(e));
+    }
+    // Capture only the node index, not indexed, which holds the input graph and every edge.
+    Map<N, Integer> nodeIndex = indexed.nodeIndex;
+    return new SpanningForest<>(indexed.nodes, n -> nodeIndex.getOrDefault(n, -1), tree, indexed.src, indexed.dst,
+        indexed.values::get, totalWeight);
+  }
+
+  /**
+   * As per kruskals(int nodeCount, int[] src, int[] dst, long[] weights), but returns the forest as
+   * a SpanningForest, with the component id of every node and the total weight.
+   */
+  public static SpanningForest<Integer, Long> minimumSpanningForest(int nodeCount, int[] src, int[] dst,
+      long[] weights) {
+    int[] tree = kruskals(nodeCount, src, dst, weights);
+    double totalWeight = 0;
+    for (int e : tree) {
+      totalWeight += weights[e];
+    }
+    return new SpanningForest<>(nodeList(nodeCount), Integer::intValue, tree, src, dst, e -> weights[e], totalWeight);
+  }
+
+  /**
+   * As per minimumSpanningForest(int nodeCount, int[] src, int[] dst, long[] weights) but with
+   * double weights, which are ordered as per Double.compare().
+   */
+  public static SpanningForest<Integer, Double> minimumSpanningForest(int nodeCount, int[] src, int[] dst,
+      double[] weights) {
+    int[] tree = kruskals(nodeCount, src, dst, weights);
+    double totalWeight = 0;
+    for (int e : tree) {
+      totalWeight += weights[e];
+    }
+    return new SpanningForest<>(nodeList(nodeCount), Integer::intValue, tree, src, dst, e -> weights[e], totalWeight);
+  }
+
+  private static List<Integer> nodeList(int nodeCount) {
+    return ContiguousSet.create(Range.closedOpen(0, nodeCount), DiscreteDomain.integers()).asList();
+  }
+
+  /**
+   * Kruskal's minimum spanning tree algorithm for graphs too large to fit in memory.
+   * 
+   * Reads the edges from the given edge file (see EdgeFileWriter) and writes the edges of the minimum
+   * spanning forest to treeFile in the same format, in the order Kruskal's chose them.  Returns the
+   * number of edges in the forest.  The result is the same as kruskals(int nodeCount, int[] src,
+   * int[] dst, double[] weights) would give, with equal weights ordered by their position in the file.
+   * 
+   * Spill files are written to the directory of treeFile, and runs are 2^21 edges, which needs about
+   * 126MB of heap.  See kruskals(Path, Path, Path, int).
+   */
+  public static long kruskals(Path edgeFile, Path treeFile) throws IOException {
+    Path spillDirectory = treeFile.toAbsolutePath().getParent();
+    return kruskals(edgeFile, treeFile, spillDirectory, ExternalKruskal.DEFAULT_RUN_EDGES);
+  }
+
+  /**
+   * As per kruskals(Path edgeFile, Path treeFile), with the given spill directory and run size.
+   * 
+   * The edges are external merge sorted: runs of runEdges edges are read through memory-mapped
+   * chunks, sorted in memory and spilled to temporary files in spillDirectory, then merged.  The final
+   * merge feeds Kruskal's union loop directly, which keeps only an io.acoia.sets.OffHeapUnionFind over
+   * the nodes in memory.  Sorting needs about 60 bytes of heap per run edge, and the spill files take
+   * about as much disk as the edge file.  Spill files are deleted before this method returns.
+   */
+  public static long kruskals(Path edgeFile, Path treeFile, Path spillDirectory, int runEdges) throws IOException {
+    return ExternalKruskal.kruskals(edgeFile, treeFile, spillDirectory, runEdges, ExternalKruskal.DEFAULT_FAN_IN);
+  }
+
+  /**
+   * A lazy variant of kruskals(ValueGraph<N, E> g) that returns the same tree, but heapifies the
+   * edges in O(E) time and pops them in order instead of sorting them all up front.  The union loop
+   * stops as soon as the forest is complete (V - C edges for a graph with C connected components), so
+   * on graphs with many redundant heavy edges most of them are never ordered at all.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> lazyKruskals(ValueGraph<N, E> g) {
+    return lazyKruskals(g, 1);
+  }
+
+  /**
+   * As per lazyKruskals(ValueGraph<N, E> g), but stops as soon as the forest has been reduced to k
+   * components, for example for single-linkage clustering into k clusters.  If the graph has more
+   * than k connected components the full minimum spanning forest is returned.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> lazyKruskals(ValueGraph<N, E> g, int k) {
+    IndexedEdges<N, E> indexed = new IndexedEdges<>(g);
+    int[] tree = LazyKruskal.lazyKruskals(indexed.nodeCount(), indexed.src, indexed.dst, EdgeOrder.of(indexed.values), k);
+    return indexed.toGraph(tree);
+  }
+
+  /**
+   * A lazy variant of kruskals(int nodeCount, int[] src, int[] dst, long[] weights), as per
+   * lazyKruskals(ValueGraph<N, E> g, int k).  Returns the first edges that kruskals() returns, in the
+   * same order, stopping once the forest has been reduced to k components.
+   */
+  public static int[] lazyKruskals(int nodeCount, int[] src, int[] dst, long[] weights, int k) {
+    checkEdgeList(src, dst, weights.length);
+    return LazyKruskal.lazyKruskals(nodeCount, src, dst, weights, k);
+  }
+
+  /**
+   * As per lazyKruskals(int nodeCount, int[] src, int[] dst, long[] weights, int k) but with double
+   * weights, which are ordered as per Double.compare().
+   */
+  public static int[] lazyKruskals(int nodeCount, int[] src, int[] dst, double[] weights, int k) {
+    checkEdgeList(src, dst, weights.length);
+    return LazyKruskal.lazyKruskals(nodeCount, src, dst, EdgeSort.sortableKeys(weights), k);
+  }
+
+  /**
+   * Filter-Kruskal minimum spanning tree algorithm over a compact edge list.  Takes the same
+   * arguments and returns the same edges, in the same order, as
+   * kruskals(int nodeCount, int[] src, int[] dst, long[] weights).
+   * 
+   * Rather than sorting every edge, the edges are partitioned quicksort style around a pivot weight
+   * and heavy edges whose endpoints are already connected are thrown away before they're sorted.
+   * The partition and filter steps run in parallel on the common fork-join pool.  This is much faster
+   * than kruskals() on dense graphs, where most edges never make it into the tree.
+   */
+  public static int[] filterKruskals(int nodeCount, int[] src, int[] dst, long[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return FilterKruskal.filterKruskals(nodeCount, src, dst, weights);
+  }
+
+  /**
+   * As per filterKruskals(int nodeCount, int[] src, int[] dst, long[] weights) but with double
+   * weights, which are ordered as per Double.compare().
+   */
+  public static int[] filterKruskals(int nodeCount, int[] src, int[] dst, double[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return FilterKruskal.filterKruskals(nodeCount, src, dst, EdgeSort.sortableKeys(weights));
+  }
+
+  /**
+   * An implementation of Borůvka's minimum spanning tree algorithm, which runs in parallel on the
+   * common fork-join pool.
+   * 
+   * Each round finds every component's cheapest outgoing edge in parallel and then contracts the
+   * components along those edges with a concurrent union find, so there are at most log2(V) rounds
+   * of O(E) parallel work each.  Where Kruskal's union loop is inherently sequential, this scales
+   * with the number of cores.
+   * 
+   * Returns the same forest as kruskals(ValueGraph<N, E> g).  Equal edge values are broken by the
+   * graph's edge iteration order.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> boruvkas(ValueGraph<N, E> g) {
+    IndexedEdges<N, E> indexed = new IndexedEdges<>(g);
+    int[] tree = Boruvka.boruvkas(indexed.nodeCount(), indexed.src, indexed.dst, EdgeOrder.of(indexed.values));
+    return indexed.toGraph(tree);
+  }
+
+  /**
+   * Borůvka's minimum spanning tree algorithm over a compact edge list, as per
+   * boruvkas(ValueGraph<N, E> g).  Takes the same arguments and returns the same edges, in the same
+   * order, as kruskals(int nodeCount, int[] src, int[] dst, long[] weights).
+   */
+  public static int[] boruvkas(int nodeCount, int[] src, int[] dst, long[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return Boruvka.boruvkas(nodeCount, src, dst, weights);
+  }
+
+  /**
+   * As per boruvkas(int nodeCount, int[] src, int[] dst, long[] weights) but with double weights,
+   * which are ordered as per Double.compare().
+   */
+  public static int[] boruvkas(int nodeCount, int[] src, int[] dst, double[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return Boruvka.boruvkas(nodeCount, src, dst, EdgeSort.sortableKeys(weights));
+  }
+
+  /**
+   * An implementation of Prim's minimum spanning tree algorithm.
+   * 
+   * The graph is copied into a compact adjacency structure and trees are grown node by node, using
+   * an indexed d-ary heap (with decrease-key) to find the cheapest edge out of the tree.  This runs in
+   * O(E log(V)) time without sorting the edges, so it's faster than Kruskal's on dense graphs.  On a
+   * disconnected graph it returns a minimum spanning forest.
+   * 
+   * Returns the same forest as kruskals(ValueGraph<N, E> g).  Equal edge values are broken by the
+   * graph's edge iteration order.
+   */
+  public static <N, E extends Comparable<E>> ValueGraph<N, E> prims(ValueGraph<N, E> g) {
+    IndexedEdges<N, E> indexed = new IndexedEdges<>(g);
+    int[] tree = Prim.prims(indexed.nodeCount(), indexed.src, indexed.dst, EdgeOrder.of(indexed.values));
+    return indexed.toGraph(tree);
+  }
+
+  /**
+   * Prim's minimum spanning tree algorithm over a compact edge list, as per
+   * prims(ValueGraph<N, E> g).  Takes the same arguments and returns the same edges, in the same
+   * order, as kruskals(int nodeCount, int[] src, int[] dst, long[] weights).
+   */
+  public static int[] prims(int nodeCount, int[] src, int[] dst, long[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return Prim.prims(nodeCount, src, dst, weights);
+  }
+
+  /**
+   * As per prims(int nodeCount, int[] src, int[] dst, long[] weights) but with double weights,
+   * which are ordered as per Double.compare().
+   */
+  public static int[] prims(int nodeCount, int[] src, int[] dst, double[] weights) {
+    checkEdgeList(src, dst, weights.length);
+    return Prim.prims(nodeCount, src, dst, EdgeSort.sortableKeys(weights));
+  }
+
+  /**
+   * Computes the minimum spanning tree of the complete graph over the given points, where each edge
+   * weighs the Euclidean distance between its points, without building that graph.
+   * 
+   * Point i has the coordinates coordinates[i * dimensions] to coordinates[(i + 1) * dimensions - 1].
+   * The result is the same tree Kruskal's finds on the complete graph with its edges listed as (0, 1),
+   * (0, 2) ... (0, n - 1), (1, 2) and so on, with each edge's nodes in ascending order.  The
+   * SpanningForest's edge indices are simply 0 to n - 2, in the order Kruskal's would choose them.
+   * 
+   * This runs Borůvka's algorithm with a k-d tree to find each component's nearest other component,
+   * in parallel on the common fork-join pool, which takes about O(n log² n) time and O(n) memory for
+   * points in a few dimensions.  In many dimensions k-d trees prune poorly and it degrades towards
+   * O(n²) time, though still O(n) memory.
+   */
+  public static SpanningForest<Integer, Double> euclideanMinimumSpanningTree(double[] coordinates, int dimensions) {
+    EuclideanBoruvka boruvka = new EuclideanBoruvka(coordinates, dimensions);
+    int[] tree = new int[boruvka.src.length];
+    double totalWeight = 0;
+    for (int i = 0; i < tree.length; i++) {
+      tree[i] = i;
+      totalWeight += boruvka.weights[i];
+    }
+    return new SpanningForest<>(nodeList(coordinates.length / dimensions), Integer::intValue, tree, boruvka.src,
+        boruvka.dst, i -> boruvka.weights[i], totalWeight);
+  }
+
+  /**
+   * As per euclideanMinimumSpanningTree(double[] coordinates, int dimensions) for 2-D points, where
+   * point i is (x[i], y[i]).
+   */
+  public static SpanningForest<Integer, Double> euclideanMinimumSpanningTree(double[] x, double[] y) {
+    if (x.length != y.length)
+      throw new IllegalArgumentException("x and y must be the same length: " + x.length + ", " + y.length);
+    double[] coordinates = new double[x.length * 2];
+    for (int i = 0; i < x.length; i++) {
+      coordinates[2 * i] = x[i];
+      coordinates[2 * i + 1] = y[i];
+    }
+    return euclideanMinimumSpanningTree(coordinates, 2);
+  }
+
+  static void checkEdgeList(int[] src, int[] dst, int weightCount) {
+    if (src.length != dst.length || src.length != weightCount)
+      throw new IllegalArgumentException("src, dst and weights must be the same length: " + src.length + ", "
+          + dst.length + ", " + weightCount);
+  }
+
+  private static int[] kruskals(int nodeCount, int[] src, int[] dst, int[] sortedEdges,
+      Consumer<? super KruskalStatistics> statistics, long sortNanos) {
+    long start = statistics == null ? 0 : System.nanoTime();
+    IntUnionFind uf = new IntUnionFind(nodeCount);
+    int[] tree = new int[Math.min(sortedEdges.length, Math.max(nodeCount - 1, 0))];
+    int treeSize = 0;
+    int i = 0;
+    for (; i < sortedEdges.length && treeSize < tree.length; i++) {
+      int e = sortedEdges[i];
+      if (uf.join(src[e], dst[e]))
+        tree[treeSize++] = e;
+    }
+    if (statistics != null) {
+      statistics.accept(new KruskalStatistics(nodeCount, sortedEdges.length, i, treeSize, sortNanos,
+          System.nanoTime() - start));
+    }
+    return treeSize == tree.length ? tree : Arrays.copyOf(tree, treeSize);
+  }
+
 }
@@ -0,0 +1,94 @@
+package io.acoia.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Prim's minimum spanning tree algorithm over a compact edge list.
+ *
+ * The edge list is first turned into a compressed adjacency structure (each node's incident edges
+ * stored contiguously in one int array), and the frontier is an IndexedDaryHeap keyed by each node's
+ * cheapest edge into the tree so far.  This runs in O(E log_d V) time without sorting the edges, which
+ * beats Kruskal's O(E log E) sort on dense graphs.
+ *
+ * Edges are compared with an EdgeOrder, so ties are broken by edge index and the result is the same
+ * forest Kruskal's finds.  Disconnected graphs give a minimum spanning forest: a new tree is grown
+ * from every node that isn't yet reached.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class Prim {
+  static final int DEFAULT_ARITY = 4;
+
+  private Prim() {
+  }
+
+  /**
+   * Returns the indices of the edges in the minimum spanning forest, in the order they were added.
+   */
+  static int[] prims(int nodeCount, int[] src, int[] dst, EdgeOrder order) {
+    // Build the adjacency structure: the edges incident to node n are
+    // incident[offsets[n]] to incident[offsets[n + 1] - 1].
+    int[] offsets = new int[nodeCount + 1];
+    for (int e = 0; e < src.length; e++) {
+      checkNode(src[e], nodeCount);
+      checkNode(dst[e], nodeCount);
+      offsets[src[e] + 1]++;
+      offsets[dst[e] + 1]++;
+    }
+    for (int n = 0; n < nodeCount; n++) {
+      offsets[n + 1] += offsets[n];
+    }
+    int[] incident = new int[offsets[nodeCount]];
+    int[] fill = Arrays.copyOf(offsets, nodeCount);
+    for (int e = 0; e < src.length; e++) {
+      incident[fill[src[e]]++] = e;
+      incident[fill[dst[e]]++] = e;
+    }
+
+    boolean[] reached = new boolean[nodeCount];
+    IndexedDaryHeap frontier = new IndexedDaryHeap(nodeCount, DEFAULT_ARITY, order);
+    int[] tree = new int[Math.max(nodeCount - 1, 0)];
+    int treeSize = 0;
+
+    for (int start = 0; start < nodeCount && treeSize < tree.length; start++) {
+      if (reached[start])
+        continue;
+
+      int node = start;
+      while (true) {
+        reached[node] = true;
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+          int e = incident[i];
+          int other = src[e] == node ? dst[e] : src[e];
+          if (!reached[other])
+            frontier.offer(other, e);
+        }
+        if (frontier.isEmpty())
+          break;
+        node = frontier.poll();
+        tree[treeSize++] = frontier.key(node);
+      }
+    }
+
+    return treeSize == tree.length ? tree : Arrays.copyOf(tree, treeSize);
+  }
+
+  private static void checkNode(int n, int nodeCount) {
+    if (n < 0 || n >= nodeCount)
+      throw new IllegalArgumentException("Node " + n + " is not between 0 and " + (nodeCount - 1));
+  }
+
+  /**
+   * As per prims(int, int[], int[], EdgeOrder) but with long keys, and with the result in the order
+   * Kruskal's would choose the edges.
+   */
+  static int[] prims(int nodeCount, int[] src, int[] dst, long[] keys) {
+    int[] tree = prims(nodeCount, src, dst, EdgeOrder.of(keys));
+    Arrays.sort(tree);
+    EdgeSort.sort(keys, tree, 0, tree.length);
+    return tree;
+  }
+}
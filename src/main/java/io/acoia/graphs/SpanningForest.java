@@ -0,0 +1,178 @@
+package io.acoia.graphs;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+import io.acoia.sets.IntUnionFind;
+
+/**
+ * A minimum spanning forest, as returned by MinimumSpanningTree.minimumSpanningForest().
+ *
+ * Where kruskals() copies every node and tree edge into a new MutableValueGraph, this keeps only what
+ * most callers want: the indices of the chosen edges, their endpoints and values, the total weight,
+ * and which tree each node is in.  Nodes are numbered 0 to nodeCount() - 1 in the input graph's node
+ * iteration order (or are the ints themselves for edge lists), and each tree is given a component id
+ * from 0 to componentCount() - 1 in order of its first node.
+ *
+ * The forest as a ValueGraph is only built if asGraph() is called.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public final class SpanningForest<N, E> {
+  private final List<N> nodes;
+  private final ToIntFunction<? super N> nodeIndex;
+  private final int[] edgeIndices;
+  private final int[] src;
+  private final int[] dst;
+  private final Object[] values;
+  private final double totalWeight;
+  private final int[] componentIds;
+  private final int componentCount;
+  private ValueGraph<N, E> graph;
+
+  /**
+   * Builds the forest from the edges chosen out of the edge list (src, dst), in the order they were
+   * chosen.  nodeIndex returns a node's index, or -1 if it isn't one of the nodes.
+   */
+  SpanningForest(List<N> nodes, ToIntFunction<? super N> nodeIndex, int[] edges, int[] src, int[] dst,
+      IntFunction<E> value, double totalWeight) {
+    this.nodes = nodes;
+    this.nodeIndex = nodeIndex;
+    this.edgeIndices = edges;
+    this.src = new int[edges.length];
+    this.dst = new int[edges.length];
+    this.values = new Object[edges.length];
+    this.totalWeight = totalWeight;
+
+    IntUnionFind uf = new IntUnionFind(nodes.size());
+    for (int i = 0; i < edges.length; i++) {
+      int e = edges[i];
+      this.src[i] = src[e];
+      this.dst[i] = dst[e];
+      this.values[i] = value.apply(e);
+      uf.join(src[e], dst[e]);
+    }
+
+    // Number the trees in order of their first node, so the ids are dense and deterministic.
+    componentIds = new int[nodes.size()];
+    int[] rootIds = new int[nodes.size()];
+    int count = 0;
+    for (int n = 0; n < componentIds.length; n++) {
+      int root = uf.findRoot(n);
+      if (rootIds[root] == 0)
+        rootIds[root] = ++count;
+      componentIds[n] = rootIds[root] - 1;
+    }
+    componentCount = count;
+  }
+
+  /**
+   * Returns the number of nodes in the forest, which is every node of the input graph.
+   */
+  public int nodeCount() {
+    return nodes.size();
+  }
+
+  /**
+   * Returns the number of edges in the forest.
+   */
+  public int edgeCount() {
+    return edgeIndices.length;
+  }
+
+  /**
+   * Returns the indices of the edges in the forest, in the order Kruskal's chose them.  For edge lists
+   * these index src, dst and weights, and for a ValueGraph they count edges in the graph's edge
+   * iteration order.  The returned array is a copy.
+   */
+  public int[] edgeIndices() {
+    return edgeIndices.clone();
+  }
+
+  /**
+   * Returns one endpoint of the i'th edge of the forest, for i from 0 to edgeCount() - 1.
+   */
+  public N nodeU(int i) {
+    return nodes.get(src[i]);
+  }
+
+  /**
+   * Returns the other endpoint of the i'th edge of the forest, for i from 0 to edgeCount() - 1.
+   */
+  public N nodeV(int i) {
+    return nodes.get(dst[i]);
+  }
+
+  /**
+   * Returns the value of the i'th edge of the forest, for i from 0 to edgeCount() - 1.
+   */
+  @SuppressWarnings("unchecked")
+  public E edgeValue(int i) {
+    return (E) values[i];
+  }
+
+  /**
+   * Returns the total weight of the edges in the forest.
+   */
+  public double totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Returns the number of trees in the forest, counting each isolated node as a tree.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns the id, from 0 to componentCount() - 1, of the tree the given node is in.  Two nodes are
+   * connected if and only if they have the same component id.
+   *
+   * If the node is not in the forest then an IllegalArgumentException is thrown.
+   */
+  public int componentId(N node) {
+    int n = nodeIndex.applyAsInt(node);
+    if (n < 0 || n >= componentIds.length)
+      throw new IllegalArgumentException("Node " + node + " is not in this forest");
+    return componentIds[n];
+  }
+
+  /**
+   * Returns the component id of every node, indexed by node number.  The returned array is a copy.
+   */
+  public int[] componentIds() {
+    return componentIds.clone();
+  }
+
+  /**
+   * Returns the forest as a ValueGraph with every node of the input graph, the same graph kruskals()
+   * returns.  It's built on the first call.
+   */
+  public ValueGraph<N, E> asGraph() {
+    if (graph == null) {
+      MutableValueGraph<N, E> tree = ValueGraphBuilder
+          .undirected()
+          .allowsSelfLoops(false)
+          .expectedNodeCount(nodes.size())
+          .build();
+
+      for (N n : nodes) {
+        tree.addNode(n);
+      }
+      for (int i = 0; i < edgeIndices.length; i++) {
+        tree.putEdgeValue(nodeU(i), nodeV(i), edgeValue(i));
+      }
+      graph = tree;
+    }
+    return graph;
+  }
+}
@@ -0,0 +1,192 @@
+package io.acoia.jfr;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A custom JDK Flight Recorder event type with long fields, for the statistics classes to record
+ * themselves with.
+ *
+ * The library is built for Java 8, whose class library has no jdk.jfr, so rather than subclassing
+ * jdk.jfr.Event this defines the event at runtime through jdk.jfr.EventFactory, by reflection.  On a
+ * JVM with JFR (JDK 11 or later, or 8u262 or later) the events appear in recordings under the
+ * "acoia" category and can be enabled and disabled like any other event; elsewhere commit() does
+ * nothing.  Events are committed at most once per job or snapshot, never per operation, so the
+ * reflection costs a few microseconds at most, and nothing at all unless a recording has the event
+ * enabled.
+ *
+ * Define fields with field() and timespan(), then commit() values in the same order.  The event is
+ * registered with JFR on the first commit().  This class is threadsafe once its fields are defined.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public final class JfrEventType {
+  private static final String CATEGORY = "acoia";
+
+  private final String name;
+  private final String label;
+  private final String description;
+  private final List<String> fieldNames = new ArrayList<>();
+  private final List<String> fieldLabels = new ArrayList<>();
+  private final List<Boolean> timespans = new ArrayList<>();
+  private volatile Registration registration;
+
+  /**
+   * Creates an event type with the given JFR name (e.g. "io.acoia.Kruskals"), label and description.
+   */
+  public JfrEventType(String name, String label, String description) {
+    this.name = name;
+    this.label = label;
+    this.description = description;
+  }
+
+  /**
+   * Adds a long field, and returns this event type.
+   */
+  public JfrEventType field(String fieldName, String fieldLabel) {
+    return addField(fieldName, fieldLabel, false);
+  }
+
+  /**
+   * Adds a long field holding a duration in nanoseconds, and returns this event type.
+   */
+  public JfrEventType timespan(String fieldName, String fieldLabel) {
+    return addField(fieldName, fieldLabel, true);
+  }
+
+  private synchronized JfrEventType addField(String fieldName, String fieldLabel, boolean timespan) {
+    if (registration != null)
+      throw new IllegalStateException("Fields can't be added to " + name + " once it has been committed");
+    fieldNames.add(fieldName);
+    fieldLabels.add(fieldLabel);
+    timespans.add(timespan);
+    return this;
+  }
+
+  /**
+   * Returns true if JFR is available and a recording has this event enabled.
+   */
+  public boolean isEnabled() {
+    return registration().isEnabled();
+  }
+
+  /**
+   * Commits an event with the given field values, in the order the fields were defined, if JFR is
+   * available and a recording has this event enabled.
+   */
+  public void commit(long... values) {
+    if (values.length != fieldNames.size())
+      throw new IllegalArgumentException(name + " has " + fieldNames.size() + " fields, not " + values.length);
+    Registration r = registration();
+    if (r.isEnabled())
+      r.commit(values);
+  }
+
+  private Registration registration() {
+    Registration r = registration;
+    if (r == null) {
+      synchronized (this) {
+        r = registration;
+        if (r == null) {
+          r = Registration.create(this);
+          registration = r;
+        }
+      }
+    }
+    return r;
+  }
+
+  // The reflective handles on a registered EventFactory, or none if JFR isn't available.
+  private static final class Registration {
+    private static final Registration UNAVAILABLE = new Registration(null, null, null, null, null, null);
+
+    private final Object factory;
+    private final Object eventType;
+    private final Method isEnabled;
+    private final Method newEvent;
+    private final Method set;
+    private final Method commit;
+
+    private Registration(Object factory, Object eventType, Method isEnabled, Method newEvent, Method set,
+        Method commit) {
+      this.factory = factory;
+      this.eventType = eventType;
+      this.isEnabled = isEnabled;
+      this.newEvent = newEvent;
+      this.set = set;
+      this.commit = commit;
+    }
+
+    static Registration create(JfrEventType type) {
+      try {
+        Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+        Constructor<?> annotation = annotationElement.getConstructor(Class.class, Object.class);
+        Class<?> nameClass = Class.forName("jdk.jfr.Name");
+        Class<?> labelClass = Class.forName("jdk.jfr.Label");
+        Class<?> descriptionClass = Class.forName("jdk.jfr.Description");
+        Class<?> categoryClass = Class.forName("jdk.jfr.Category");
+        Class<?> timespanClass = Class.forName("jdk.jfr.Timespan");
+
+        List<Object> eventAnnotations = new ArrayList<>();
+        eventAnnotations.add(annotation.newInstance(nameClass, type.name));
+        eventAnnotations.add(annotation.newInstance(labelClass, type.label));
+        eventAnnotations.add(annotation.newInstance(descriptionClass, type.description));
+        eventAnnotations.add(annotation.newInstance(categoryClass, new String[] { CATEGORY }));
+
+        Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+        Constructor<?> field = valueDescriptor.getConstructor(Class.class, String.class, List.class);
+        List<Object> fields = new ArrayList<>();
+        for (int i = 0; i < type.fieldNames.size(); i++) {
+          List<Object> fieldAnnotations = new ArrayList<>();
+          fieldAnnotations.add(annotation.newInstance(labelClass, type.fieldLabels.get(i)));
+          if (type.timespans.get(i))
+            fieldAnnotations.add(annotation.newInstance(timespanClass, "NANOSECONDS"));
+          fields.add(field.newInstance(long.class, type.fieldNames.get(i), fieldAnnotations));
+        }
+
+        Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+        Object factory = eventFactory.getMethod("create", List.class, List.class)
+            .invoke(null, Collections.unmodifiableList(eventAnnotations), Collections.unmodifiableList(fields));
+        Object eventType = eventFactory.getMethod("getEventType").invoke(factory);
+        Class<?> event = Class.forName("jdk.jfr.Event");
+        return new Registration(factory, eventType, Class.forName("jdk.jfr.EventType").getMethod("isEnabled"),
+            eventFactory.getMethod("newEvent"), event.getMethod("set", int.class, Object.class),
+            event.getMethod("commit"));
+      }
+      catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+        // No JFR on this JVM (or it's unusable), so events are never enabled.
+        return UNAVAILABLE;
+      }
+    }
+
+    boolean isEnabled() {
+      if (factory == null)
+        return false;
+      try {
+        return (Boolean) isEnabled.invoke(eventType);
+      }
+      catch (ReflectiveOperationException e) {
+        return false;
+      }
+    }
+
+    void commit(long[] values) {
+      try {
+        Object event = newEvent.invoke(factory);
+        for (int i = 0; i < values.length; i++) {
+          set.invoke(event, i, values[i]);
+        }
+        commit.invoke(event);
+      }
+      catch (ReflectiveOperationException e) {
+        // Recording is best effort; a failed commit only loses the event.
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package io.acoia.numbers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Bernstein's batch GCD ("How to find smooth parts of integers", 2004), which finds the gcd of each of
+ * n numbers with the product of all the others in quasi-linear time, rather than the O(n²) gcds of
+ * comparing every pair.  The usual use is finding RSA moduli that share a prime factor: a modulus
+ * whose batch gcd isn't 1 shares a factor with another.
+ *
+ * - A product tree is built bottom up: each level holds the products of pairs from the level below,
+ *   up to the product P of every input at the root.
+ * - A remainder tree is then built top down: each node is its parent's remainder modulo the square of
+ *   the product tree node in the same place, ending with P mod x² for each input x.
+ * - (P mod x²) / x is (P / x) mod x, and its gcd with x is the answer.
+ *
+ * The nodes of each level are computed in parallel on the common fork-join pool.  The product tree
+ * holds about log2(n) copies of the inputs' bits, so for very large inputs every level below the one
+ * being worked on can be spilled to disk and read back on the way down.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class BatchGCD {
+
+  /**
+   * Returns gcd(x[i], the product of every x[j] with j != i) for each i, keeping the whole product
+   * tree in memory.  Every x must be positive.
+   */
+  public static BigInteger[] gcds(BigInteger[] x) {
+    try {
+      return gcds(x, null);
+    }
+    catch (IOException e) {
+      // Nothing is written without a spill directory.
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * As per gcds(BigInteger[] x), but spilling product tree levels to temporary files in the given
+   * directory so that only two levels are in memory at a time, besides the inputs.  The files are
+   * deleted before this method returns.  If spillDirectory is null nothing is spilled.
+   */
+  public static BigInteger[] gcds(BigInteger[] x, Path spillDirectory) throws IOException {
+    for (int i = 0; i < x.length; i++) {
+      if (x[i].signum() <= 0)
+        throw new IllegalArgumentException("Input " + i + " is not positive: " + x[i]);
+    }
+    if (x.length == 0)
+      return new BigInteger[0];
+
+    // levels.get(k) is level k of the product tree, or null if it's been spilled to spills.get(k).
+    List<BigInteger[]> levels = new ArrayList<>();
+    List<Path> spills = new ArrayList<>();
+    try {
+      BigInteger[] level = x;
+      levels.add(level);
+      spills.add(null);
+      while (level.length > 1) {
+        BigInteger[] below = level;
+        BigInteger[] products = new BigInteger[(below.length + 1) / 2];
+        IntStream.range(0, products.length).parallel().forEach(i -> {
+          int left = 2 * i;
+          products[i] = left + 1 < below.length ? below[left].multiply(below[left + 1]) : below[left];
+        });
+
+        int k = levels.size() - 1;
+        if (spillDirectory != null && k > 0) {
+          spills.set(k, write(below, spillDirectory));
+          levels.set(k, null);
+        }
+        levels.add(products);
+        spills.add(null);
+        level = products;
+      }
+
+      BigInteger[] remainders = level;
+      for (int k = levels.size() - 2; k >= 0; k--) {
+        BigInteger[] products = levels.get(k) != null ? levels.get(k) : read(spills.get(k));
+        levels.set(k, null);
+        BigInteger[] above = remainders;
+        BigInteger[] below = new BigInteger[products.length];
+        IntStream.range(0, below.length).parallel().forEach(i -> {
+          below[i] = above[i / 2].mod(products[i].multiply(products[i]));
+        });
+        remainders = below;
+      }
+
+      BigInteger[] finalRemainders = remainders;
+      BigInteger[] gcds = new BigInteger[x.length];
+      IntStream.range(0, x.length).parallel().forEach(i -> gcds[i] = finalRemainders[i].divide(x[i]).gcd(x[i]));
+      return gcds;
+    }
+    finally {
+      for (Path spill : spills) {
+        if (spill != null)
+          Files.deleteIfExists(spill);
+      }
+    }
+  }
+
+  private static Path write(BigInteger[] level, Path directory) throws IOException {
+    Path file = Files.createTempFile(directory, "batch-gcd", ".level");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(level.length);
+      for (BigInteger n : level) {
+        byte[] bytes = n.toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return file;
+  }
+
+  private static BigInteger[] read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      BigInteger[] level = new BigInteger[in.readInt()];
+      for (int i = 0; i < level.length; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        level[i] = new BigInteger(bytes);
+      }
+      return level;
+    }
+  }
+
+}
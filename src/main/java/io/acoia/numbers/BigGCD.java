@@ -0,0 +1,515 @@
+package io.acoia.numbers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * GCD for arbitrary-precision integers, several times faster than BigInteger.gcd() from a few hundred
+ * bits up.
+ *
+ * Numbers are magnitudes: little-endian arrays of 32-bit limbs (least significant limb first), with
+ * a separate length so that arrays can be reused.  Every call works in scratch buffers held by the
+ * BigGCD, which grow as needed and are kept for the next call, so gcds of magnitudes into a given
+ * result array allocate nothing once warmed up.  (The BigInteger methods convert, which allocates.)
+ * A BigGCD is not threadsafe; use one per thread.
+ *
+ * Mid-sized numbers use Lehmer's algorithm (Knuth, TAOCP vol. 2, 4.5.2, Algorithm L) with
+ * double-digit leading parts: the Euclidean quotients of the leading 62 bits of both numbers are
+ * found with long arithmetic, for as long as they're certain to be the quotients of the full numbers
+ * and their cofactors fit in 31 bits.  The cofactors are then applied to the full numbers in a single
+ * pass, so each O(n) pass removes about 31 bits rather than the one or two of a binary GCD step.
+ *
+ * Numbers of more than HALF_GCD_THRESHOLD bits are first reduced with a recursive half-GCD, which
+ * finds the cofactors that halve the numbers' length from the cofactors of their leading halves,
+ * and applies them with BigInteger's subquadratic (Karatsuba and Toom-Cook) multiplication.  That
+ * takes O(M(n) log n) time rather than O(n²), but BigInteger has no FFT multiplication, so it only
+ * overtakes Lehmer's at about a million bits.  Any unimodular matrix preserves the gcd, so leading
+ * part quotients that turn out to be wrong only cost speed, never correctness.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class BigGCD {
+  static final int HALF_GCD_THRESHOLD = 1 << 20;
+  // The size at which the half-GCD stops recursing and runs Lehmer's algorithm directly.
+  static final int HALF_GCD_BASE = 1 << 13;
+
+  private static final long MASK = 0xffffffffL;
+  private static final long MAX_COFACTOR = Integer.MAX_VALUE;
+
+  private final int halfGcdThreshold;
+
+  // Scratch: u >= v are the current pair, and t and w receive the next pair.
+  private int[] u = new int[0];
+  private int[] v = new int[0];
+  private int[] t = new int[0];
+  private int[] w = new int[0];
+  private int uLength;
+  private int vLength;
+  private final long[] cofactors = new long[4];
+
+  public BigGCD() {
+    this(HALF_GCD_THRESHOLD);
+  }
+
+  BigGCD(int halfGcdThreshold) {
+    this.halfGcdThreshold = halfGcdThreshold;
+  }
+
+  /**
+   * Returns the greatest common divisor of a and b, which is never negative.  gcd(0, 0) is 0.
+   */
+  public BigInteger gcd(BigInteger a, BigInteger b) {
+    a = a.abs();
+    b = b.abs();
+    if (a.compareTo(b) < 0) {
+      BigInteger temp = a;
+      a = b;
+      b = temp;
+    }
+    if (b.bitLength() > halfGcdThreshold) {
+      BigInteger[] reduced = halfGcdReduce(a, b, halfGcdThreshold);
+      a = reduced[0];
+      b = reduced[1];
+    }
+    int[] x = magnitude(a);
+    int[] y = magnitude(b);
+    int[] result = new int[Math.max(x.length, 1)];
+    int length = gcd(x, x.length, y, y.length, result);
+    return toBigInteger(result, length);
+  }
+
+  /**
+   * Returns the gcd of the given magnitudes, as per gcd(int[], int, int[], int, int[]), as a new
+   * array with no leading zero limbs.
+   */
+  public int[] gcd(int[] a, int[] b) {
+    int[] result = new int[Math.max(Math.max(a.length, b.length), 1)];
+    int length = gcd(a, a.length, b, b.length, result);
+    return Arrays.copyOf(result, length);
+  }
+
+  /**
+   * Writes the gcd of the magnitudes a[0 .. aLength - 1] and b[0 .. bLength - 1] to result and returns
+   * its length in limbs, which is 0 if both a and b are zero.  result must have room for the shorter
+   * of the two non-zero magnitudes (or for a or b if the other is zero).  a and b are not modified,
+   * and result may be a or b.
+   *
+   * This uses Lehmer's algorithm only; see the class documentation.
+   */
+  public int gcd(int[] a, int aLength, int[] b, int bLength, int[] result) {
+    aLength = trim(a, aLength);
+    bLength = trim(b, bLength);
+    if (compare(a, aLength, b, bLength) < 0) {
+      load(b, bLength, a, aLength);
+    }
+    else {
+      load(a, aLength, b, bLength);
+    }
+
+    while (vLength > 0) {
+      if (uLength <= 2) {
+        long g = smallGcd(toLong(u, uLength), toLong(v, vLength));
+        u[0] = (int) g;
+        if (uLength > 1)
+          u[1] = (int) (g >>> 32);
+        uLength = trim(u, uLength);
+        break;
+      }
+      lehmerStep();
+    }
+
+    System.arraycopy(u, 0, result, 0, uLength);
+    return uLength;
+  }
+
+  private void load(int[] a, int aLength, int[] b, int bLength) {
+    ensureCapacity(aLength + 1);
+    System.arraycopy(a, 0, u, 0, aLength);
+    System.arraycopy(b, 0, v, 0, bLength);
+    uLength = aLength;
+    vLength = bLength;
+  }
+
+  private void ensureCapacity(int limbs) {
+    if (u.length < limbs) {
+      int capacity = Math.max(limbs, u.length + (u.length >> 1));
+      u = new int[capacity];
+      v = new int[capacity];
+      t = new int[capacity];
+      w = new int[capacity];
+    }
+  }
+
+  // One step of Lehmer's algorithm on u >= v > 0 with u at least three limbs.
+  private void lehmerStep() {
+    int shift = bitLength(u, uLength) - 62;
+    long uHat = topBits(u, uLength, shift);
+    long vHat = topBits(v, vLength, shift);
+
+    lehmerCofactors(uHat, vHat, cofactors);
+    long a = cofactors[0], b = cofactors[1], c = cofactors[2], d = cofactors[3];
+
+    if (b == 0) {
+      // The leading parts don't determine the next quotient (usually because it's huge), so take a
+      // full remainder step.
+      remainder();
+      int[] temp = u;
+      u = v;
+      v = temp;
+      int tempLength = uLength;
+      uLength = vLength;
+      vLength = tempLength;
+    }
+    else {
+      int tLength = combine(a, b, t);
+      int wLength = combine(c, d, w);
+      int[] temp = u;
+      u = t;
+      t = temp;
+      temp = v;
+      v = w;
+      w = temp;
+      uLength = tLength;
+      vLength = wLength;
+    }
+  }
+
+  // Finds the cofactors { a, b, c, d } of the Euclidean quotients of uHat >= vHat, the leading
+  // bits of u and v, that are certain to be quotients of u and v too.  Then (a u + b v, c u + d v) is
+  // a later pair of the Euclidean sequence of u and v.  This is Knuth's Algorithm L: a quotient is
+  // taken only if it's the same at both ends of the range the true quotient can be in.  It also stops
+  // before a cofactor or quotient exceeds 31 bits, so the cofactors can be applied limb by limb in
+  // long arithmetic.  If no quotient is certain, b is 0.
+  private static void lehmerCofactors(long uHat, long vHat, long[] cofactors) {
+    long a = 1, b = 0, c = 0, d = 1;
+    while (true) {
+      long denominator1 = vHat + c;
+      long denominator2 = vHat + d;
+      long numerator1 = uHat + a;
+      long numerator2 = uHat + b;
+      if (denominator1 <= 0 || denominator2 <= 0 || numerator1 < 0 || numerator2 < 0)
+        break;
+      long q = numerator1 / denominator1;
+      if (q != numerator2 / denominator2 || q > MAX_COFACTOR)
+        break;
+      long nextC = a - q * c;
+      long nextD = b - q * d;
+      if (Math.abs(nextC) > MAX_COFACTOR || Math.abs(nextD) > MAX_COFACTOR)
+        break;
+      a = c;
+      c = nextC;
+      b = d;
+      d = nextD;
+      long nextVHat = uHat - q * vHat;
+      uHat = vHat;
+      vHat = nextVHat;
+    }
+    cofactors[0] = a;
+    cofactors[1] = b;
+    cofactors[2] = c;
+    cofactors[3] = d;
+  }
+
+  // Writes x * u + y * v to out and returns its length.  x and y have opposite signs (or one is
+  // zero), are at most 31 bits and the result is known to be non-negative.
+  private int combine(long x, long y, int[] out) {
+    long carry = 0;
+    for (int i = 0; i < uLength; i++) {
+      long vi = i < vLength ? v[i] & MASK : 0;
+      long sum = x * (u[i] & MASK) + y * vi + carry;
+      out[i] = (int) sum;
+      carry = sum >> 32;
+    }
+    return trim(out, uLength);
+  }
+
+  // Replaces u with u mod v, with Knuth's Algorithm D (as in Hacker's Delight, divmnu).
+  private void remainder() {
+    int n = vLength;
+    int m = uLength;
+    if (n == 1) {
+      long divisor = v[0] & MASK;
+      long rem = 0;
+      for (int i = m - 1; i >= 0; i--) {
+        rem = Long.remainderUnsigned((rem << 32) | (u[i] & MASK), divisor);
+      }
+      u[0] = (int) rem;
+      uLength = rem == 0 ? 0 : 1;
+      return;
+    }
+
+    // Normalise so the divisor's top bit is set: w = v << s, t = u << s.
+    int s = Integer.numberOfLeadingZeros(v[n - 1]);
+    int[] vn = w;
+    int[] un = t;
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = (v[i] << s) | (int) ((v[i - 1] & MASK) >>> (32 - s));
+    }
+    vn[0] = v[0] << s;
+    un[m] = (int) ((u[m - 1] & MASK) >>> (32 - s));
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = (u[i] << s) | (int) ((u[i - 1] & MASK) >>> (32 - s));
+    }
+    un[0] = u[0] << s;
+
+    long vTop = vn[n - 1] & MASK;
+    long vNext = vn[n - 2] & MASK;
+    for (int j = m - n; j >= 0; j--) {
+      long numerator = ((un[j + n] & MASK) << 32) | (un[j + n - 1] & MASK);
+      long qHat = Long.divideUnsigned(numerator, vTop);
+      long rHat = numerator - qHat * vTop;
+      while (qHat > MASK
+          || Long.compareUnsigned(qHat * vNext, (rHat << 32) | (un[j + n - 2] & MASK)) > 0) {
+        qHat--;
+        rHat += vTop;
+        if (rHat > MASK)
+          break;
+      }
+
+      long k = 0;
+      long diff;
+      for (int i = 0; i < n; i++) {
+        long product = qHat * (vn[i] & MASK);
+        diff = (un[i + j] & MASK) - k - (product & MASK);
+        un[i + j] = (int) diff;
+        k = (product >>> 32) - (diff >> 32);
+      }
+      diff = (un[j + n] & MASK) - k;
+      un[j + n] = (int) diff;
+
+      if (diff < 0) {
+        // qHat was one too big, so add the divisor back.
+        k = 0;
+        for (int i = 0; i < n; i++) {
+          long sum = (un[i + j] & MASK) + (vn[i] & MASK) + k;
+          un[i + j] = (int) sum;
+          k = sum >>> 32;
+        }
+        un[j + n] += (int) k;
+      }
+    }
+
+    for (int i = 0; i < n; i++) {
+      u[i] = (int) (((un[i] & MASK) >>> s) | ((un[i + 1] & MASK) << (32 - s)));
+    }
+    uLength = trim(u, n);
+  }
+
+  // The gcd of two unsigned longs.
+  private static long smallGcd(long x, long y) {
+    if (Long.compareUnsigned(x, y) < 0) {
+      long temp = x;
+      x = y;
+      y = temp;
+    }
+    // BinaryGCD.unsignedGcd() needs both to be at most 2^63, which takes at most two steps.
+    while (y != 0 && (x < 0 || y < 0)) {
+      long r = Long.remainderUnsigned(x, y);
+      x = y;
+      y = r;
+    }
+    return y == 0 ? x : BinaryGCD.unsignedGcd(x, y);
+  }
+
+  private static long toLong(int[] x, int length) {
+    long value = 0;
+    for (int i = length - 1; i >= 0; i--) {
+      value = (value << 32) | (x[i] & MASK);
+    }
+    return value;
+  }
+
+  // Returns the bits of x from shift up to shift + 63, which must cover the top of the magnitude.
+  private static long topBits(int[] x, int length, int shift) {
+    int word = shift >>> 5;
+    int bit = shift & 31;
+    long low = (limb(x, length, word + 1) << 32) | limb(x, length, word);
+    long bits = low >>> bit;
+    if (bit != 0)
+      bits |= limb(x, length, word + 2) << (64 - bit);
+    return bits;
+  }
+
+  private static long limb(int[] x, int length, int i) {
+    return i < length ? x[i] & MASK : 0;
+  }
+
+  private static int bitLength(int[] x, int length) {
+    return length == 0 ? 0 : 32 * length - Integer.numberOfLeadingZeros(x[length - 1]);
+  }
+
+  private static int trim(int[] x, int length) {
+    while (length > 0 && x[length - 1] == 0) {
+      length--;
+    }
+    return length;
+  }
+
+  private static int compare(int[] x, int xLength, int[] y, int yLength) {
+    if (xLength != yLength)
+      return xLength < yLength ? -1 : 1;
+    for (int i = xLength - 1; i >= 0; i--) {
+      if (x[i] != y[i])
+        return Integer.compareUnsigned(x[i], y[i]);
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the magnitude of the given number as little-endian 32-bit limbs, with no leading zero
+   * limbs.
+   */
+  public static int[] magnitude(BigInteger n) {
+    n = n.abs();
+    int[] limbs = new int[(n.bitLength() + 31) >>> 5];
+    byte[] bytes = n.toByteArray();
+    for (int i = 0; i < bytes.length; i++) {
+      int limb = i >>> 2;
+      if (limb < limbs.length)
+        limbs[limb] |= (bytes[bytes.length - 1 - i] & 0xff) << ((i & 3) << 3);
+    }
+    return limbs;
+  }
+
+  /**
+   * Returns the non-negative number with the given magnitude, as little-endian 32-bit limbs.
+   */
+  public static BigInteger toBigInteger(int[] magnitude, int length) {
+    byte[] bytes = new byte[length * 4 + 1];
+    for (int i = 0; i < length * 4; i++) {
+      bytes[bytes.length - 1 - i] = (byte) (magnitude[i >>> 2] >>> ((i & 3) << 3));
+    }
+    return new BigInteger(bytes);
+  }
+
+  // Half-GCD.  Matrices are { m00, m01, m10, m11 }, taking (x, y) to (m00 x + m01 y, m10 x + m11 y).
+
+  /**
+   * Reduces x >= y >= 0 with half-GCD steps until y is at most the given number of bits, and
+   * returns the reduced pair, which has the same gcd.
+   */
+  static BigInteger[] halfGcdReduce(BigInteger x, BigInteger y, int bits) {
+    while (y.bitLength() > bits) {
+      BigInteger[] reduced = x.bitLength() - y.bitLength() > 32 ? null : halfGcd(x, y);
+      if (reduced != null && reduced[4].compareTo(x) < 0) {
+        x = reduced[4];
+        y = reduced[5];
+      }
+      else {
+        // A big quotient, which the leading halves can't see.
+        BigInteger r = x.mod(y);
+        x = y;
+        y = r;
+      }
+    }
+    return new BigInteger[] { x, y };
+  }
+
+  // Returns { m00, m01, m10, m11, x', y' }: a unimodular matrix, found from the leading halves of
+  // x >= y >= 0, and the pair x' >= y' >= 0 it takes them to, y' being about half as long as x.
+  private static BigInteger[] halfGcd(BigInteger x, BigInteger y) {
+    int m = x.bitLength();
+    int target = m / 2;
+    if (m <= HALF_GCD_BASE)
+      return lehmerMatrix(x, y, target);
+
+    // Reduce the leading half to about a quarter, which takes x and y to about three quarters.
+    int k = m - target;
+    BigInteger[] matrix = halfGcd(x.shiftRight(k), y.shiftRight(k));
+    BigInteger[] xy = apply(matrix, x, y);
+    if (xy[1].bitLength() <= target)
+      return withPair(matrix, xy);
+
+    // A Euclid step, then reduce the leading part of what's left to get down to about half.
+    BigInteger[] qr = xy[0].divideAndRemainder(xy[1]);
+    BigInteger[] step = { BigInteger.ZERO, BigInteger.ONE, BigInteger.ONE, qr[0].negate() };
+    matrix = multiply(step, matrix);
+    BigInteger x1 = xy[1];
+    BigInteger y1 = qr[1];
+    if (y1.bitLength() <= target)
+      return withPair(matrix, new BigInteger[] { x1, y1 });
+
+    int k2 = Math.max(m - x1.bitLength(), 0);
+    BigInteger[] second = halfGcd(x1.shiftRight(k2), y1.shiftRight(k2));
+    xy = apply(second, x1, y1);
+    return withPair(multiply(second, matrix), xy);
+  }
+
+  // Lehmer's algorithm with cofactors, until y has at most target bits.  Returns as per halfGcd().
+  private static BigInteger[] lehmerMatrix(BigInteger x, BigInteger y, int target) {
+    BigInteger m00 = BigInteger.ONE, m01 = BigInteger.ZERO, m10 = BigInteger.ZERO, m11 = BigInteger.ONE;
+    long[] cofactors = new long[4];
+    while (y.bitLength() > target) {
+      int shift = Math.max(x.bitLength() - 62, 0);
+      lehmerCofactors(x.shiftRight(shift).longValue(), y.shiftRight(shift).longValue(), cofactors);
+      BigInteger a, b, c, d;
+      if (cofactors[1] == 0) {
+        BigInteger[] qr = x.divideAndRemainder(y);
+        a = BigInteger.ZERO;
+        b = BigInteger.ONE;
+        c = BigInteger.ONE;
+        d = qr[0].negate();
+      }
+      else {
+        a = BigInteger.valueOf(cofactors[0]);
+        b = BigInteger.valueOf(cofactors[1]);
+        c = BigInteger.valueOf(cofactors[2]);
+        d = BigInteger.valueOf(cofactors[3]);
+      }
+      BigInteger nextX = a.multiply(x).add(b.multiply(y));
+      y = c.multiply(x).add(d.multiply(y));
+      x = nextX;
+      BigInteger next00 = a.multiply(m00).add(b.multiply(m10));
+      BigInteger next01 = a.multiply(m01).add(b.multiply(m11));
+      m10 = c.multiply(m00).add(d.multiply(m10));
+      m11 = c.multiply(m01).add(d.multiply(m11));
+      m00 = next00;
+      m01 = next01;
+    }
+    return new BigInteger[] { m00, m01, m10, m11, x, y };
+  }
+
+  // Returns the matrix applied to (x, y), first adjusting the matrix in place so that the result is
+  // in descending order and not negative.  Negating or swapping rows keeps the matrix unimodular.
+  private static BigInteger[] apply(BigInteger[] matrix, BigInteger x, BigInteger y) {
+    BigInteger x1 = matrix[0].multiply(x).add(matrix[1].multiply(y));
+    BigInteger y1 = matrix[2].multiply(x).add(matrix[3].multiply(y));
+    if (x1.signum() < 0) {
+      x1 = x1.negate();
+      matrix[0] = matrix[0].negate();
+      matrix[1] = matrix[1].negate();
+    }
+    if (y1.signum() < 0) {
+      y1 = y1.negate();
+      matrix[2] = matrix[2].negate();
+      matrix[3] = matrix[3].negate();
+    }
+    if (x1.compareTo(y1) < 0) {
+      BigInteger temp = x1;
+      x1 = y1;
+      y1 = temp;
+      temp = matrix[0];
+      matrix[0] = matrix[2];
+      matrix[2] = temp;
+      temp = matrix[1];
+      matrix[1] = matrix[3];
+      matrix[3] = temp;
+    }
+    return new BigInteger[] { x1, y1 };
+  }
+
+  private static BigInteger[] withPair(BigInteger[] matrix, BigInteger[] xy) {
+    return new BigInteger[] { matrix[0], matrix[1], matrix[2], matrix[3], xy[0], xy[1] };
+  }
+
+  private static BigInteger[] multiply(BigInteger[] a, BigInteger[] b) {
+    return new BigInteger[] {
+        a[0].multiply(b[0]).add(a[1].multiply(b[2])),
+        a[0].multiply(b[1]).add(a[1].multiply(b[3])),
+        a[2].multiply(b[0]).add(a[3].multiply(b[2])),
+        a[2].multiply(b[1]).add(a[3].multiply(b[3])) };
+  }
+}
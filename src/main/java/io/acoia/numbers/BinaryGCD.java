@@ -0,0 +1,95 @@
+package io.acoia.numbers;
+
+/**
+ * Stein's binary GCD algorithm.
+ *
+ * Euclid's algorithm takes a remainder every step, and 64-bit division is one of the slowest integer
+ * instructions there is.  The binary algorithm only shifts and subtracts: it strips the factors of 2
+ * both numbers share (counting them with numberOfTrailingZeros() rather than one at a time), then
+ * repeatedly replaces the larger odd number with the difference, which is even, and strips its
+ * factors of 2.
+ *
+ * Magnitudes are worked with as unsigned numbers, so Long.MIN_VALUE (magnitude 2^63) is handled
+ * correctly.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class BinaryGCD {
+
+  /**
+   * Returns the greatest common divisor of a and b, which is never negative.  gcd(0, 0) is 0.
+   *
+   * Throws an ArithmeticException if the result is 2^63, which is only the case when both a and b are
+   * Long.MIN_VALUE or zero.
+   */
+  public static long gcd(long a, long b) {
+    // Math.abs(Long.MIN_VALUE) is Long.MIN_VALUE, which is 2^63 as an unsigned number.
+    long gcd = unsignedGcd(Math.abs(a), Math.abs(b));
+    if (gcd < 0)
+      throw new ArithmeticException("gcd is 2^63, which overflows a long");
+    return gcd;
+  }
+
+  /**
+   * Returns the gcd of a and b taken as unsigned numbers no greater than 2^63, so the result may be
+   * 2^63 (Long.MIN_VALUE).
+   */
+  static long unsignedGcd(long a, long b) {
+    if (a == 0 || b == 0)
+      return a | b;
+
+    int shift = Long.numberOfTrailingZeros(a | b);
+    a >>>= Long.numberOfTrailingZeros(a);
+    // a and b are now less than 2^63, so signed comparisons work.
+    while (true) {
+      b >>>= Long.numberOfTrailingZeros(b);
+      if (a > b) {
+        long temp = a;
+        a = b;
+        b = temp;
+      }
+      b -= a;
+      if (b == 0)
+        break;
+    }
+    return a << shift;
+  }
+
+  /**
+   * As per gcd(long, long) for ints.  Throws an ArithmeticException if the result is 2^31, which is
+   * only the case when both a and b are Integer.MIN_VALUE or zero.
+   */
+  public static int gcd(int a, int b) {
+    a = Math.abs(a);
+    b = Math.abs(b);
+    if (a == 0 || b == 0) {
+      int gcd = a | b;
+      if (gcd < 0)
+        throw new ArithmeticException("gcd is 2^31, which overflows an int");
+      return gcd;
+    }
+
+    int shift = Integer.numberOfTrailingZeros(a | b);
+    a >>>= Integer.numberOfTrailingZeros(a);
+    while (true) {
+      b >>>= Integer.numberOfTrailingZeros(b);
+      if (a > b) {
+        int temp = a;
+        a = b;
+        b = temp;
+      }
+      b -= a;
+      if (b == 0)
+        break;
+    }
+
+    int gcd = a << shift;
+    if (gcd < 0)
+      throw new ArithmeticException("gcd is 2^31, which overflows an int");
+    return gcd;
+  }
+
+}
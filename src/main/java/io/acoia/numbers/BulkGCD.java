@@ -0,0 +1,207 @@
+package io.acoia.numbers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * GCD and LCM over whole arrays.
+ *
+ * Reductions use the binary GCD and stop as soon as the running GCD reaches 1, since it can't go any
+ * lower.  Inputs of more than PARALLEL_THRESHOLD elements are split in half recursively on the
+ * common fork-join pool, and once any part reaches 1 the others give up too.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public class BulkGCD {
+  static final int PARALLEL_THRESHOLD = 1 << 16;
+  // How often a part checks whether another part has already reached 1.
+  private static final int CHECK_INTERVAL = 1 << 10;
+
+  /**
+   * Returns the greatest common divisor of all of the given values, which is never negative.  The gcd
+   * of no values, or of only zeros, is 0.
+   *
+   * Throws an ArithmeticException if the result is 2^63, which is only the case when every value is
+   * Long.MIN_VALUE or zero, and at least one is Long.MIN_VALUE.
+   */
+  public static long gcd(long[] values) {
+    return gcd(values, 0, values.length);
+  }
+
+  /**
+   * As per gcd(long[] values), over values[from] to values[to - 1].
+   */
+  public static long gcd(long[] values, int from, int to) {
+    checkRange(values.length, from, to);
+    long gcd;
+    if (to - from <= PARALLEL_THRESHOLD)
+      gcd = unsignedGcd(values, from, to, null);
+    else
+      gcd = ForkJoinPool.commonPool().invoke(new GcdTask(values, from, to, new GcdTask.Found()));
+    if (gcd < 0)
+      throw new ArithmeticException("gcd is 2^63, which overflows a long");
+    return gcd;
+  }
+
+  /**
+   * Returns the least common multiple of all of the given values, which is never negative.  The lcm
+   * of no values is 1, and of any values including a zero is 0.
+   *
+   * Throws an ArithmeticException if the result doesn't fit in a long.
+   */
+  public static long lcm(long[] values) {
+    for (long value : values) {
+      if (value == 0)
+        return 0;
+    }
+    if (values.length <= PARALLEL_THRESHOLD)
+      return lcm(values, 0, values.length);
+    return ForkJoinPool.commonPool().invoke(new LcmTask(values, 0, values.length));
+  }
+
+  /**
+   * Sets out[i] to the gcd of a[i] and b[i], as per BinaryGCD.gcd(long, long), for every i.  out may
+   * be a or b.
+   */
+  public static void gcd(long[] a, long[] b, long[] out) {
+    if (a.length != b.length || a.length != out.length)
+      throw new IllegalArgumentException("a, b and out must be the same length: " + a.length + ", " + b.length
+          + ", " + out.length);
+    if (a.length <= PARALLEL_THRESHOLD)
+      gcd(a, b, out, 0, a.length);
+    else
+      ForkJoinPool.commonPool().invoke(new PairwiseTask(a, b, out, 0, a.length));
+  }
+
+  private static void checkRange(int length, int from, int to) {
+    if (from < 0 || to > length || from > to)
+      throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") of " + length + " values");
+  }
+
+  // The gcd of the magnitudes, which may be 2^63.  Stops early at 1, or if found says another part
+  // has reached 1.
+  private static long unsignedGcd(long[] values, int from, int to, GcdTask.Found found) {
+    long gcd = 0;
+    for (int i = from; i < to; i++) {
+      gcd = BinaryGCD.unsignedGcd(gcd, Math.abs(values[i]));
+      if (gcd == 1)
+        break;
+      if (found != null && (i & (CHECK_INTERVAL - 1)) == 0 && found.one)
+        return 1;
+    }
+    return gcd;
+  }
+
+  private static long lcm(long[] values, int from, int to) {
+    long lcm = 1;
+    for (int i = from; i < to; i++) {
+      lcm = EuclidsGCD.lcm(lcm, values[i]);
+    }
+    return lcm;
+  }
+
+  private static void gcd(long[] a, long[] b, long[] out, int from, int to) {
+    for (int i = from; i < to; i++) {
+      out[i] = BinaryGCD.gcd(a[i], b[i]);
+    }
+  }
+
+  private static final class GcdTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    static final class Found {
+      volatile boolean one;
+    }
+
+    private final long[] values;
+    private final int from;
+    private final int to;
+    private final Found found;
+
+    GcdTask(long[] values, int from, int to, Found found) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+      this.found = found;
+    }
+
+    @Override
+    protected Long compute() {
+      long gcd;
+      if (found.one) {
+        gcd = 1;
+      }
+      else if (to - from <= PARALLEL_THRESHOLD) {
+        gcd = unsignedGcd(values, from, to, found);
+      }
+      else {
+        int mid = (from + to) >>> 1;
+        GcdTask left = new GcdTask(values, from, mid, found);
+        left.fork();
+        long right = new GcdTask(values, mid, to, found).compute();
+        gcd = BinaryGCD.unsignedGcd(left.join(), right);
+      }
+      if (gcd == 1)
+        found.one = true;
+      return gcd;
+    }
+  }
+
+  private static final class LcmTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final long[] values;
+    private final int from;
+    private final int to;
+
+    LcmTask(long[] values, int from, int to) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Long compute() {
+      if (to - from <= PARALLEL_THRESHOLD)
+        return lcm(values, from, to);
+      int mid = (from + to) >>> 1;
+      LcmTask left = new LcmTask(values, from, mid);
+      left.fork();
+      long right = new LcmTask(values, mid, to).compute();
+      return EuclidsGCD.lcm(left.join(), right);
+    }
+  }
+
+  private static final class PairwiseTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final long[] a;
+    private final long[] b;
+    private final long[] out;
+    private final int from;
+    private final int to;
+
+    PairwiseTask(long[] a, long[] b, long[] out, int from, int to) {
+      this.a = a;
+      this.b = b;
+      this.out = out;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        gcd(a, b, out, from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new PairwiseTask(a, b, out, from, mid), new PairwiseTask(a, b, out, mid, to));
+    }
+  }
+
+}
@@ -4,10 +4,13 @@ public class EuclidsGCD {
   
   // Euclid's GCD is actually recursive, but I've converted
   // it to be iterative below.
+  //
+  // Negating Long.MIN_VALUE overflows, so this works with negative numbers instead, which can hold
+  // the magnitude of every long.
   public static long gcd(long a, long b) {
-    if (a < 0)
+    if (a > 0)
       a = -a;
-    if (b < 0)
+    if (b > 0)
       b = -b;
 
     while (b != 0) {
@@ -16,7 +19,73 @@ public class EuclidsGCD {
       a = temp;
     }
     
-    return a;
+    if (a == Long.MIN_VALUE)
+      throw new ArithmeticException("gcd is 2^63, which overflows a long");
+    return -a;
+  }
+
+  /**
+   * The extended Euclidean algorithm.  Returns { g, x, y } where g = gcd(a, b) and a * x + b * y = g.
+   * The Bézout coefficients x and y are the ones Euclid's algorithm finds, with |x| <= |b / g| and
+   * |y| <= |a / g|, so they never overflow.
+   *
+   * Throws an ArithmeticException if the gcd is 2^63, which is only the case when both a and b are
+   * Long.MIN_VALUE or zero.
+   */
+  public static long[] extendedGcd(long a, long b) {
+    long oldR = a, r = b;
+    long oldX = 1, x = 0;
+    long oldY = 0, y = 1;
+    while (r != 0) {
+      // The only overflow here is Long.MIN_VALUE / -1, and then the next remainder is 0 so the
+      // wrapped x and y it gives are never returned.
+      long q = oldR / r;
+      long temp = r;
+      r = oldR - q * r;
+      oldR = temp;
+      temp = x;
+      x = oldX - q * x;
+      oldX = temp;
+      temp = y;
+      y = oldY - q * y;
+      oldY = temp;
+    }
+
+    if (oldR < 0) {
+      if (oldR == Long.MIN_VALUE)
+        throw new ArithmeticException("gcd is 2^63, which overflows a long");
+      return new long[] { -oldR, -oldX, -oldY };
+    }
+    return new long[] { oldR, oldX, oldY };
+  }
+
+  /**
+   * Returns the inverse of a modulo m: the x in [0, m) with a * x = 1 (mod m).  a may be negative.
+   *
+   * Throws an ArithmeticException if m is not positive, or if a and m are not coprime so there is
+   * no inverse.
+   */
+  public static long modInverse(long a, long m) {
+    if (m <= 0)
+      throw new ArithmeticException("Modulus not positive: " + m);
+    long[] egcd = extendedGcd(Math.floorMod(a, m), m);
+    if (egcd[0] != 1)
+      throw new ArithmeticException(a + " is not invertible modulo " + m);
+    return Math.floorMod(egcd[1], m);
+  }
+
+  /**
+   * Returns the least common multiple of a and b, which is never negative, or 0 if either is 0.
+   *
+   * Throws an ArithmeticException if the result doesn't fit in a long.
+   */
+  public static long lcm(long a, long b) {
+    if (a == 0 || b == 0)
+      return 0;
+    long lcm = Math.multiplyExact(a / BinaryGCD.gcd(a, b), b);
+    if (lcm == Long.MIN_VALUE)
+      throw new ArithmeticException("lcm is 2^63, which overflows a long");
+    return Math.abs(lcm);
   }
 
 }
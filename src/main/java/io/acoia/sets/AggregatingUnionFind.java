@@ -0,0 +1,151 @@
+package io.acoia.sets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Union find / disjoint-set data structure over dense int ids that keeps a summary value, or
+ * aggregate, for every set.
+ *
+ * Each member starts with its own value, and whenever two sets are joined their aggregates are
+ * combined with a user supplied merge function.  The aggregate is stored at the set's root, so
+ * aggregate() costs the same as findRoot() and never has to visit the members of the set.  Typical
+ * aggregates are sums (total weight), minimums or maximums (earliest timestamp, best score) and
+ * counts.
+ *
+ * The merge function must be associative, as sets may be joined in any order.  It doesn't need to be
+ * commutative: join(e1, e2) always computes merge(aggregate(e1), aggregate(e2)).
+ *
+ * LongAggregatingUnionFind and DoubleAggregatingUnionFind are the primitive specialisations of this
+ * class, which avoid boxing the aggregates.
+ *
+ * This implementation is not threadsafe.
+ *
+ * @param <V> the type of the aggregate values.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class AggregatingUnionFind<V> {
+  private final IntUnionFind uf;
+  private final BinaryOperator<V> merge;
+  private Object[] aggregates;
+
+  /**
+   * Initialises an empty AggregatingUnionFind that combines aggregates with the given associative
+   * merge function.
+   */
+  public AggregatingUnionFind(BinaryOperator<V> merge) {
+    this(Arrays.<V>asList(), merge);
+  }
+
+  /**
+   * Initialises this AggregatingUnionFind with the members 0 to values.size() - 1, each in their own
+   * set with the corresponding value as its aggregate.  Aggregates are combined with the given
+   * associative merge function.
+   */
+  public AggregatingUnionFind(List<V> values, BinaryOperator<V> merge) {
+    if (merge == null)
+      throw new NullPointerException("merge");
+    this.uf = new IntUnionFind(values.size());
+    this.merge = merge;
+    this.aggregates = Arrays.copyOf(values.toArray(), Math.max(values.size(), 16), Object[].class);
+  }
+
+  /**
+   * Adds a new member with the given value and returns its id, which is always the previous size().
+   * The member is initially disjoint from all other members.
+   */
+  public int addMember(V value) {
+    int m = uf.addMember();
+    if (m == aggregates.length)
+      aggregates = Arrays.copyOf(aggregates, m + (m >> 1) + 1);
+    aggregates[m] = value;
+    return m;
+  }
+
+  /**
+   * Joins the members e1 and e2, combining the aggregates of their sets as
+   * merge(aggregate(e1), aggregate(e2)).
+   *
+   * Returns true if e1 and e2 were previously in different sets, or false if they were already
+   * equivalent, in which case this method does nothing.
+   */
+  public boolean join(int e1, int e2) {
+    int root1 = uf.findRoot(e1);
+    int root2 = uf.findRoot(e2);
+    if (root1 == root2)
+      return false;
+
+    V merged = merge.apply(get(root1), get(root2));
+    uf.join(root1, root2);
+    int root = uf.findRoot(root1);
+    // Don't keep the absorbed set's aggregate reachable.
+    aggregates[root1 == root ? root2 : root1] = null;
+    aggregates[root] = merged;
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V get(int root) {
+    return (V) aggregates[root];
+  }
+
+  /**
+   * Returns the aggregate of the set that the given member belongs to.  This runs in the same
+   * effectively constant time as findRoot().
+   *
+   * If e is not a member of this AggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public V aggregate(int e) {
+    return get(uf.findRoot(e));
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, as per IntUnionFind.
+   */
+  public int findRoot(int e) {
+    return uf.findRoot(e);
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * AggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    return uf.sameSet(e1, e2);
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   */
+  public int setSize(int e) {
+    return uf.setSize(e);
+  }
+
+  /**
+   * Returns the number of disjoint sets in this AggregatingUnionFind.
+   */
+  public int componentCount() {
+    return uf.componentCount();
+  }
+
+  /**
+   * Returns the number of members in this AggregatingUnionFind.
+   */
+  public int size() {
+    return uf.size();
+  }
+
+  /**
+   * Returns true if e is a member of this AggregatingUnionFind.
+   */
+  public boolean contains(int e) {
+    return uf.contains(e);
+  }
+}
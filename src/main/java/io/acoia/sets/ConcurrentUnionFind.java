@@ -0,0 +1,165 @@
+package io.acoia.sets;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Lock-free concurrent union find / disjoint-set data structure over the dense int ids 0 to n - 1.
+ *
+ * Unlike UnionFind and IntUnionFind, any number of threads may call join(), findRoot() and sameSet()
+ * at the same time, and the results are linearizable.  The parent pointers live in an
+ * AtomicIntegerArray and every change to the forest is made with a single compare-and-set:
+ *
+ * - join() links one root under the other with a CAS on the root's parent, retrying if either root
+ *   was linked elsewhere in the meantime.
+ * - findRoot() does path splitting (Jayanti & Tarjan, "A Randomized Concurrent Algorithm for
+ *   Disjoint Set Union", 2016).  Each step CASes a node's parent to its grandparent; a failed CAS just
+ *   means another thread already moved it closer to the root, so it's never retried.
+ *
+ * Roots are linked by a fixed pseudo random priority per member rather than by rank, which keeps the
+ * expected tree height logarithmic without having to update a rank atomically alongside the parent.
+ *
+ * The member count is fixed at construction.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class ConcurrentUnionFind {
+  private final AtomicIntegerArray parent;
+
+  /**
+   * Initialises this ConcurrentUnionFind with the members 0 to n - 1, each in their own set.
+   */
+  public ConcurrentUnionFind(int n) {
+    if (n < 0)
+      throw new IllegalArgumentException("Member count must not be negative: " + n);
+    parent = new AtomicIntegerArray(n);
+    for (int i = 0; i < n; i++) {
+      parent.lazySet(i, i);
+    }
+  }
+
+  private void checkMember(int e) {
+    if (e < 0 || e >= parent.length())
+      throw new IllegalArgumentException("Argument " + e + " is not in this union find");
+  }
+
+  private int find(int e) {
+    int p = parent.get(e);
+    while (p != e) {
+      int gp = parent.get(p);
+      if (gp == p)
+        return p;
+      // Path splitting.
+      parent.compareAndSet(e, p, gp);
+      e = p;
+      p = gp;
+    }
+    return e;
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, which might be itself.
+   * While other threads are joining, the root returned may have already been linked under
+   * another root by the time this method returns.
+   *
+   * If e is not a member of this ConcurrentUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int findRoot(int e) {
+    checkMember(e);
+    return find(e);
+  }
+
+  /**
+   * Joins the members e1 and e2, causing them to be in the same set.
+   *
+   * Returns true if this call merged two sets, or false if e1 and e2 were already in the same set.
+   * When several threads join the same pair of sets at once exactly one of them sees true.
+   */
+  public boolean join(int e1, int e2) {
+    checkMember(e1);
+    checkMember(e2);
+    while (true) {
+      int root1 = find(e1);
+      int root2 = find(e2);
+      if (root1 == root2)
+        return false;
+
+      // Link the lower priority root under the higher priority one.
+      if (precedes(root1, root2)) {
+        int temp = root1;
+        root1 = root2;
+        root2 = temp;
+      }
+
+      if (parent.compareAndSet(root2, root2, root1))
+        return true;
+      // root2 was linked by another thread in the meantime, start over.
+    }
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * ConcurrentUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    checkMember(e1);
+    checkMember(e2);
+    while (true) {
+      int root1 = find(e1);
+      int root2 = find(e2);
+      if (root1 == root2)
+        return true;
+      // If root1 is still a root then there was a moment (now) where e1 and e2 were in different
+      // sets.  Otherwise a join raced with us and we need to look again.
+      if (parent.get(root1) == root1)
+        return false;
+    }
+  }
+
+  /**
+   * Returns the number of members in this ConcurrentUnionFind.
+   */
+  public int size() {
+    return parent.length();
+  }
+
+  /**
+   * Returns true if e is a member of this ConcurrentUnionFind.
+   */
+  public boolean contains(int e) {
+    return e >= 0 && e < parent.length();
+  }
+
+  /**
+   * Returns the number of disjoint sets.  This is O(n), and is only exact when no joins are
+   * running concurrently.
+   */
+  public int componentCount() {
+    int count = 0;
+    for (int i = 0; i < parent.length(); i++) {
+      if (parent.get(i) == i)
+        count++;
+    }
+    return count;
+  }
+
+  private static boolean precedes(int a, int b) {
+    int pa = priority(a);
+    int pb = priority(b);
+    return pa < pb || (pa == pb && a < b);
+  }
+
+  // A fixed pseudo random permutation of the ids (the murmur3 finaliser).
+  private static int priority(int x) {
+    x ^= x >>> 16;
+    x *= 0x85ebca6b;
+    x ^= x >>> 13;
+    x *= 0xc2b2ae35;
+    x ^= x >>> 16;
+    return x;
+  }
+}
@@ -0,0 +1,664 @@
+package io.acoia.sets;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
+
+/**
+ * Union find / disjoint-set data structure over arbitrary members, stored densely.
+ *
+ * This has the same API and behaviour as io.acoia.sets.UnionFind, but rather than a HashMap entry
+ * and a UnionFindEntry object per member, each member is interned once into an open-addressing
+ * (linear probing) hash table that maps it to a dense int index, and all the union find state lives
+ * in flat arrays indexed by it, as in IntUnionFind.  That's around a third of the memory per member,
+ * and once a member has been looked up, find() only touches the int parent array.
+ *
+ * Like IntUnionFind, finds use iterative path halving rather than recursive path compression, and
+ * joins use union by rank.  Each set's members are kept in a linked list (the next and tail arrays)
+ * so members() and sets() run in time proportional to the size of the set.
+ *
+ * Members are compared with equals() and hashCode() by default.  withIdentityKeys() creates a
+ * DenseUnionFind that compares them with == and System.identityHashCode() instead, like
+ * java.util.IdentityHashMap, which is faster for members with expensive or unsuitable equals().
+ *
+ * Removed members are tombstoned: their index stays taken until compact() is called, which
+ * renumbers the live members.  Unlike UnionFind this includes the members of sets that have been
+ * removed entirely, so tombstoneCount() only goes down on compact().
+ *
+ * This implementation can accept null as a member and is not threadsafe.
+ *
+ * @param <T> the type of elements in this set.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class DenseUnionFind<T> {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+  // The rank of a removed member.  Live members' ranks start at 1, as in UnionFind.
+  private static final byte REMOVED = 0;
+
+  private final boolean identity;
+  private Object[] keys;
+  private int[] parent;
+  private byte[] rank;
+  private int[] setSize;
+  private int[] next;
+  private int[] tail;
+  // Open-addressing table of member index + 1 in the low bits, below the table size, with the
+  // member's hash above them so that most mismatches are rejected without looking at the member.
+  // 0 marks an empty slot.
+  private int[] table;
+  private int indexCount;
+  private int size;
+  private int componentCount;
+  private UnionFindStatistics statistics;
+
+  /**
+   * Initialises an empty DenseUnionFind.
+   */
+  public DenseUnionFind() {
+    this(0);
+  }
+
+  /**
+   * Initialises an empty DenseUnionFind with the expected maximum member count of n.
+   */
+  public DenseUnionFind(int n) {
+    this(n, false);
+  }
+
+  /**
+   * Initialises this DenseUnionFind with the given members.  The members are initially disjoint,
+   * that is to say that each of the members is in their own set.
+   */
+  public DenseUnionFind(Collection<T> members) {
+    this(members.size());
+    for (T m: members) {
+      addMember(m);
+    }
+  }
+
+  private DenseUnionFind(int n, boolean identity) {
+    if (n < 0)
+      throw new IllegalArgumentException("Member count must not be negative: " + n);
+    this.identity = identity;
+    int capacity = Math.max(n, DEFAULT_CAPACITY);
+    keys = new Object[capacity];
+    parent = new int[capacity];
+    rank = new byte[capacity];
+    setSize = new int[capacity];
+    next = new int[capacity];
+    tail = new int[capacity];
+    table = new int[tableSizeFor(capacity)];
+  }
+
+  /**
+   * Returns an empty DenseUnionFind with the expected maximum member count of n, that compares
+   * members by identity rather than with equals().
+   */
+  public static <T> DenseUnionFind<T> withIdentityKeys(int n) {
+    return new DenseUnionFind<>(n, true);
+  }
+
+  // The smallest power of two table that holds n members at a load factor of at most 3/4.
+  private static int tableSizeFor(int n) {
+    long minimum = (long) n * 4 / 3 + 1;
+    if (minimum > MAX_TABLE_SIZE)
+      return MAX_TABLE_SIZE;
+    return Integer.highestOneBit((int) minimum - 1) << 1;
+  }
+
+  private int hash(Object key) {
+    int h = identity ? System.identityHashCode(key) : Objects.hashCode(key);
+    // Spread the bits, as linear probing suffers from clustered hash codes such as Integers'.
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private boolean equal(Object a, Object b) {
+    return identity ? a == b : Objects.equals(a, b);
+  }
+
+  // Returns the table slot holding the given member, or the empty slot where it would go.
+  private int slot(Object key) {
+    int mask = table.length - 1;
+    int h = hash(key);
+    int i = h & mask;
+    int entry;
+    while ((entry = table[i]) != 0) {
+      if (((entry ^ h) & ~mask) == 0 && equal(keys[(entry & mask) - 1], key))
+        break;
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private int entry(Object key, int m) {
+    return hash(key) & ~(table.length - 1) | (m + 1);
+  }
+
+  // Returns the index of the given member, or -1 if it isn't a member.
+  private int indexOf(Object key) {
+    return (table[slot(key)] & (table.length - 1)) - 1;
+  }
+
+  private int getIndex(T e) {
+    int m = indexOf(e);
+    if (m < 0)
+      throw new IllegalArgumentException("Argument " + e + " is not in this union find");
+    return m;
+  }
+
+  // Empties the given table slot, shifting back any later entries of the same probe sequence so
+  // that lookups never need to probe past it.
+  private void clearSlot(int gap) {
+    int mask = table.length - 1;
+    for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+      int home = hash(keys[(table[i] & mask) - 1]) & mask;
+      if (((i - home) & mask) >= ((i - gap) & mask)) {
+        table[gap] = table[i];
+        gap = i;
+      }
+    }
+    table[gap] = 0;
+  }
+
+  private void rehash(int tableSize) {
+    table = new int[tableSize];
+    int mask = tableSize - 1;
+    for (int m = 0; m < indexCount; m++) {
+      if (rank[m] == REMOVED)
+        continue;
+      int h = hash(keys[m]);
+      int i = h & mask;
+      while (table[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      table[i] = h & ~mask | (m + 1);
+    }
+  }
+
+  private void grow() {
+    int capacity = parent.length + (parent.length >> 1) + 1;
+    if (capacity < 0)
+      capacity = Integer.MAX_VALUE - 8;
+    if (capacity <= indexCount)
+      throw new IllegalStateException("DenseUnionFind cannot hold more than " + indexCount + " members");
+    keys = Arrays.copyOf(keys, capacity);
+    parent = Arrays.copyOf(parent, capacity);
+    rank = Arrays.copyOf(rank, capacity);
+    setSize = Arrays.copyOf(setSize, capacity);
+    next = Arrays.copyOf(next, capacity);
+    tail = Arrays.copyOf(tail, capacity);
+  }
+
+  // Adds a new member at the given empty table slot, returning its index.  Indexes must fit below
+  // the table size, so tombstones count towards the table's load until compact().
+  private int insert(int slot, Object key) {
+    if (indexCount >= table.length / 4 * 3) {
+      if (table.length == MAX_TABLE_SIZE)
+        throw new IllegalStateException("DenseUnionFind cannot hold more than " + indexCount + " members");
+      rehash(table.length << 1);
+      slot = slot(key);
+    }
+    if (indexCount == parent.length)
+      grow();
+    int m = indexCount++;
+    keys[m] = key;
+    parent[m] = m;
+    rank[m] = 1;
+    setSize[m] = 1;
+    next[m] = -1;
+    tail[m] = m;
+    table[slot] = entry(key, m);
+    size++;
+    componentCount++;
+    return m;
+  }
+
+  /**
+   * Adds the given member to this DenseUnionFind.  The member is initially a disjoint from all other
+   * members in this DenseUnionFind.
+   *
+   * If the member is already in this DenseUnionFind then this method has no effect.
+   */
+  public void addMember(T m) {
+    int slot = slot(m);
+    if (table[slot] == 0)
+      insert(slot, m);
+  }
+
+  private int findIndex(T e) {
+    int m = getIndex(e);
+    if (statistics != null)
+      statistics.finds++;
+
+    return find(m);
+  }
+
+  private int find(int e) {
+    // Path halving - point every other member on the path at its grandparent.
+    int p;
+    while ((p = parent[e]) != e) {
+      int grandparent = parent[p];
+      if (grandparent == p)
+        return p;
+      if (statistics != null)
+        statistics.hops++;
+      parent[e] = grandparent;
+      e = grandparent;
+    }
+    return e;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T key(int m) {
+    return (T) keys[m];
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, which might be itself.
+   * Note that the root is merely one of the members of the set - how it is selected is not defined.
+   * The "root" for a member may change as a result of a call to join().
+   */
+  public T findRoot(T e) {
+    return key(findIndex(e));
+  }
+
+  /**
+   * Joins the members e1 and e2, causing them to be equivalent, or in the same set.  Subsequent calls
+   * to find() or members() for e1 and e2 will return the same result.
+   *
+   *  If e1 and e2 are already equivalent then this method does nothing.
+   */
+  public void join(T e1, T e2) {
+    int root1 = findIndex(e1);
+    int root2 = findIndex(e2);
+    if (statistics != null)
+      statistics.joins++;
+
+    if (root1 == root2) {
+      if (statistics != null)
+        statistics.noOpJoins++;
+      return;  // Already in the same set
+    }
+
+    // Union by rank, as per UnionFind.
+    if (rank[root1] < rank[root2]) {
+      int temp = root1;
+      root1 = root2;
+      root2 = temp;
+    }
+
+    next[tail[root1]] = root2;
+    tail[root1] = tail[root2];
+    if (rank[root1] == rank[root2])
+      rank[root1]++;
+    if (statistics != null && rank[root1] > statistics.maxRank)
+      statistics.maxRank = rank[root1];
+    parent[root2] = root1;
+    setSize[root1] += setSize[root2];
+    componentCount--;
+  }
+
+  /**
+   * Removes the given member from this DenseUnionFind.  The remaining members of its set stay
+   * together, and if the removed member was the set's "root" another member of the set takes its
+   * place.
+   *
+   * Returns true if the member was removed, or false if it wasn't in this DenseUnionFind.
+   */
+  public boolean remove(T e) {
+    int slot = slot(e);
+    int m = (table[slot] & (table.length - 1)) - 1;
+    if (m < 0)
+      return false;
+    clearSlot(slot);
+    size--;
+
+    int root = find(m);
+    setSize[root]--;
+    if (setSize[root] == 0) {
+      // The whole set is gone.  Its indexes stay taken until compact().
+      componentCount--;
+    }
+    else if (m == root) {
+      // Hand the root over to another member by moving that member into the root's index and
+      // tombstoning the member's old index instead.  This keeps the tree itself intact.
+      int replacement = next[root];
+      while (rank[replacement] == REMOVED) {
+        replacement = next[replacement];
+      }
+      keys[root] = keys[replacement];
+      table[slot(keys[root])] = entry(keys[root], root);
+      m = replacement;
+    }
+
+    rank[m] = REMOVED;
+    keys[m] = null;
+    return true;
+  }
+
+  /**
+   * Returns the number of removed members that are still taking up space in this DenseUnionFind.
+   * See compact().
+   */
+  public int tombstoneCount() {
+    return indexCount - size;
+  }
+
+  /**
+   * Renumbers this DenseUnionFind's live members, discarding every tombstone left behind by remove()
+   * and flattening each set so that every member points directly at its root.  The roots and sets
+   * themselves are unchanged.  This runs in O(n) time.
+   */
+  public void compact() {
+    int capacity = Math.max(size, DEFAULT_CAPACITY);
+    Object[] newKeys = new Object[capacity];
+    int[] newParent = new int[capacity];
+    byte[] newRank = new byte[capacity];
+    int[] newSetSize = new int[capacity];
+    int[] newNext = new int[capacity];
+    int[] newTail = new int[capacity];
+    int index = 0;
+    for (int r = 0; r < indexCount; r++) {
+      if (parent[r] != r || rank[r] == REMOVED)
+        continue;
+
+      int root = index;
+      newSetSize[root] = setSize[r];
+      newRank[root] = (byte) (setSize[r] > 1 ? 2 : 1);
+      for (int m = r; m >= 0; m = next[m]) {
+        if (rank[m] == REMOVED)
+          continue;
+        newKeys[index] = keys[m];
+        newParent[index] = root;
+        if (index != root) {
+          newRank[index] = 1;
+          newNext[index - 1] = index;
+        }
+        newNext[index] = -1;
+        index++;
+      }
+      newTail[root] = index - 1;
+    }
+    keys = newKeys;
+    parent = newParent;
+    rank = newRank;
+    setSize = newSetSize;
+    next = newNext;
+    tail = newTail;
+    indexCount = size;
+    rehash(tableSizeFor(capacity));
+  }
+
+  /**
+   * Writes a snapshot of this DenseUnionFind to the given file, which is created or replaced,
+   * encoding members with the given codec.  Removed members are left out.  The format is the same as
+   * UnionFind.writeSnapshot()'s, so snapshots can be read by either class.
+   */
+  public void writeSnapshot(Path file, KeyCodec<? super T> codec) throws IOException {
+    try (UnionFindSnapshot.Writer<T> writer = new UnionFindSnapshot.Writer<>(file, codec, size, componentCount)) {
+      int index = 0;
+      for (int r = 0; r < indexCount; r++) {
+        if (parent[r] != r || rank[r] == REMOVED)
+          continue;
+        int root = index;
+        for (int m = r; m >= 0; m = next[m]) {
+          if (rank[m] == REMOVED)
+            continue;
+          writer.write(key(m), root, rank[m]);
+          index++;
+        }
+      }
+      writer.finish();
+    }
+  }
+
+  /**
+   * Restores a DenseUnionFind from a snapshot written by writeSnapshot() or
+   * UnionFind.writeSnapshot(), decoding members with the given codec.  The sets are rebuilt in a
+   * single pass without any joins, each member pointing directly at its root.
+   *
+   * If the file isn't a snapshot, is of an unsupported version or is corrupt then an IOException is
+   * thrown.
+   */
+  public static <T> DenseUnionFind<T> readSnapshot(Path file, KeyCodec<T> codec) throws IOException {
+    try (UnionFindSnapshot.Reader<T> reader = new UnionFindSnapshot.Reader<>(file, codec)) {
+      int n = reader.memberCount();
+      DenseUnionFind<T> uf = new DenseUnionFind<>(n);
+      int root = -1;
+      for (int i = 0; i < n; i++) {
+        reader.next();
+        T member = reader.member();
+        int slot = uf.slot(member);
+        if (uf.table[slot] != 0)
+          throw new IOException(file + " is corrupt: " + member + " appears more than once");
+        int m = uf.insert(slot, member);
+        uf.rank[m] = (byte) reader.rank();
+        if (reader.root() == i) {
+          root = m;
+        }
+        else if (root < 0 || reader.root() != root) {
+          throw new IOException(file + " is corrupt: member " + i + " is not grouped with its root " + reader.root());
+        }
+        else {
+          uf.parent[m] = root;
+          uf.next[uf.tail[root]] = m;
+          uf.tail[root] = m;
+          uf.setSize[root]++;
+          uf.componentCount--;
+        }
+        if (uf.rank[m] == REMOVED)
+          throw new IOException(file + " is corrupt: member " + i + " has rank " + reader.rank());
+      }
+      reader.checkEnd();
+      if (uf.componentCount != reader.setCount())
+        throw new IOException(file + " is corrupt: it has " + uf.componentCount + " sets, but its header says "
+            + reader.setCount());
+      return uf;
+    }
+  }
+
+  /**
+   * Returns the Set of members that the given member belongs to.  Note this runs in time
+   * proportional to the size of that set to copy it from our internal representation.  See
+   * membersView() for a view that doesn't copy.  If this DenseUnionFind compares members by
+   * identity then so does the returned Set.
+   *
+   * If e is not a member of this DenseUnionFind then an IllegalArgumentException is thrown.
+   */
+  public Set<T> members(T e) {
+    return getMembers(findIndex(e));
+  }
+
+  private Set<T> getMembers(int root) {
+    Set<T> result = identity ? Sets.newIdentityHashSet() : Sets.newHashSetWithExpectedSize(setSize[root]);
+    for (int m = root; m >= 0; m = next[m]) {
+      if (rank[m] != REMOVED)
+        result.add(key(m));
+    }
+    return result;
+  }
+
+  /**
+   * Returns an unmodifiable, live view of the set that the given member belongs to.  Nothing is
+   * copied: size() is O(1), contains() is a sameSet() check and iteration walks our internal
+   * linked list of members.  Subsequent joins are reflected in the view, but the view must not be
+   * iterated while the DenseUnionFind is being modified.
+   *
+   * If e is not a member of this DenseUnionFind then an IllegalArgumentException is thrown.
+   */
+  public Set<T> membersView(T e) {
+    getIndex(e);
+    return new MembersView(e);
+  }
+
+  private class MembersView extends AbstractSet<T> {
+    private final T member;
+
+    MembersView(T member) {
+      this.member = member;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new MemberIterator(findIndex(member));
+    }
+
+    @Override
+    public int size() {
+      return setSize[findIndex(member)];
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      int m = indexOf(o);
+      return m >= 0 && find(m) == findIndex(member);
+    }
+  }
+
+  private class MemberIterator implements Iterator<T> {
+    private int next;
+
+    MemberIterator(int root) {
+      this.next = root;
+      skipRemoved();
+    }
+
+    private void skipRemoved() {
+      while (next >= 0 && rank[next] == REMOVED) {
+        next = DenseUnionFind.this.next[next];
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next >= 0;
+    }
+
+    @Override
+    public T next() {
+      if (next < 0)
+        throw new NoSuchElementException();
+      T result = key(next);
+      next = DenseUnionFind.this.next[next];
+      skipRemoved();
+      return result;
+    }
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   *
+   * If e is not a member of this DenseUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int setSize(T e) {
+    return setSize[findIndex(e)];
+  }
+
+  /**
+   * Starts counting this DenseUnionFind's operations in the given statistics, or stops counting if
+   * it's null.  See UnionFindStatistics.
+   */
+  public void setStatistics(UnionFindStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Returns the statistics this DenseUnionFind is counting its operations in, or null if it isn't.
+   */
+  public UnionFindStatistics statistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns the number of disjoint sets in this DenseUnionFind.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns the number of elements in this DenseUnionFind.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * DenseUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(T e1, T e2) {
+    return findIndex(e1) == findIndex(e2);
+  }
+
+  /**
+   * Returns true if e is a member of this DenseUnionFind.
+   */
+  public boolean contains(T e) {
+    return indexOf(e) >= 0;
+  }
+
+  /**
+   * Returns all the sets within this DenseUnionFind.
+   */
+  public Collection<Set<T>> sets() {
+    List<Set<T>> result = new ArrayList<>(componentCount);
+    for (int r = 0; r < indexCount; r++) {
+      if (parent[r] == r && rank[r] != REMOVED)
+        result.add(getMembers(r));
+    }
+    return result;
+  }
+
+  /**
+   * Returns an unmodifiable, lazy view of all the sets within this DenseUnionFind, each being a
+   * membersView() of that set.  Unlike sets() this doesn't copy any members.  The view must not be
+   * iterated while the DenseUnionFind is being modified.
+   */
+  public Collection<Set<T>> setsView() {
+    return new AbstractCollection<Set<T>>() {
+      @Override
+      public Iterator<Set<T>> iterator() {
+        return Iterators.transform(new RootIterator(), r -> new MembersView(key(r)));
+      }
+
+      @Override
+      public int size() {
+        return componentCount;
+      }
+    };
+  }
+
+  private class RootIterator extends AbstractIterator<Integer> {
+    private int r = -1;
+
+    @Override
+    protected Integer computeNext() {
+      while (++r < indexCount) {
+        if (parent[r] == r && rank[r] != REMOVED)
+          return r;
+      }
+      return endOfData();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package io.acoia.sets;
+
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * The double specialisation of AggregatingUnionFind, which keeps a double aggregate for each set
+ * without boxing.  See AggregatingUnionFind for details.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class DoubleAggregatingUnionFind {
+  private final IntUnionFind uf;
+  private final DoubleBinaryOperator merge;
+  private double[] aggregates;
+
+  /**
+   * Initialises an empty DoubleAggregatingUnionFind that combines aggregates with the given associative
+   * merge function.
+   */
+  public DoubleAggregatingUnionFind(DoubleBinaryOperator merge) {
+    this(new double[0], merge);
+  }
+
+  /**
+   * Initialises this DoubleAggregatingUnionFind with the members 0 to values.length - 1, each in their
+   * own set with the corresponding value as its aggregate.  Aggregates are combined with the given
+   * associative merge function.
+   */
+  public DoubleAggregatingUnionFind(double[] values, DoubleBinaryOperator merge) {
+    if (merge == null)
+      throw new NullPointerException("merge");
+    this.uf = new IntUnionFind(values.length);
+    this.merge = merge;
+    this.aggregates = Arrays.copyOf(values, Math.max(values.length, 16));
+  }
+
+  /**
+   * Adds a new member with the given value and returns its id, which is always the previous size().
+   * The member is initially disjoint from all other members.
+   */
+  public int addMember(double value) {
+    int m = uf.addMember();
+    if (m == aggregates.length)
+      aggregates = Arrays.copyOf(aggregates, m + (m >> 1) + 1);
+    aggregates[m] = value;
+    return m;
+  }
+
+  /**
+   * Joins the members e1 and e2, combining the aggregates of their sets as
+   * merge(aggregate(e1), aggregate(e2)).
+   *
+   * Returns true if e1 and e2 were previously in different sets, or false if they were already
+   * equivalent, in which case this method does nothing.
+   */
+  public boolean join(int e1, int e2) {
+    int root1 = uf.findRoot(e1);
+    int root2 = uf.findRoot(e2);
+    if (root1 == root2)
+      return false;
+
+    double merged = merge.applyAsDouble(aggregates[root1], aggregates[root2]);
+    uf.join(root1, root2);
+    aggregates[uf.findRoot(root1)] = merged;
+    return true;
+  }
+
+  /**
+   * Returns the aggregate of the set that the given member belongs to.  This runs in the same
+   * effectively constant time as findRoot().
+   *
+   * If e is not a member of this DoubleAggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public double aggregate(int e) {
+    return aggregates[uf.findRoot(e)];
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, as per IntUnionFind.
+   */
+  public int findRoot(int e) {
+    return uf.findRoot(e);
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * DoubleAggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    return uf.sameSet(e1, e2);
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   */
+  public int setSize(int e) {
+    return uf.setSize(e);
+  }
+
+  /**
+   * Returns the number of disjoint sets in this DoubleAggregatingUnionFind.
+   */
+  public int componentCount() {
+    return uf.componentCount();
+  }
+
+  /**
+   * Returns the number of members in this DoubleAggregatingUnionFind.
+   */
+  public int size() {
+    return uf.size();
+  }
+
+  /**
+   * Returns true if e is a member of this DoubleAggregatingUnionFind.
+   */
+  public boolean contains(int e) {
+    return uf.contains(e);
+  }
+}
@@ -0,0 +1,232 @@
+package io.acoia.sets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Union find / disjoint-set data structure over dense int ids.
+ *
+ * This is the primitive counterpart of io.acoia.sets.UnionFind. Members are the ints 0 to size() - 1
+ * and all state lives in flat arrays indexed by member, so there's no hashing, no boxing and no
+ * per-member objects. This makes it suitable for very large partitions where UnionFind's per-member
+ * HashMap entry and UnionFindEntry object dominate memory and find() cost.
+ *
+ * Like UnionFind it uses union by rank, but finds use iterative path halving rather than recursive
+ * path compression, so find() and join() still run in effectively amortised constant time without
+ * risk of blowing the stack on long paths.
+ *
+ * Each set's members are also kept in a circular linked list (the next array) so members() and sets()
+ * can enumerate a set in time proportional to its size.
+ *
+ * This implementation is not threadsafe.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class IntUnionFind {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] parent;
+  private byte[] rank;
+  private int[] setSize;
+  private int[] next;
+  private int size;
+  private int componentCount;
+
+  /**
+   * Initialises an empty IntUnionFind.
+   */
+  public IntUnionFind() {
+    this(0);
+  }
+
+  /**
+   * Initialises this IntUnionFind with the members 0 to n - 1.  The members are initially
+   * disjoint, that is to say that each of the members is in their own set.
+   */
+  public IntUnionFind(int n) {
+    if (n < 0)
+      throw new IllegalArgumentException("Member count must not be negative: " + n);
+    int capacity = Math.max(n, DEFAULT_CAPACITY);
+    parent = new int[capacity];
+    rank = new byte[capacity];
+    setSize = new int[capacity];
+    next = new int[capacity];
+    for (int i = 0; i < n; i++) {
+      initMember(i);
+    }
+    size = n;
+    componentCount = n;
+  }
+
+  private void initMember(int m) {
+    parent[m] = m;
+    setSize[m] = 1;
+    next[m] = m;
+  }
+
+  /**
+   * Adds a new member to this IntUnionFind and returns its id, which is always the previous size().
+   * The member is initially disjoint from all other members in this IntUnionFind.
+   */
+  public int addMember() {
+    if (size == parent.length)
+      grow();
+    int m = size++;
+    initMember(m);
+    componentCount++;
+    return m;
+  }
+
+  private void grow() {
+    int capacity = parent.length + (parent.length >> 1) + 1;
+    if (capacity < 0)
+      capacity = Integer.MAX_VALUE - 8;
+    if (capacity <= size)
+      throw new IllegalStateException("IntUnionFind cannot hold more than " + size + " members");
+    parent = Arrays.copyOf(parent, capacity);
+    rank = Arrays.copyOf(rank, capacity);
+    setSize = Arrays.copyOf(setSize, capacity);
+    next = Arrays.copyOf(next, capacity);
+  }
+
+  private void checkMember(int e) {
+    if (e < 0 || e >= size)
+      throw new IllegalArgumentException("Argument " + e + " is not in this union find");
+  }
+
+  private int find(int e) {
+    // Path halving - point every other node on the path at its grandparent.
+    while (parent[e] != e) {
+      parent[e] = parent[parent[e]];
+      e = parent[e];
+    }
+    return e;
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, which might be itself.
+   * Note that the root is merely one of the members of the set - how it is selected is not defined.
+   * The "root" for a member may change as a result of a call to join().
+   *
+   * If e is not a member of this IntUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int findRoot(int e) {
+    checkMember(e);
+    return find(e);
+  }
+
+  /**
+   * Joins the members e1 and e2, causing them to be equivalent, or in the same set.  Subsequent calls
+   * to findRoot() or members() for e1 and e2 will return the same result.
+   *
+   * Returns true if e1 and e2 were previously in different sets, or false if they were already
+   * equivalent, in which case this method does nothing.
+   */
+  public boolean join(int e1, int e2) {
+    checkMember(e1);
+    checkMember(e2);
+    int root1 = find(e1);
+    int root2 = find(e2);
+
+    if (root1 == root2)
+      return false;
+
+    // Union by rank, as per UnionFind.
+    if (rank[root1] < rank[root2]) {
+      int temp = root1;
+      root1 = root2;
+      root2 = temp;
+    }
+
+    if (rank[root1] == rank[root2])
+      rank[root1]++;
+    parent[root2] = root1;
+    setSize[root1] += setSize[root2];
+
+    // Splice the two circular member lists together.
+    int temp = next[root1];
+    next[root1] = next[root2];
+    next[root2] = temp;
+
+    componentCount--;
+    return true;
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * IntUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    return findRoot(e1) == findRoot(e2);
+  }
+
+  /**
+   * Returns the members of the set that the given member belongs to.  This runs in time proportional
+   * to the size of that set.
+   *
+   * If e is not a member of this IntUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int[] members(int e) {
+    int root = findRoot(e);
+    return getMembers(root);
+  }
+
+  private int[] getMembers(int root) {
+    int[] result = new int[setSize[root]];
+    int m = root;
+    for (int i = 0; i < result.length; i++) {
+      result[i] = m;
+      m = next[m];
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   *
+   * If e is not a member of this IntUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int setSize(int e) {
+    return setSize[findRoot(e)];
+  }
+
+  /**
+   * Returns the number of disjoint sets in this IntUnionFind.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns the number of members in this IntUnionFind.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if e is a member of this IntUnionFind.
+   */
+  public boolean contains(int e) {
+    return e >= 0 && e < size;
+  }
+
+  /**
+   * Returns all the sets within this IntUnionFind.
+   */
+  public List<int[]> sets() {
+    List<int[]> result = new ArrayList<>(componentCount);
+    for (int i = 0; i < size; i++) {
+      if (parent[i] == i) {
+        result.add(getMembers(i));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,96 @@
+package io.acoia.sets;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes members of a UnionFind to bytes and back, for UnionFind snapshots.
+ *
+ * encode() writes a member at the buffer's position and decode() reads one back from the buffer's
+ * position, leaving the position after it.  The encoding must tell decode() where a member ends, for
+ * example with a length prefix.  A member that doesn't fit in the buffer should cause a
+ * BufferOverflowException (or BufferUnderflowException when decoding), as ByteBuffer's own put and
+ * get methods do, and the snapshot code will retry with more room.  So encode() and decode() must
+ * not have any side effects other than on the buffer.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public interface KeyCodec<T> {
+  /**
+   * Writes the given member to the buffer.
+   */
+  void encode(T member, ByteBuffer buffer);
+
+  /**
+   * Reads a member from the buffer.
+   */
+  T decode(ByteBuffer buffer);
+
+  /**
+   * Returns a codec for Integers, as 4 bytes each.  It doesn't support null.
+   */
+  static KeyCodec<Integer> integers() {
+    return new KeyCodec<Integer>() {
+      @Override
+      public void encode(Integer member, ByteBuffer buffer) {
+        buffer.putInt(member);
+      }
+
+      @Override
+      public Integer decode(ByteBuffer buffer) {
+        return buffer.getInt();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for Longs, as 8 bytes each.  It doesn't support null.
+   */
+  static KeyCodec<Long> longs() {
+    return new KeyCodec<Long>() {
+      @Override
+      public void encode(Long member, ByteBuffer buffer) {
+        buffer.putLong(member);
+      }
+
+      @Override
+      public Long decode(ByteBuffer buffer) {
+        return buffer.getLong();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for Strings, as their length in UTF-8 bytes (an int, -1 for null) followed by
+   * the bytes.
+   */
+  static KeyCodec<String> strings() {
+    return new KeyCodec<String>() {
+      @Override
+      public void encode(String member, ByteBuffer buffer) {
+        if (member == null) {
+          buffer.putInt(-1);
+          return;
+        }
+        byte[] bytes = member.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+      }
+
+      @Override
+      public String decode(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+          return null;
+        if (length > buffer.remaining())
+          throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+}
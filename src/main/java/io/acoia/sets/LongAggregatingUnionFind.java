@@ -0,0 +1,126 @@
+package io.acoia.sets;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * The long specialisation of AggregatingUnionFind, which keeps a long aggregate for each set
+ * without boxing.  See AggregatingUnionFind for details.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class LongAggregatingUnionFind {
+  private final IntUnionFind uf;
+  private final LongBinaryOperator merge;
+  private long[] aggregates;
+
+  /**
+   * Initialises an empty LongAggregatingUnionFind that combines aggregates with the given associative
+   * merge function.
+   */
+  public LongAggregatingUnionFind(LongBinaryOperator merge) {
+    this(new long[0], merge);
+  }
+
+  /**
+   * Initialises this LongAggregatingUnionFind with the members 0 to values.length - 1, each in their
+   * own set with the corresponding value as its aggregate.  Aggregates are combined with the given
+   * associative merge function.
+   */
+  public LongAggregatingUnionFind(long[] values, LongBinaryOperator merge) {
+    if (merge == null)
+      throw new NullPointerException("merge");
+    this.uf = new IntUnionFind(values.length);
+    this.merge = merge;
+    this.aggregates = Arrays.copyOf(values, Math.max(values.length, 16));
+  }
+
+  /**
+   * Adds a new member with the given value and returns its id, which is always the previous size().
+   * The member is initially disjoint from all other members.
+   */
+  public int addMember(long value) {
+    int m = uf.addMember();
+    if (m == aggregates.length)
+      aggregates = Arrays.copyOf(aggregates, m + (m >> 1) + 1);
+    aggregates[m] = value;
+    return m;
+  }
+
+  /**
+   * Joins the members e1 and e2, combining the aggregates of their sets as
+   * merge(aggregate(e1), aggregate(e2)).
+   *
+   * Returns true if e1 and e2 were previously in different sets, or false if they were already
+   * equivalent, in which case this method does nothing.
+   */
+  public boolean join(int e1, int e2) {
+    int root1 = uf.findRoot(e1);
+    int root2 = uf.findRoot(e2);
+    if (root1 == root2)
+      return false;
+
+    long merged = merge.applyAsLong(aggregates[root1], aggregates[root2]);
+    uf.join(root1, root2);
+    aggregates[uf.findRoot(root1)] = merged;
+    return true;
+  }
+
+  /**
+   * Returns the aggregate of the set that the given member belongs to.  This runs in the same
+   * effectively constant time as findRoot().
+   *
+   * If e is not a member of this LongAggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public long aggregate(int e) {
+    return aggregates[uf.findRoot(e)];
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, as per IntUnionFind.
+   */
+  public int findRoot(int e) {
+    return uf.findRoot(e);
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * LongAggregatingUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    return uf.sameSet(e1, e2);
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   */
+  public int setSize(int e) {
+    return uf.setSize(e);
+  }
+
+  /**
+   * Returns the number of disjoint sets in this LongAggregatingUnionFind.
+   */
+  public int componentCount() {
+    return uf.componentCount();
+  }
+
+  /**
+   * Returns the number of members in this LongAggregatingUnionFind.
+   */
+  public int size() {
+    return uf.size();
+  }
+
+  /**
+   * Returns true if e is a member of this LongAggregatingUnionFind.
+   */
+  public boolean contains(int e) {
+    return uf.contains(e);
+  }
+}
@@ -0,0 +1,256 @@
+package io.acoia.sets;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Union find / disjoint-set data structure over the dense long ids 0 to n - 1, stored off the Java
+ * heap.
+ *
+ * IntUnionFind tops out at 2^31 members and keeps everything on the heap.  This implementation keeps
+ * its parent pointers and ranks in segments of direct ByteBuffers (or, via mapped(), memory-mapped
+ * file regions) so it can hold billions of members without adding to GC pressure.  Each member costs
+ * 9 bytes: an 8 byte parent and a 1 byte rank.
+ *
+ * Parents are stored offset by one so that zeroed memory means "every member is its own root".  Both
+ * allocateDirect() and a freshly extended file are zero filled, so construction doesn't need to
+ * touch every member, and with a mapped file pages that are never used are never read into memory.
+ *
+ * Like IntUnionFind this uses union by rank and iterative path halving.
+ *
+ * Direct buffers are released when this object is garbage collected; close() only releases the file
+ * channel of a mapped instance.  This implementation is not threadsafe.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class OffHeapUnionFind implements Closeable {
+  // 2^27 parents * 8 bytes is 1GB, comfortably under the 2GB ByteBuffer limit.
+  static final int DEFAULT_SEGMENT_BITS = 27;
+
+  private final long size;
+  private final int segmentBits;
+  private final long segmentMask;
+  private final ByteBuffer[] parentSegments;
+  private final ByteBuffer[] rankSegments;
+  private final FileChannel channel;
+  private long componentCount;
+
+  /**
+   * Initialises this OffHeapUnionFind with the members 0 to n - 1, each in their own set, using
+   * direct memory.
+   */
+  public OffHeapUnionFind(long n) {
+    this(n, DEFAULT_SEGMENT_BITS);
+  }
+
+  OffHeapUnionFind(long n, int segmentBits) {
+    this(n, segmentBits, null);
+  }
+
+  private OffHeapUnionFind(long n, int segmentBits, FileChannel channel) {
+    if (n < 0)
+      throw new IllegalArgumentException("Member count must not be negative: " + n);
+    this.size = n;
+    this.segmentBits = segmentBits;
+    this.segmentMask = (1L << segmentBits) - 1;
+    this.channel = channel;
+    this.componentCount = n;
+
+    long segmentCount = (n + segmentMask) >>> segmentBits;
+    if (segmentCount > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Too many members: " + n);
+    parentSegments = new ByteBuffer[(int) segmentCount];
+    rankSegments = new ByteBuffer[(int) segmentCount];
+  }
+
+  /**
+   * Creates an OffHeapUnionFind with the members 0 to n - 1, each in their own set, stored in a
+   * memory-mapped file.  This allows the union find to be larger than physical memory, with the OS
+   * paging parts of it in and out as required.
+   *
+   * Any existing content of the file is discarded.  The file is not deleted by close().
+   */
+  public static OffHeapUnionFind mapped(Path file, long n) throws IOException {
+    return mapped(file, n, DEFAULT_SEGMENT_BITS);
+  }
+
+  static OffHeapUnionFind mapped(Path file, long n, int segmentBits) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      OffHeapUnionFind uf = new OffHeapUnionFind(n, segmentBits, channel);
+      uf.mapSegments();
+      return uf;
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private void mapSegments() throws IOException {
+    // All the parent segments come first, then all of the rank segments.
+    long parentBytes = size * Long.BYTES;
+    long position = 0;
+    for (int s = 0; s < parentSegments.length; s++) {
+      long bytes = segmentLength(s) * Long.BYTES;
+      parentSegments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+          .order(ByteOrder.nativeOrder());
+      position += bytes;
+    }
+    position = parentBytes;
+    for (int s = 0; s < rankSegments.length; s++) {
+      long bytes = segmentLength(s);
+      rankSegments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+      position += bytes;
+    }
+  }
+
+  private long segmentLength(int s) {
+    return Math.min(segmentMask + 1, size - ((long) s << segmentBits));
+  }
+
+  private ByteBuffer parentSegment(int s) {
+    ByteBuffer segment = parentSegments[s];
+    if (segment == null) {
+      // Direct segments are allocated the first time they're written to.
+      segment = ByteBuffer.allocateDirect((int) (segmentLength(s) * Long.BYTES)).order(ByteOrder.nativeOrder());
+      parentSegments[s] = segment;
+      rankSegments[s] = ByteBuffer.allocateDirect((int) segmentLength(s));
+    }
+    return segment;
+  }
+
+  private long parent(long e) {
+    ByteBuffer segment = parentSegments[(int) (e >>> segmentBits)];
+    if (segment == null)
+      return e;
+    long stored = segment.getLong((int) (e & segmentMask) << 3);
+    return stored == 0 ? e : stored - 1;
+  }
+
+  private void setParent(long e, long p) {
+    parentSegment((int) (e >>> segmentBits)).putLong((int) (e & segmentMask) << 3, p == e ? 0 : p + 1);
+  }
+
+  private int rank(long e) {
+    ByteBuffer segment = rankSegments[(int) (e >>> segmentBits)];
+    return segment == null ? 0 : segment.get((int) (e & segmentMask));
+  }
+
+  private void setRank(long e, int rank) {
+    int s = (int) (e >>> segmentBits);
+    parentSegment(s);
+    rankSegments[s].put((int) (e & segmentMask), (byte) rank);
+  }
+
+  private void checkMember(long e) {
+    if (e < 0 || e >= size)
+      throw new IllegalArgumentException("Argument " + e + " is not in this union find");
+  }
+
+  private long find(long e) {
+    long p = parent(e);
+    while (p != e) {
+      // Path halving.
+      long gp = parent(p);
+      if (gp != p)
+        setParent(e, gp);
+      e = gp;
+      p = parent(e);
+    }
+    return e;
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, which might be itself.
+   * Note that the root is merely one of the members of the set - how it is selected is not defined.
+   * The "root" for a member may change as a result of a call to join().
+   *
+   * If e is not a member of this OffHeapUnionFind then an IllegalArgumentException is thrown.
+   */
+  public long findRoot(long e) {
+    checkMember(e);
+    return find(e);
+  }
+
+  /**
+   * Joins the members e1 and e2, causing them to be equivalent, or in the same set.
+   *
+   * Returns true if e1 and e2 were previously in different sets, or false if they were already
+   * equivalent, in which case this method does nothing.
+   */
+  public boolean join(long e1, long e2) {
+    checkMember(e1);
+    checkMember(e2);
+    long root1 = find(e1);
+    long root2 = find(e2);
+
+    if (root1 == root2)
+      return false;
+
+    // Union by rank, as per UnionFind.
+    int rank1 = rank(root1);
+    int rank2 = rank(root2);
+    if (rank1 < rank2) {
+      long temp = root1;
+      root1 = root2;
+      root2 = temp;
+    }
+
+    if (rank1 == rank2)
+      setRank(root1, rank1 + 1);
+    setParent(root2, root1);
+    componentCount--;
+    return true;
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * OffHeapUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(long e1, long e2) {
+    return findRoot(e1) == findRoot(e2);
+  }
+
+  /**
+   * Returns the number of disjoint sets in this OffHeapUnionFind.
+   */
+  public long componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns the number of members in this OffHeapUnionFind.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns true if e is a member of this OffHeapUnionFind.
+   */
+  public boolean contains(long e) {
+    return e >= 0 && e < size;
+  }
+
+  /**
+   * Closes the backing file of a mapped OffHeapUnionFind.  The mapping itself stays valid until
+   * this object is garbage collected, but this OffHeapUnionFind should no longer be used.
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel != null)
+      channel.close();
+  }
+}
@@ -0,0 +1,234 @@
+package io.acoia.sets;
+
+import java.util.Arrays;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Union find / disjoint-set data structure over dense int ids that can undo joins.
+ *
+ * Every successful join() is pushed onto an undo stack.  checkpoint() returns the current depth of
+ * that stack and rollbackTo() pops joins until the stack is back at that depth, restoring the
+ * partition exactly as it was.  This makes it a good fit for backtracking searches and for offline
+ * dynamic connectivity (a segment tree over time, where each edge is joined on the way down the tree
+ * and rolled back on the way up).
+ *
+ * Path compression rewrites parent pointers all over the tree, which would make undo expensive, so
+ * this implementation doesn't do it.  Instead it uses union by size alone, which keeps every tree's
+ * height below log2(n), so findRoot() and join() are O(log n) and undoing a join is O(1).
+ *
+ * Only joins are undone; members added with addMember() remain after a rollback.
+ *
+ * This implementation is not threadsafe.
+ *
+ * Copyright (c) 2017 Royce Ausburn
+ * This code is available for use in accordance with the MIT License https://opensource.org/licenses/MIT
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+@Beta
+public class RollbackUnionFind {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] parent;
+  private int[] setSize;
+  private int size;
+  private int componentCount;
+
+  // The roots that were linked under another root, most recent last.
+  private int[] history = new int[DEFAULT_CAPACITY];
+  private int historySize;
+
+  /**
+   * Initialises an empty RollbackUnionFind.
+   */
+  public RollbackUnionFind() {
+    this(0);
+  }
+
+  /**
+   * Initialises this RollbackUnionFind with the members 0 to n - 1, each in their own set.
+   */
+  public RollbackUnionFind(int n) {
+    if (n < 0)
+      throw new IllegalArgumentException("Member count must not be negative: " + n);
+    int capacity = Math.max(n, DEFAULT_CAPACITY);
+    parent = new int[capacity];
+    setSize = new int[capacity];
+    for (int i = 0; i < n; i++) {
+      parent[i] = i;
+      setSize[i] = 1;
+    }
+    size = n;
+    componentCount = n;
+  }
+
+  /**
+   * Adds a new member to this RollbackUnionFind and returns its id, which is always the previous
+   * size().  The member is initially disjoint from all other members.
+   */
+  public int addMember() {
+    if (size == parent.length)
+      grow();
+    int m = size++;
+    parent[m] = m;
+    setSize[m] = 1;
+    componentCount++;
+    return m;
+  }
+
+  private void grow() {
+    int capacity = parent.length + (parent.length >> 1) + 1;
+    if (capacity < 0)
+      capacity = Integer.MAX_VALUE - 8;
+    if (capacity <= size)
+      throw new IllegalStateException("RollbackUnionFind cannot hold more than " + size + " members");
+    parent = Arrays.copyOf(parent, capacity);
+    setSize = Arrays.copyOf(setSize, capacity);
+  }
+
+  private void growHistory() {
+    int capacity = history.length << 1;
+    if (capacity < 0)
+      capacity = Integer.MAX_VALUE - 8;
+    if (capacity <= historySize)
+      throw new IllegalStateException("RollbackUnionFind cannot record more than " + historySize + " joins");
+    history = Arrays.copyOf(history, capacity);
+  }
+
+  private void checkMember(int e) {
+    if (e < 0 || e >= size)
+      throw new IllegalArgumentException("Argument " + e + " is not in this union find");
+  }
+
+  private int find(int e) {
+    while (parent[e] != e) {
+      e = parent[e];
+    }
+    return e;
+  }
+
+  /**
+   * Returns the "representative" or "root" member for the given member, which might be itself.
+   * This runs in O(log n) time.
+   *
+   * If e is not a member of this RollbackUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int findRoot(int e) {
+    checkMember(e);
+    return find(e);
+  }
+
+  /**
+   * Joins the members e1 and e2, causing them to be equivalent, or in the same set.
+   *
+   * Returns true if e1 and e2 were previously in different sets, in which case the join is recorded
+   * so it can be rolled back.  Returns false if they were already equivalent, in which case nothing
+   * is changed or recorded.
+   */
+  public boolean join(int e1, int e2) {
+    checkMember(e1);
+    checkMember(e2);
+    int root1 = find(e1);
+    int root2 = find(e2);
+
+    if (root1 == root2)
+      return false;
+
+    // Union by size, so that the tree height grows at most logarithmically.
+    if (setSize[root1] < setSize[root2]) {
+      int temp = root1;
+      root1 = root2;
+      root2 = temp;
+    }
+
+    parent[root2] = root1;
+    setSize[root1] += setSize[root2];
+    componentCount--;
+
+    if (historySize == history.length)
+      growHistory();
+    history[historySize++] = root2;
+    return true;
+  }
+
+  /**
+   * Returns a checkpoint representing the current partition, which can later be passed to
+   * rollbackTo().  Checkpoints are simply the number of joins that can currently be rolled back.
+   */
+  public int checkpoint() {
+    return historySize;
+  }
+
+  /**
+   * Undoes every join made since the given checkpoint was taken, in O(1) per join.
+   *
+   * A checkpoint is only valid until this RollbackUnionFind is rolled back past it.  If the
+   * checkpoint is negative or greater than the current checkpoint() then an IllegalArgumentException
+   * is thrown, but a stale checkpoint that later joins have caught up with can't be detected, and
+   * rolling back to it undoes whichever joins were made since the stack was last that deep.
+   */
+  public void rollbackTo(int checkpoint) {
+    if (checkpoint < 0 || checkpoint > historySize)
+      throw new IllegalArgumentException("Checkpoint " + checkpoint + " is not valid, the current checkpoint is " + historySize);
+    while (historySize > checkpoint) {
+      undo();
+    }
+  }
+
+  /**
+   * Undoes the most recent join that hasn't already been undone.  Returns false if there was nothing
+   * to undo.
+   */
+  public boolean rollback() {
+    if (historySize == 0)
+      return false;
+    undo();
+    return true;
+  }
+
+  private void undo() {
+    int child = history[--historySize];
+    int root = parent[child];
+    setSize[root] -= setSize[child];
+    parent[child] = child;
+    componentCount++;
+  }
+
+  /**
+   * Returns true if e1 and e2 belong to the same set.  If e1 or e2 are not members of this
+   * RollbackUnionFind then an IllegalArgumentException is thrown.
+   */
+  public boolean sameSet(int e1, int e2) {
+    return findRoot(e1) == findRoot(e2);
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   *
+   * If e is not a member of this RollbackUnionFind then an IllegalArgumentException is thrown.
+   */
+  public int setSize(int e) {
+    return setSize[findRoot(e)];
+  }
+
+  /**
+   * Returns the number of disjoint sets in this RollbackUnionFind.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns the number of members in this RollbackUnionFind.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if e is a member of this RollbackUnionFind.
+   */
+  public boolean contains(int e) {
+    return e >= 0 && e < size;
+  }
+}
@@ -1,12 +1,22 @@
 package io.acoia.sets;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.google.common.annotations.Beta;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * Union find / disjoint-set data structure implementation. 
@@ -32,7 +42,17 @@ import com.google.common.annotations.Beta;
  * uses.
  * 
  * This implementation supports essentially constant time find() and union() lookups thanks to 
- * path compression & union by rank.
+ * path compression & union by rank.  The size of each set and the number of sets are also kept
+ * up to date by join(), so setSize() and componentCount() are O(1).
+ * 
+ * Members can be removed with remove().  Removed members are tombstoned rather than unlinked, so they
+ * still take up space (though they no longer reference the member itself) until their whole set is
+ * removed or compact() is called.  Long-lived instances that remove members should call compact()
+ * periodically, for example whenever tombstoneCount() exceeds size().
+ * 
+ * Operation counts can be collected for diagnosis by attaching a UnionFindStatistics with
+ * setStatistics(), and a UnionFind can be saved and quickly restored with writeSnapshot() and
+ * readSnapshot().
  * 
  * This UnionFind implementation can accept null as a member and is not threadsafe.
  *  
@@ -51,6 +71,9 @@ public class UnionFind<T> {
     UnionFindEntry tail = this;
     T entry;
     int rank = 1;
+    int size = 1;
+    int tombstones = 0;
+    boolean removed = false;
     UnionFindEntry next = null;
     
     public UnionFindEntry(T member) {
@@ -58,7 +81,10 @@ public class UnionFind<T> {
     }
   }
   
-  private final Map<T, UnionFindEntry> entries;
+  private Map<T, UnionFindEntry> entries;
+  private int componentCount;
+  private int tombstoneCount;
+  private UnionFindStatistics statistics;
   
   /**
    * Initialises an empty UnionFind.
@@ -83,6 +109,7 @@ public class UnionFind<T> {
     for (T m: members) {
       entries.put(m, new UnionFindEntry(m));
     }
+    componentCount = entries.size();
   }
   
   /**
@@ -92,11 +119,16 @@ public class UnionFind<T> {
    * If the member is already in this UnionFind then this method has no effect. 
    */
   public void addMember(T m) {
-    entries.computeIfAbsent(m, k -> new UnionFindEntry(k));
+    entries.computeIfAbsent(m, k -> {
+      componentCount++;
+      return new UnionFindEntry(k);
+    });
   }
   
   private UnionFindEntry findEntry(T e) {
     UnionFindEntry entry = getEntry(e);
+    if (statistics != null)
+      statistics.finds++;
 
     return findParent(entry);
   }
@@ -105,6 +137,8 @@ public class UnionFind<T> {
     UnionFindEntry rep = entry.root;
     if (rep.root != rep) {
       // Path compression... 
+      if (statistics != null)
+        statistics.hops++;
       rep = findParent(rep);
       entry.root = rep;
     }
@@ -137,9 +171,14 @@ public class UnionFind<T> {
   public void join(T e1, T e2) {
     UnionFindEntry entry1 = findEntry(e1);
     UnionFindEntry entry2 = findEntry(e2);
+    if (statistics != null)
+      statistics.joins++;
     
-    if (entry1 == entry2)
+    if (entry1 == entry2) {
+      if (statistics != null)
+        statistics.noOpJoins++;
       return;  // Already in the same set 
+    }
     
     // Union by rank.
     // Ensures we don't grow the tree unnecessarily.
@@ -157,12 +196,163 @@ public class UnionFind<T> {
     entry1.tail = entry2.tail;
     if (entry1.rank == entry2.rank)
       entry1.rank++;
+    if (statistics != null && entry1.rank > statistics.maxRank)
+      statistics.maxRank = entry1.rank;
     entry2.root = entry1;
+    entry1.size += entry2.size;
+    entry1.tombstones += entry2.tombstones;
+    componentCount--;
+  }
+
+  /**
+   * Removes the given member from this UnionFind.  The remaining members of its set stay together,
+   * and if the removed member was the set's "root" another member of the set takes its place.
+   * 
+   * Returns true if the member was removed, or false if it wasn't in this UnionFind.
+   */
+  public boolean remove(T e) {
+    UnionFindEntry entry = entries.remove(e);
+    if (entry == null)
+      return false;
+
+    UnionFindEntry root = findParent(entry);
+    root.size--;
+    if (root.size == 0) {
+      // The whole set is gone, and nothing live refers to any of its entries any more.
+      tombstoneCount -= root.tombstones;
+      componentCount--;
+      return true;
+    }
+
+    if (entry == root) {
+      // Hand the root over to another member by moving that member into the root entry and
+      // tombstoning the member's old entry instead.  This keeps the tree itself intact.
+      UnionFindEntry replacement = root.next;
+      while (replacement.removed) {
+        replacement = replacement.next;
+      }
+      root.entry = replacement.entry;
+      entries.put(root.entry, root);
+      entry = replacement;
+    }
+
+    entry.removed = true;
+    entry.entry = null;
+    root.tombstones++;
+    tombstoneCount++;
+    return true;
+  }
+
+  /**
+   * Returns the number of removed members that are still taking up space in this UnionFind.  See
+   * compact().
+   */
+  public int tombstoneCount() {
+    return tombstoneCount;
+  }
+
+  /**
+   * Rebuilds this UnionFind from its live members only, discarding every tombstone left behind by
+   * remove() and flattening each set so that every member points directly at its root.  The roots
+   * and sets themselves are unchanged.  This runs in O(n) time.
+   */
+  public void compact() {
+    Map<T, UnionFindEntry> compacted = new HashMap<>(entries.size());
+    for (UnionFindEntry e: entries.values()) {
+      if (e.root != e)
+        continue;
+
+      UnionFindEntry root = new UnionFindEntry(e.entry);
+      root.size = e.size;
+      compacted.put(root.entry, root);
+      for (UnionFindEntry m = e.next; m != null; m = m.next) {
+        if (m.removed)
+          continue;
+        UnionFindEntry entry = new UnionFindEntry(m.entry);
+        entry.root = root;
+        root.tail.next = entry;
+        root.tail = entry;
+        root.rank = 2;
+        compacted.put(entry.entry, entry);
+      }
+    }
+    entries = compacted;
+    tombstoneCount = 0;
   }
   
   /**
-   * Returns the Set of members that the given member belongs to.  Note this runs in O(n)
-   * time to build the set from our internal representation.
+   * Writes a snapshot of this UnionFind to the given file, which is created or replaced, encoding
+   * members with the given codec.  readSnapshot() restores it far faster than replaying the joins
+   * that built it.  Removed members are left out, so the snapshot is of the compacted UnionFind.
+   * 
+   * The file holds a table of the members grouped by set, each member's root's index in that table
+   * and each member's rank, with a version and checksums; see UnionFindSnapshot for the format.
+   */
+  public void writeSnapshot(Path file, KeyCodec<? super T> codec) throws IOException {
+    try (UnionFindSnapshot.Writer<T> writer = new UnionFindSnapshot.Writer<>(file, codec, entries.size(),
+        componentCount)) {
+      int index = 0;
+      for (UnionFindEntry e: entries.values()) {
+        if (e.root != e)
+          continue;
+        int root = index;
+        for (UnionFindEntry m = e; m != null; m = m.next) {
+          if (m.removed)
+            continue;
+          writer.write(m.entry, root, m.rank);
+          index++;
+        }
+      }
+      writer.finish();
+    }
+  }
+
+  /**
+   * Restores a UnionFind from a snapshot written by writeSnapshot(), decoding members with the given
+   * codec.  The snapshot is memory-mapped, its checksums are checked, and then the sets are rebuilt
+   * in a single pass without any joins, each member pointing directly at its root.
+   * 
+   * If the file isn't a snapshot, is of an unsupported version or is corrupt then an IOException is
+   * thrown.
+   */
+  public static <T> UnionFind<T> readSnapshot(Path file, KeyCodec<T> codec) throws IOException {
+    try (UnionFindSnapshot.Reader<T> reader = new UnionFindSnapshot.Reader<>(file, codec)) {
+      int n = reader.memberCount();
+      UnionFind<T> uf = new UnionFind<>();
+      uf.entries = Maps.newHashMapWithExpectedSize(n);
+      UnionFind<T>.UnionFindEntry root = null;
+      for (int i = 0; i < n; i++) {
+        reader.next();
+        UnionFind<T>.UnionFindEntry entry = uf.new UnionFindEntry(reader.member());
+        entry.rank = reader.rank();
+        if (reader.root() == i) {
+          root = entry;
+          uf.componentCount++;
+        }
+        else if (root == null || reader.root() != i - root.size) {
+          throw new IOException(file + " is corrupt: member " + i + " is not grouped with its root " + reader.root());
+        }
+        else {
+          entry.root = root;
+          root.tail.next = entry;
+          root.tail = entry;
+          root.size++;
+        }
+        if (uf.entries.put(entry.entry, entry) != null)
+          throw new IOException(file + " is corrupt: " + entry.entry + " appears more than once");
+      }
+      reader.checkEnd();
+      if (uf.componentCount != reader.setCount())
+        throw new IOException(file + " is corrupt: it has " + uf.componentCount + " sets, but its header says "
+            + reader.setCount());
+      return uf;
+    }
+  }
+
+  /**
+   * Returns the Set of members that the given member belongs to.  Note this runs in time
+   * proportional to the size of that set to copy it from our internal representation.  See
+   * membersView() for a view that doesn't copy.
    * 
    * If e is not a member of this UnionFind then an IllegalArgumentException is thrown.
    */
@@ -172,13 +362,112 @@ public class UnionFind<T> {
   }
 
   private Set<T> getMembers(UnionFindEntry entry) {
-    Set<T> result = new HashSet<>(size());
+    Set<T> result = Sets.newHashSetWithExpectedSize(entry.size);
     while (entry != null) {
-      result.add(entry.entry);
+      if (!entry.removed)
+        result.add(entry.entry);
       entry = entry.next;
     }
     return result;
   }
+
+  /**
+   * Returns an unmodifiable, live view of the set that the given member belongs to.  Nothing is
+   * copied: size() is O(1), contains() is a sameSet() check and iteration walks our internal
+   * linked list of members.  Subsequent joins are reflected in the view, but the view must not be
+   * iterated while the UnionFind is being modified.
+   * 
+   * If e is not a member of this UnionFind then an IllegalArgumentException is thrown.
+   */
+  public Set<T> membersView(T e) {
+    getEntry(e);
+    return new MembersView(e);
+  }
+
+  private class MembersView extends AbstractSet<T> {
+    private final T member;
+
+    MembersView(T member) {
+      this.member = member;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new MemberIterator(findEntry(member));
+    }
+
+    @Override
+    public int size() {
+      return findEntry(member).size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      UnionFindEntry entry = entries.get(o);
+      return entry != null && findParent(entry) == findEntry(member);
+    }
+  }
+
+  private class MemberIterator implements Iterator<T> {
+    private UnionFindEntry next;
+
+    MemberIterator(UnionFindEntry root) {
+      this.next = root;
+      skipRemoved();
+    }
+
+    private void skipRemoved() {
+      while (next != null && next.removed) {
+        next = next.next;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public T next() {
+      if (next == null)
+        throw new NoSuchElementException();
+      T result = next.entry;
+      next = next.next;
+      skipRemoved();
+      return result;
+    }
+  }
+
+  /**
+   * Returns the number of members in the set that the given member belongs to.
+   * 
+   * If e is not a member of this UnionFind then an IllegalArgumentException is thrown.
+   */
+  public int setSize(T e) {
+    return findEntry(e).size;
+  }
+
+  /**
+   * Starts counting this UnionFind's operations in the given statistics, or stops counting if it's
+   * null.  See UnionFindStatistics.
+   */
+  public void setStatistics(UnionFindStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Returns the statistics this UnionFind is counting its operations in, or null if it isn't.
+   */
+  public UnionFindStatistics statistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns the number of disjoint sets in this UnionFind.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
   
   /**
    * Returns the number of elements in this UnionFind.
@@ -206,7 +495,7 @@ public class UnionFind<T> {
    * Returns all the sets within this UnionFind.
    */
   public Collection<Set<T>> sets() {
-    Set<Set<T>> result = new HashSet<>(size());
+    List<Set<T>> result = new ArrayList<>(componentCount);
     for (UnionFindEntry e: entries.values()) {
       if (e.root == e) {
         result.add(getMembers(e));
@@ -214,4 +503,24 @@ public class UnionFind<T> {
     }
     return result;
   }
+
+  /**
+   * Returns an unmodifiable, lazy view of all the sets within this UnionFind, each being a
+   * membersView() of that set.  Unlike sets() this doesn't copy any members; iterating it walks our
+   * internal entries once.  The view must not be iterated while the UnionFind is being modified.
+   */
+  public Collection<Set<T>> setsView() {
+    return new AbstractCollection<Set<T>>() {
+      @Override
+      public Iterator<Set<T>> iterator() {
+        Iterator<UnionFindEntry> roots = Iterators.filter(entries.values().iterator(), e -> e.root == e);
+        return Iterators.transform(roots, e -> new MembersView(e.entry));
+      }
+
+      @Override
+      public int size() {
+        return componentCount;
+      }
+    };
+  }
 }
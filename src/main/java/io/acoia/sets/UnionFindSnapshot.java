@@ -0,0 +1,326 @@
+package io.acoia.sets;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The binary snapshot format written by UnionFind.writeSnapshot() and read by
+ * UnionFind.readSnapshot().
+ *
+ * A snapshot is a 40 byte header followed by three sections, all big-endian:
+ *
+ * - header: the magic number 0x41435546 ("ACUF"), the format version (int), the member count n
+ *   (int), the set count (int), the length of the members section in bytes (long), the CRC32s of
+ *   the roots, ranks and members sections (ints) and the CRC32 of the header's first 36 bytes (int).
+ * - roots: n ints, the index of each member's set's root, which is flattened: every member refers
+ *   directly to its root.
+ * - ranks: n bytes, each member's rank.
+ * - members: n members as encoded by a KeyCodec.
+ *
+ * Members are grouped by set with the root first, so a set's root index is the index of its first
+ * member, and the sets can be rebuilt in one pass without any joins.  The fixed size sections come
+ * first so that their offsets depend only on n.
+ *
+ * Sections are written through their own buffers to their own positions in the file, and read
+ * through memory-mapped windows of at most 1GB, so snapshots can be larger than a single mapping.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+final class UnionFindSnapshot {
+  static final int MAGIC = 0x41435546;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 40;
+  static final int BUFFER_BYTES = 1 << 20;
+  static final int WINDOW_BYTES = 1 << 30;
+
+  private UnionFindSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot of n members, which must be passed to write() grouped by set with each root
+   * first.  The header is written by finish(), so the file isn't valid unless finish() is called
+   * before close().
+   */
+  static final class Writer<T> implements Closeable {
+    private final FileChannel channel;
+    private final KeyCodec<? super T> codec;
+    private final int memberCount;
+    private final int setCount;
+    private final Section roots;
+    private final Section ranks;
+    private final Section members;
+
+    Writer(Path file, KeyCodec<? super T> codec, int memberCount, int setCount) throws IOException {
+      this.codec = codec;
+      this.memberCount = memberCount;
+      this.setCount = setCount;
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      roots = new Section(HEADER_BYTES);
+      ranks = new Section(HEADER_BYTES + 4L * memberCount);
+      members = new Section(HEADER_BYTES + 5L * memberCount);
+    }
+
+    void write(T member, int root, int rank) throws IOException {
+      if (roots.buffer.remaining() < 4)
+        roots.flush();
+      roots.buffer.putInt(root);
+      if (!ranks.buffer.hasRemaining())
+        ranks.flush();
+      ranks.buffer.put((byte) rank);
+
+      ByteBuffer buffer = members.buffer;
+      buffer.mark();
+      try {
+        codec.encode(member, buffer);
+      }
+      catch (BufferOverflowException e) {
+        buffer.reset();
+        members.flush();
+        while (true) {
+          try {
+            codec.encode(member, members.buffer);
+            break;
+          }
+          catch (BufferOverflowException tooBig) {
+            members.buffer = ByteBuffer.allocate(members.buffer.capacity() * 2);
+          }
+        }
+      }
+    }
+
+    void finish() throws IOException {
+      roots.flush();
+      ranks.flush();
+      members.flush();
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.putInt(MAGIC).putInt(VERSION).putInt(memberCount).putInt(setCount)
+          .putLong(members.position - (HEADER_BYTES + 5L * memberCount))
+          .putInt((int) roots.crc.getValue()).putInt((int) ranks.crc.getValue()).putInt((int) members.crc.getValue());
+      header.putInt(headerCrc(header));
+      header.flip();
+      long position = 0;
+      while (header.hasRemaining()) {
+        position += channel.write(header, position);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    // A section's buffer, the CRC32 of what's been flushed from it and where the next flush goes.
+    private final class Section {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+      final CRC32 crc = new CRC32();
+      long position;
+
+      Section(long position) {
+        this.position = position;
+      }
+
+      void flush() throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
+        buffer.clear();
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot, checking its header and checksums when it's opened.  next() then moves through
+   * the members in order.
+   */
+  static final class Reader<T> implements Closeable {
+    private final Path file;
+    private final FileChannel channel;
+    private final KeyCodec<? extends T> codec;
+    private final int windowBytes;
+    private final int memberCount;
+    private final int setCount;
+    private final Cursor roots;
+    private final Cursor ranks;
+    private final Cursor members;
+    private T member;
+    private int root;
+    private int rank;
+
+    Reader(Path file, KeyCodec<? extends T> codec) throws IOException {
+      this(file, codec, WINDOW_BYTES);
+    }
+
+    Reader(Path file, KeyCodec<? extends T> codec, int windowBytes) throws IOException {
+      this.file = file;
+      this.codec = codec;
+      this.windowBytes = windowBytes;
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      try {
+        if (channel.size() < HEADER_BYTES)
+          throw new IOException(file + " is too short to be a union find snapshot");
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+          if (channel.read(header, header.position()) < 0)
+            throw new IOException(file + " is too short to be a union find snapshot");
+        }
+        header.flip();
+        if (header.getInt() != MAGIC)
+          throw new IOException(file + " is not a union find snapshot");
+        int version = header.getInt();
+        if (version != VERSION)
+          throw new IOException(file + " has unsupported union find snapshot version " + version);
+        if (header.getInt(HEADER_BYTES - 4) != headerCrc(header))
+          throw new IOException(file + " has a corrupt header");
+        memberCount = header.getInt();
+        setCount = header.getInt();
+        long membersBytes = header.getLong();
+        if (memberCount < 0 || setCount < 0 || membersBytes < 0)
+          throw new IOException(file + " has a corrupt header");
+        long rootsStart = HEADER_BYTES;
+        long ranksStart = rootsStart + 4L * memberCount;
+        long membersStart = ranksStart + memberCount;
+        long end = membersStart + membersBytes;
+        if (channel.size() != end)
+          throw new IOException(file + " is " + channel.size() + " bytes, but its header says " + end);
+
+        roots = new Cursor(rootsStart, ranksStart);
+        ranks = new Cursor(ranksStart, membersStart);
+        members = new Cursor(membersStart, end);
+        roots.check("roots", header.getInt());
+        ranks.check("ranks", header.getInt());
+        members.check("members", header.getInt());
+      }
+      catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    int memberCount() {
+      return memberCount;
+    }
+
+    int setCount() {
+      return setCount;
+    }
+
+    /**
+     * Reads the next member, its root index and its rank.
+     */
+    void next() throws IOException {
+      root = roots.buffer(4).getInt();
+      rank = ranks.buffer(1).get();
+      ByteBuffer buffer = members.buffer(1);
+      int start = buffer.position();
+      try {
+        member = codec.decode(buffer);
+      }
+      catch (BufferUnderflowException e) {
+        // The member runs past the end of the window, so map a window starting at the member.
+        buffer.position(start);
+        buffer = members.remap();
+        try {
+          member = codec.decode(buffer);
+        }
+        catch (BufferUnderflowException stillShort) {
+          throw new IOException(file + " has a member that's truncated or larger than " + windowBytes + " bytes");
+        }
+      }
+    }
+
+    T member() {
+      return member;
+    }
+
+    int root() {
+      return root;
+    }
+
+    int rank() {
+      return rank;
+    }
+
+    /**
+     * Throws an IOException if any members are left unread.
+     */
+    void checkEnd() throws IOException {
+      if (members.position() != members.end)
+        throw new IOException(file + " has " + (members.end - members.position()) + " unread bytes of members");
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    // A position in a section, read through a mapped window of the file.
+    private final class Cursor {
+      final long start;
+      final long end;
+      long windowStart;
+      ByteBuffer window;
+
+      Cursor(long start, long end) {
+        this.start = start;
+        this.end = end;
+        windowStart = start;
+        window = ByteBuffer.allocate(0);
+      }
+
+      void check(String section, int expected) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long position = start; position < end; position += windowBytes) {
+          crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, end - position)));
+        }
+        if ((int) crc.getValue() != expected)
+          throw new IOException(file + " has a corrupt " + section + " section");
+      }
+
+      long position() {
+        return windowStart + window.position();
+      }
+
+      // Returns the window with at least the given number of bytes left, mapping the next one if
+      // need be.
+      ByteBuffer buffer(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+          remap();
+          if (window.remaining() < bytes)
+            throw new IOException(file + " is truncated");
+        }
+        return window;
+      }
+
+      // Maps a window starting at the current position.
+      ByteBuffer remap() throws IOException {
+        long position = position();
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, end - position));
+        windowStart = position;
+        return window;
+      }
+    }
+  }
+
+  // The CRC32 of the first 36 bytes of the header.
+  private static int headerCrc(ByteBuffer header) {
+    CRC32 crc = new CRC32();
+    ByteBuffer fields = header.duplicate();
+    fields.position(0).limit(HEADER_BYTES - 4);
+    crc.update(fields);
+    return (int) crc.getValue();
+  }
+}
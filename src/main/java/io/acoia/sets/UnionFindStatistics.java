@@ -0,0 +1,97 @@
+package io.acoia.sets;
+
+import io.acoia.jfr.JfrEventType;
+
+/**
+ * Counters for the work a UnionFind does, for finding out why a connectivity job is slow: long find
+ * paths show up as many hops per find, and a high maximum rank means tall trees.
+ *
+ * Counting is opt in.  Attach a UnionFindStatistics with UnionFind.setStatistics() and the UnionFind
+ * updates it from then on; without one, each operation costs a single null check.  One
+ * UnionFindStatistics can be shared by several UnionFinds to total their work, as long as they're
+ * used from one thread, since like UnionFind this isn't threadsafe.
+ *
+ * record() commits the counters as an "io.acoia.UnionFind" JDK Flight Recorder event, so snapshots
+ * can be lined up with the rest of a recording; see io.acoia.jfr.JfrEventType.
+ *
+ * Copyright (c) 2017 Royce Ausburn This code is available for use in accordance with the MIT
+ * License https://opensource.org/licenses/MIT
+ *
+ * @author Royce Ausburn (esapersona@royce.id.au)
+ */
+public final class UnionFindStatistics {
+  private static final JfrEventType EVENT = new JfrEventType("io.acoia.UnionFind", "Union Find",
+      "UnionFind operation counters")
+      .field("finds", "Finds")
+      .field("joins", "Joins")
+      .field("noOpJoins", "No-op Joins")
+      .field("hops", "Path Compression Hops")
+      .field("maxRank", "Maximum Rank");
+
+  long finds;
+  long joins;
+  long noOpJoins;
+  long hops;
+  int maxRank;
+
+  /**
+   * Returns the number of finds, including the two that each join() makes.
+   */
+  public long finds() {
+    return finds;
+  }
+
+  /**
+   * Returns the number of calls to join(), including no-op joins.
+   */
+  public long joins() {
+    return joins;
+  }
+
+  /**
+   * Returns the number of calls to join() whose members were already in the same set.
+   */
+  public long noOpJoins() {
+    return noOpJoins;
+  }
+
+  /**
+   * Returns the number of parent links followed (and compressed) by finds beyond the first.  A
+   * member whose parent is its set's root costs no hops, so hops() / finds() is the average excess
+   * path length.
+   */
+  public long hops() {
+    return hops;
+  }
+
+  /**
+   * Returns the highest rank a set's root has reached in a join() while counting.
+   */
+  public int maxRank() {
+    return maxRank;
+  }
+
+  /**
+   * Sets all the counters back to zero.
+   */
+  public void reset() {
+    finds = 0;
+    joins = 0;
+    noOpJoins = 0;
+    hops = 0;
+    maxRank = 0;
+  }
+
+  /**
+   * Commits the current counters as a JDK Flight Recorder event, if JFR is recording it.
+   */
+  public void record() {
+    EVENT.commit(finds, joins, noOpJoins, hops, maxRank);
+  }
+
+  @Override
+  public String toString() {
+    return "UnionFindStatistics[finds=" + finds + ", joins=" + joins + ", noOpJoins=" + noOpJoins + ", hops="
+        + hops + ", maxRank=" + maxRank + "]";
+  }
+}
@@ -0,0 +1,77 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class BoruvkaTest {
+
+  @Test
+  public void matchesKruskalsOnEdgeList() {
+    Random random = new Random(31);
+    int n = 3000;
+    int m = 20000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] weights = new long[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      weights[i] = random.nextInt(100);
+    }
+
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+    assertArrayEquals(expected, MinimumSpanningTree.boruvkas(n, src, dst, weights));
+
+    double[] doubleWeights = new double[m];
+    for (int i = 0; i < m; i++) {
+      doubleWeights[i] = -weights[i] / 3.0;
+    }
+    assertArrayEquals(MinimumSpanningTree.kruskals(n, src, dst, doubleWeights),
+        MinimumSpanningTree.boruvkas(n, src, dst, doubleWeights));
+  }
+
+  @Test
+  public void matchesKruskalsOnValueGraph() {
+    Random random = new Random(37);
+    MutableValueGraph<String, Double> graph = ValueGraphBuilder.undirected().allowsSelfLoops(true).build();
+    for (int i = 0; i < 300; i++) {
+      graph.addNode("n" + i);
+    }
+    for (int i = 0; i < 2000; i++) {
+      graph.putEdgeValue("n" + random.nextInt(300), "n" + random.nextInt(300), random.nextDouble());
+    }
+
+    ValueGraph<String, Double> expected = MinimumSpanningTree.kruskals(graph);
+    ValueGraph<String, Double> tree = MinimumSpanningTree.boruvkas(graph);
+    assertSameTree(expected, tree);
+  }
+
+  static <N, E> void assertSameTree(ValueGraph<N, E> expected, ValueGraph<N, E> tree) {
+    assertEquals(expected.nodes(), tree.nodes());
+    assertEquals(expected.edges(), tree.edges());
+    for (EndpointPair<N> e : expected.edges()) {
+      assertEquals(expected.edgeValue(e.nodeU(), e.nodeV()), tree.edgeValue(e.nodeU(), e.nodeV()));
+    }
+  }
+
+  @Test
+  public void emptyAndSingletonGraphs() {
+    assertArrayEquals(new int[0], MinimumSpanningTree.boruvkas(0, new int[0], new int[0], new long[0]));
+    assertArrayEquals(new int[0], MinimumSpanningTree.boruvkas(3, new int[] { 1 }, new int[] { 1 }, new long[] { 4 }));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void directedGraphsAreRejected() {
+    MutableValueGraph<Integer, Integer> graph = ValueGraphBuilder.directed().build();
+    graph.putEdgeValue(1, 2, 3);
+    MinimumSpanningTree.boruvkas(graph);
+  }
+}
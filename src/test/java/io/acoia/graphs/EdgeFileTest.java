@@ -0,0 +1,72 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class EdgeFileTest {
+
+  @Test
+  public void roundTrip() throws IOException {
+    Path file = Files.createTempFile("acoia", ".edges");
+    try {
+      long big = 5_000_000_000L;
+      try (EdgeFileWriter writer = new EdgeFileWriter(file, big + 1)) {
+        for (int i = 0; i < 100000; i++) {
+          writer.write(i, big - i, i * 0.5);
+        }
+        assertEquals(100000, writer.edgeCount());
+      }
+      assertEquals(EdgeFile.HEADER_BYTES + 100000L * EdgeFile.RECORD_BYTES, Files.size(file));
+
+      try (EdgeFileReader reader = new EdgeFileReader(file)) {
+        assertEquals(big + 1, reader.nodeCount());
+        assertEquals(100000, reader.edgeCount());
+        for (int i = 0; i < 100000; i++) {
+          assertTrue(reader.next());
+          assertEquals(i, reader.position());
+          assertEquals(i, reader.src());
+          assertEquals(big - i, reader.dst());
+          assertEquals(i * 0.5, reader.weight(), 0);
+        }
+        assertFalse(reader.next());
+      }
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nodeOutOfRange() throws IOException {
+    Path file = Files.createTempFile("acoia", ".edges");
+    try (EdgeFileWriter writer = new EdgeFileWriter(file, 2)) {
+      writer.write(0, 2, 1);
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void notAnEdgeFile() throws IOException {
+    Path file = Files.createTempFile("acoia", ".edges");
+    try {
+      Files.write(file, new byte[EdgeFile.HEADER_BYTES]);
+      try {
+        new EdgeFileReader(file).close();
+        fail("Expected an IOException as the file has no magic number");
+      }
+      catch (IOException e) {
+        // Expected
+      }
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class EdgeSortTest {
+
+  @Test
+  public void sortableKeys() {
+    double[] ordered = { Double.NEGATIVE_INFINITY, -1e300, -1, -Double.MIN_VALUE, -0.0, 0.0,
+        Double.MIN_VALUE, 1, 1e300, Double.POSITIVE_INFINITY, Double.NaN };
+    for (int i = 1; i < ordered.length; i++) {
+      assertTrue(EdgeSort.sortableKey(ordered[i - 1]) < EdgeSort.sortableKey(ordered[i]));
+    }
+  }
+
+  @Test
+  public void sortedIndicesIsStable() {
+    long[] keys = { 3, -1, 3, Long.MIN_VALUE, Long.MAX_VALUE, -1, 0 };
+    assertArrayEquals(new int[] { 3, 1, 5, 6, 0, 2, 4 }, EdgeSort.sortedIndices(keys));
+    assertArrayEquals(new int[0], EdgeSort.sortedIndices(new long[0]));
+  }
+
+  @Test
+  public void sortedIndicesMatchesComparisonSort() {
+    Random random = new Random(1);
+    long[] keys = new long[10000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = i % 2 == 0 ? random.nextLong() : random.nextInt(100);
+    }
+
+    Integer[] expected = IntStream.range(0, keys.length).boxed().toArray(Integer[]::new);
+    Arrays.sort(expected, Comparator.comparingLong(i -> keys[i]));
+    assertArrayEquals(Arrays.stream(expected).mapToInt(i -> i).toArray(), EdgeSort.sortedIndices(keys));
+  }
+
+  @Test
+  public void sortSubrange() {
+    long[] keys = { 5, 4, 3, 2, 1 };
+    int[] indices = { 0, 4, 2, 1, 3 };
+    EdgeSort.sort(keys, indices, 1, 4);
+    assertArrayEquals(new int[] { 0, 4, 2, 1, 3 }, indices);
+    EdgeSort.sort(keys, indices, 0, 3);
+    assertArrayEquals(new int[] { 4, 2, 0, 1, 3 }, indices);
+  }
+}
@@ -0,0 +1,106 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EuclideanBoruvkaTest {
+
+  private static void assertMatchesCompleteGraph(double[] points, int dimensions) {
+    int n = points.length / dimensions;
+    int m = n * (n - 1) / 2;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    double[] weights = new double[m];
+    int e = 0;
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        double sum = 0;
+        for (int d = 0; d < dimensions; d++) {
+          double diff = points[i * dimensions + d] - points[j * dimensions + d];
+          sum += diff * diff;
+        }
+        src[e] = i;
+        dst[e] = j;
+        weights[e] = Math.sqrt(sum);
+        e++;
+      }
+    }
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+
+    SpanningForest<Integer, Double> tree = MinimumSpanningTree.euclideanMinimumSpanningTree(points, dimensions);
+    assertEquals(expected.length, tree.edgeCount());
+    double expectedWeight = 0;
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(src[expected[i]], (int) tree.nodeU(i));
+      assertEquals(dst[expected[i]], (int) tree.nodeV(i));
+      assertEquals(weights[expected[i]], tree.edgeValue(i), 0);
+      expectedWeight += weights[expected[i]];
+    }
+    assertEquals(expectedWeight, tree.totalWeight(), 1e-9);
+    assertEquals(Math.min(n, 1), tree.componentCount());
+  }
+
+  @Test
+  public void matchesKruskalsOnCompleteGraph2D() {
+    Random random = new Random(73);
+    double[] points = new double[2 * 700];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = random.nextDouble() * 1000;
+    }
+    assertMatchesCompleteGraph(points, 2);
+  }
+
+  @Test
+  public void matchesKruskalsOnCompleteGraph3D() {
+    Random random = new Random(79);
+    double[] points = new double[3 * 500];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = random.nextGaussian();
+    }
+    assertMatchesCompleteGraph(points, 3);
+  }
+
+  @Test
+  public void tiesAndDuplicatePoints() {
+    // A grid with lots of equal distances, plus some repeated points.
+    Random random = new Random(83);
+    double[] points = new double[2 * 400];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = random.nextInt(12);
+    }
+    assertMatchesCompleteGraph(points, 2);
+    assertMatchesCompleteGraph(new double[] { 1, 1, 1, 1, 1 }, 1);
+  }
+
+  @Test
+  public void smallInputs() {
+    assertEquals(0, MinimumSpanningTree.euclideanMinimumSpanningTree(new double[0], 2).edgeCount());
+    assertEquals(0, MinimumSpanningTree.euclideanMinimumSpanningTree(new double[] { 3, 4 }, 2).edgeCount());
+
+    SpanningForest<Integer, Double> tree =
+        MinimumSpanningTree.euclideanMinimumSpanningTree(new double[] { 0, 3, 10 }, new double[] { 0, 4, 0 });
+    assertEquals(2, tree.edgeCount());
+    assertEquals(5 + Math.sqrt(65), tree.totalWeight(), 1e-12);
+  }
+
+  @Test
+  public void invalidArguments() {
+    try {
+      MinimumSpanningTree.euclideanMinimumSpanningTree(new double[] { 1, 2, 3 }, 2);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      MinimumSpanningTree.euclideanMinimumSpanningTree(new double[] { 1, Double.NaN }, 2);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
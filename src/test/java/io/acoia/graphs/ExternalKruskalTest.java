@@ -0,0 +1,90 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExternalKruskalTest {
+  private Path directory;
+
+  @Before
+  public void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("acoia-mst");
+  }
+
+  @After
+  public void deleteDirectory() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Test
+  public void matchesKruskals() throws IOException {
+    Random random = new Random(61);
+    int n = 500;
+    int m = 5000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    double[] weights = new double[m];
+    Path edges = directory.resolve("graph.edges");
+    try (EdgeFileWriter writer = new EdgeFileWriter(edges, n)) {
+      for (int i = 0; i < m; i++) {
+        src[i] = random.nextInt(n);
+        dst[i] = random.nextInt(n);
+        weights[i] = random.nextInt(200) / 4.0;
+        writer.write(src[i], dst[i], weights[i]);
+      }
+    }
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+
+    // Small runs and a small fan in force several merge passes.
+    Path tree = directory.resolve("tree.edges");
+    assertEquals(expected.length, ExternalKruskal.kruskals(edges, tree, directory, 97, 4));
+    assertTree(tree, expected, src, dst, weights);
+
+    assertEquals(expected.length, MinimumSpanningTree.kruskals(edges, tree));
+    assertTree(tree, expected, src, dst, weights);
+
+    // Only the input and output should be left behind.
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  private static void assertTree(Path tree, int[] expected, int[] src, int[] dst, double[] weights) throws IOException {
+    try (EdgeFileReader reader = new EdgeFileReader(tree)) {
+      assertEquals(expected.length, reader.edgeCount());
+      for (int e : expected) {
+        assertTrue(reader.next());
+        assertEquals(src[e], reader.src());
+        assertEquals(dst[e], reader.dst());
+        assertEquals(weights[e], reader.weight(), 0);
+      }
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test
+  public void emptyGraph() throws IOException {
+    Path edges = directory.resolve("empty.edges");
+    new EdgeFileWriter(edges, 3).close();
+    Path tree = directory.resolve("tree.edges");
+    assertEquals(0, MinimumSpanningTree.kruskals(edges, tree));
+    try (EdgeFileReader reader = new EdgeFileReader(tree)) {
+      assertEquals(3, reader.nodeCount());
+      assertFalse(reader.next());
+    }
+  }
+}
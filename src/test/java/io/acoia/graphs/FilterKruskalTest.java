@@ -0,0 +1,67 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FilterKruskalTest {
+
+  @Test
+  public void matchesKruskalsOnDenseGraph() {
+    Random random = new Random(23);
+    int n = 600;
+    int m = 200000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] weights = new long[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      // Plenty of ties, so the tie-breaking has to match too.
+      weights[i] = random.nextInt(5000);
+    }
+
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+    assertEquals(n - 1, expected.length);
+    assertArrayEquals(expected, MinimumSpanningTree.filterKruskals(n, src, dst, weights));
+  }
+
+  @Test
+  public void matchesKruskalsOnForest() {
+    Random random = new Random(29);
+    int n = 5000;
+    int m = 6000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    double[] weights = new double[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      weights[i] = random.nextGaussian();
+    }
+
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+    assertTrue(expected.length < n - 1);
+    long[] keys = EdgeSort.sortableKeys(weights);
+    // Force plenty of levels of partitioning.
+    assertArrayEquals(expected, FilterKruskal.filterKruskals(n, src, dst, keys, 16));
+    assertArrayEquals(expected, MinimumSpanningTree.filterKruskals(n, src, dst, weights));
+  }
+
+  @Test
+  public void allEqualWeights() {
+    int n = 100;
+    int m = 10000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] keys = new long[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = i % n;
+      dst[i] = (i * 7 + 3) % n;
+    }
+    assertArrayEquals(MinimumSpanningTree.kruskals(n, src, dst, keys),
+        FilterKruskal.filterKruskals(n, src, dst, keys, 8));
+  }
+}
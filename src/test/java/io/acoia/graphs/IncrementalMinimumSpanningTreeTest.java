@@ -0,0 +1,124 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IncrementalMinimumSpanningTreeTest {
+
+  @Test
+  public void matchesKruskalsAfterEveryBatch() {
+    Random random = new Random(61);
+    int n = 300;
+    int m = 6000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    double[] weights = new double[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      weights[i] = random.nextInt(200) * 0.5;
+    }
+
+    IncrementalMinimumSpanningTree mst = new IncrementalMinimumSpanningTree(n);
+    for (int end = 100; end <= m; end += 100) {
+      int start = end - 100;
+      mst.addEdges(Arrays.copyOfRange(src, start, end), Arrays.copyOfRange(dst, start, end),
+          Arrays.copyOfRange(weights, start, end));
+
+      int[] prefixSrc = Arrays.copyOf(src, end);
+      int[] prefixDst = Arrays.copyOf(dst, end);
+      double[] prefixWeights = Arrays.copyOf(weights, end);
+      int[] expected = MinimumSpanningTree.kruskals(n, prefixSrc, prefixDst, prefixWeights);
+
+      Set<String> expectedEdges = new HashSet<>();
+      double expectedWeight = 0;
+      for (int e : expected) {
+        expectedEdges.add(src[e] + "-" + dst[e] + ":" + weights[e]);
+        expectedWeight += weights[e];
+      }
+      Set<String> actualEdges = new HashSet<>();
+      mst.forEachEdge((u, v, w) -> actualEdges.add(u + "-" + v + ":" + w));
+
+      assertEquals(expectedEdges, actualEdges);
+      assertEquals(expected.length, mst.edgeCount());
+      assertEquals(n - expected.length, mst.componentCount());
+      assertEquals(expectedWeight, mst.totalWeight(), 1e-6);
+    }
+  }
+
+  @Test
+  public void replacesHeaviestEdgeOnCycle() {
+    IncrementalMinimumSpanningTree mst = new IncrementalMinimumSpanningTree(4);
+    assertTrue(mst.addEdge(0, 1, 5));
+    assertTrue(mst.addEdge(1, 2, 9));
+    assertTrue(mst.addEdge(2, 3, 1));
+    assertEquals(15, mst.totalWeight(), 0);
+    assertEquals(1, mst.componentCount());
+
+    // Heavier than everything on the path 0 - 3, so it's not taken.
+    assertFalse(mst.addEdge(0, 3, 10));
+    // Equal to the heaviest edge on the path, which was added first, so it's not taken either.
+    assertFalse(mst.addEdge(0, 2, 9));
+    // Lighter than 1 - 2, which it replaces.
+    assertTrue(mst.addEdge(3, 0, 2));
+    assertEquals(8, mst.totalWeight(), 0);
+    assertEquals(3, mst.edgeCount());
+
+    Set<String> edges = new HashSet<>();
+    mst.forEachEdge((u, v, w) -> edges.add(u + "-" + v));
+    assertEquals(new HashSet<>(Arrays.asList("0-1", "2-3", "3-0")), edges);
+  }
+
+  @Test
+  public void signedZeros() {
+    // -0.0 is lighter than 0.0 to Double.compare(), so as with kruskals() it replaces the 0.0 edge.
+    assertArrayEquals(new int[] { 1 },
+        MinimumSpanningTree.kruskals(2, new int[] { 0, 1 }, new int[] { 1, 0 }, new double[] { 0.0, -0.0 }));
+    IncrementalMinimumSpanningTree mst = new IncrementalMinimumSpanningTree(2);
+    assertTrue(mst.addEdge(0, 1, 0.0));
+    assertTrue(mst.addEdge(1, 0, -0.0));
+    assertFalse(mst.addEdge(0, 1, 0.0));
+    assertEquals(1, mst.edgeCount());
+    mst.forEachEdge((u, v, w) -> assertEquals(Double.valueOf(-0.0), Double.valueOf(w)));
+  }
+
+  @Test
+  public void connectivity() {
+    IncrementalMinimumSpanningTree mst = new IncrementalMinimumSpanningTree(5);
+    assertFalse(mst.addEdge(2, 2, 1));
+    assertEquals(5, mst.componentCount());
+    mst.addEdge(0, 1, 1);
+    mst.addEdge(3, 4, 1);
+    assertTrue(mst.connected(1, 0));
+    assertFalse(mst.connected(1, 3));
+    mst.addEdge(4, 1, 1);
+    assertTrue(mst.connected(0, 3));
+    assertFalse(mst.connected(0, 2));
+    assertEquals(2, mst.componentCount());
+  }
+
+  @Test
+  public void invalidArguments() {
+    IncrementalMinimumSpanningTree mst = new IncrementalMinimumSpanningTree(3);
+    try {
+      mst.addEdge(0, 3, 1);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      mst.addEdge(0, 1, Double.NaN);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
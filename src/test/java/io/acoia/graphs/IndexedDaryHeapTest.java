@@ -0,0 +1,42 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedDaryHeapTest {
+
+  @Test
+  public void pollsInKeyOrder() {
+    Random random = new Random(47);
+    long[] keys = new long[2000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextInt(500);
+    }
+    EdgeOrder order = EdgeOrder.of(keys);
+
+    for (int arity = 2; arity <= 8; arity *= 2) {
+      IndexedDaryHeap heap = new IndexedDaryHeap(100, arity, order);
+      int[] best = new int[100];
+      for (int i = 0; i < keys.length; i++) {
+        int node = i % 100;
+        boolean lowered = i < 100 || order.compare(i, best[node]) < 0;
+        assertEquals(lowered, heap.offer(node, i));
+        if (lowered)
+          best[node] = i;
+      }
+
+      int previous = -1;
+      while (!heap.isEmpty()) {
+        int node = heap.poll();
+        assertFalse(heap.contains(node));
+        assertEquals(best[node], heap.key(node));
+        if (previous != -1)
+          assertTrue(order.compare(previous, best[node]) < 0);
+        previous = best[node];
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.acoia.sets.IntUnionFind;
+
+public class KruskalReconstructionTreeTest {
+
+  @Test
+  public void matchesKruskalsReplay() {
+    Random random = new Random(71);
+    int n = 400;
+    int m = 1200;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] weights = new long[m];
+    for (int i = 0; i < m; i++) {
+      // Leave the last few nodes out so the graph has several components.
+      src[i] = random.nextInt(n - 10);
+      dst[i] = random.nextInt(n - 10);
+      weights[i] = random.nextInt(100);
+    }
+    KruskalReconstructionTree krt = new KruskalReconstructionTree(n, src, dst, weights);
+    int[] tree = MinimumSpanningTree.kruskals(n, src, dst, weights);
+
+    int q = 2000;
+    int[] u = new int[q];
+    int[] v = new int[q];
+    long[] thresholds = new long[q];
+    for (int i = 0; i < q; i++) {
+      u[i] = random.nextInt(n);
+      v[i] = random.nextInt(n);
+      thresholds[i] = random.nextInt(110) - 5;
+    }
+    int[] bottlenecks = krt.bottleneckEdges(u, v);
+    boolean[] connected = krt.connected(u, v, thresholds);
+
+    for (int i = 0; i < q; i++) {
+      // The bottleneck is the forest edge whose union first connects u and v.
+      int expected = -1;
+      IntUnionFind uf = new IntUnionFind(n);
+      for (int e : tree) {
+        if (uf.sameSet(u[i], v[i]))
+          break;
+        uf.join(src[e], dst[e]);
+        expected = e;
+      }
+      if (!uf.sameSet(u[i], v[i]) || u[i] == v[i])
+        expected = -1;
+      assertEquals(expected, bottlenecks[i]);
+      assertEquals(expected, krt.bottleneckEdge(u[i], v[i]));
+      assertEquals(uf.sameSet(u[i], v[i]), krt.connected(u[i], v[i]));
+
+      IntUnionFind threshold = new IntUnionFind(n);
+      for (int e = 0; e < m; e++) {
+        if (weights[e] <= thresholds[i])
+          threshold.join(src[e], dst[e]);
+      }
+      assertEquals(threshold.sameSet(u[i], v[i]), connected[i]);
+      assertEquals(threshold.sameSet(u[i], v[i]), krt.connected(u[i], v[i], (double) thresholds[i]));
+    }
+  }
+
+  @Test
+  public void doubleWeights() {
+    // A path 0 - 1 - 2 - 3 plus a heavy shortcut, and an isolated node 4.
+    int[] src = { 0, 1, 2, 0 };
+    int[] dst = { 1, 2, 3, 3 };
+    double[] weights = { 0.5, 2.5, 1.0, 9.0 };
+    KruskalReconstructionTree krt = new KruskalReconstructionTree(5, src, dst, weights);
+
+    assertEquals(1, krt.bottleneckEdge(0, 3));
+    assertEquals(2, krt.bottleneckEdge(3, 2));
+    assertEquals(-1, krt.bottleneckEdge(2, 2));
+    assertEquals(-1, krt.bottleneckEdge(0, 4));
+    assertTrue(krt.connected(0, 3, 2.5));
+    assertFalse(krt.connected(0, 3, 2.4));
+    assertTrue(krt.connected(2, 3, 1.0));
+    assertTrue(krt.connected(4, 4, 0.0));
+    assertFalse(krt.connected(0, 4, 100.0));
+    assertArrayEquals(new boolean[] { true, false },
+        krt.connected(new int[] { 0, 1 }, new int[] { 1, 3 }, new double[] { 0.5, 0.9 }));
+  }
+
+  @Test
+  public void largeBatchInParallel() {
+    int n = 100000;
+    int[] src = new int[n - 1];
+    int[] dst = new int[n - 1];
+    long[] weights = new long[n - 1];
+    for (int i = 0; i < n - 1; i++) {
+      src[i] = i;
+      dst[i] = i + 1;
+      weights[i] = i % 1000;
+    }
+    KruskalReconstructionTree krt = new KruskalReconstructionTree(n, src, dst, weights);
+
+    int[] u = new int[n];
+    int[] v = new int[n];
+    for (int i = 0; i < n; i++) {
+      u[i] = 0;
+      v[i] = i;
+    }
+    int[] bottlenecks = krt.bottleneckEdges(u, v);
+    assertEquals(-1, bottlenecks[0]);
+    assertEquals(0, bottlenecks[1]);
+    assertEquals(999, bottlenecks[1000]);
+    // Equal weights are ordered by index, so the last heaviest edge is the bottleneck.
+    assertEquals(98999, bottlenecks[n - 1]);
+  }
+
+  @Test
+  public void invalidArguments() {
+    KruskalReconstructionTree krt = new KruskalReconstructionTree(2, new int[] { 0 }, new int[] { 1 }, new long[] { 1 });
+    try {
+      krt.bottleneckEdge(0, 2);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      krt.connected(new int[] { 0 }, new int[] { 1, 0 }, new long[] { 1 });
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class LazyKruskalTest {
+
+  @Test
+  public void matchesKruskalsOnEdgeList() {
+    Random random = new Random(53);
+    int n = 1000;
+    int m = 20000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    double[] weights = new double[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      weights[i] = random.nextInt(300) * 0.25;
+    }
+
+    int[] expected = MinimumSpanningTree.kruskals(n, src, dst, weights);
+    assertArrayEquals(expected, MinimumSpanningTree.lazyKruskals(n, src, dst, weights, 1));
+
+    // Stopping at k components gives a prefix of the full tree.
+    int[] clusters = MinimumSpanningTree.lazyKruskals(n, src, dst, weights, 10);
+    assertEquals(n - 10, clusters.length);
+    assertArrayEquals(Arrays.copyOf(expected, n - 10), clusters);
+  }
+
+  @Test
+  public void disconnectedGraph() {
+    int[] src = { 0, 2, 0, 3 };
+    int[] dst = { 1, 3, 1, 4 };
+    long[] weights = { 7, 1, 2, 9 };
+    // Two components, so the forest is complete after three edges whatever k is.
+    assertArrayEquals(new int[] { 1, 2, 3 }, MinimumSpanningTree.lazyKruskals(6, src, dst, weights, 1));
+    assertArrayEquals(new int[] { 1, 2, 3 }, MinimumSpanningTree.lazyKruskals(6, src, dst, weights, 3));
+    assertArrayEquals(new int[] { 1, 2 }, MinimumSpanningTree.lazyKruskals(6, src, dst, weights, 4));
+    assertArrayEquals(new int[0], MinimumSpanningTree.lazyKruskals(6, src, dst, weights, 100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidComponentCount() {
+    MinimumSpanningTree.lazyKruskals(2, new int[] { 0 }, new int[] { 1 }, new long[] { 1 }, 0);
+  }
+
+  @Test
+  public void matchesKruskalsOnValueGraph() {
+    Random random = new Random(59);
+    MutableValueGraph<Integer, Long> graph = ValueGraphBuilder.undirected().allowsSelfLoops(true).build();
+    for (int i = 0; i < 500; i++) {
+      graph.putEdgeValue(random.nextInt(300), random.nextInt(300), (long) random.nextInt(40));
+    }
+
+    ValueGraph<Integer, Long> expected = MinimumSpanningTree.kruskals(graph);
+    BoruvkaTest.assertSameTree(expected, MinimumSpanningTree.lazyKruskals(graph));
+
+    ValueGraph<Integer, Long> clusters = MinimumSpanningTree.lazyKruskals(graph, 50);
+    assertEquals(graph.nodes(), clusters.nodes());
+    assertTrue(clusters.edges().size() <= graph.nodes().size() - 50);
+  }
+}
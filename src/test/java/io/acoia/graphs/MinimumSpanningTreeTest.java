@@ -2,10 +2,15 @@ package io.acoia.graphs;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import org.junit.Test;
 
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.ValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
@@ -92,4 +97,107 @@ public class MinimumSpanningTreeTest {
     assertEquals(4, (int) tree.edgeValue(5, 7));
   }
 
+  @Test
+  public void kruskalsEdgeList() {
+    // The same graph as kruskals2, with nodes numbered from 0.
+    int[] src =        { 0, 0,  1, 1,  1, 2,  2,  3,  3,  3, 4,  5 };
+    int[] dst =        { 1, 2,  2, 3,  4, 3,  5,  4,  5,  6, 6,  6 };
+    long[] weights =   { 8, 5, 10, 2, 18, 3, 16, 12, 30, 14, 4, 26 };
+
+    int[] tree = MinimumSpanningTree.kruskals(7, src, dst, weights);
+    assertArrayEquals(new int[] { 3, 5, 10, 1, 7, 6 }, tree);
+
+    double[] doubleWeights = LongStream.of(weights).mapToDouble(w -> w - 10.5).toArray();
+    assertArrayEquals(tree, MinimumSpanningTree.kruskals(7, src, dst, doubleWeights));
+  }
+
+  @Test
+  public void kruskalsEdgeListForest() {
+    int[] src = { 0, 1, 3, 2 };
+    int[] dst = { 1, 0, 4, 2 };
+    long[] weights = { 5, 5, -1, 0 };
+    // Equal weights are taken in index order, and self loops are never chosen.
+    assertArrayEquals(new int[] { 2, 0 }, MinimumSpanningTree.kruskals(5, src, dst, weights));
+    assertArrayEquals(new int[0], MinimumSpanningTree.kruskals(1, new int[0], new int[0], new long[0]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void kruskalsEdgeListMismatchedLengths() {
+    MinimumSpanningTree.kruskals(3, new int[] { 0, 1 }, new int[] { 1, 2 }, new long[] { 1 });
+  }
+
+  @Test
+  public void kruskalsEdgeListMatchesValueGraph() {
+    Random random = new Random(7);
+    int n = 200;
+    int m = 2000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] weights = new long[m];
+    MutableValueGraph<Integer, Long> graph = ValueGraphBuilder.undirected().allowsSelfLoops(true).build();
+    for (int i = 0; i < n; i++) {
+      graph.addNode(i);
+    }
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      // Distinct weights so the tree is unique.
+      weights[i] = (long) random.nextInt(1 << 20) * m + i - (1L << 30);
+      if (graph.edgeValueOrDefault(src[i], dst[i], null) == null)
+        graph.putEdgeValue(src[i], dst[i], weights[i]);
+      else
+        weights[i] = Long.MAX_VALUE;
+    }
+
+    ValueGraph<Integer, Long> expected = MinimumSpanningTree.kruskals(graph);
+    int[] tree = MinimumSpanningTree.kruskals(n, src, dst, weights);
+    assertEquals(expected.edges().size(), tree.length);
+    for (int e : tree) {
+      assertEquals(weights[e], (long) expected.edgeValue(src[e], dst[e]));
+    }
+  }
+
+  @Test
+  public void kruskalsStatistics() {
+    List<KruskalStatistics> runs = new ArrayList<>();
+    // The forest is complete after the fourth lightest edge, so the heaviest is never examined.
+    int[] src = { 0, 1, 2, 0, 1 };
+    int[] dst = { 1, 2, 0, 3, 3 };
+    MinimumSpanningTree.kruskals(4, src, dst, new long[] { 1, 2, 3, 10, 20 }, runs::add);
+    MinimumSpanningTree.kruskals(4, src, dst, new double[] { 1, 2, 3, 10, 20 }, runs::add);
+
+    MutableValueGraph<Integer, Integer> graph = ValueGraphBuilder.undirected().build();
+    for (int i = 0; i < src.length; i++) {
+      graph.putEdgeValue(src[i], dst[i], i);
+    }
+    MinimumSpanningTree.kruskals(graph, runs::add);
+
+    assertEquals(3, runs.size());
+    for (int i = 0; i < 2; i++) {
+      KruskalStatistics run = runs.get(i);
+      assertEquals(4, run.nodeCount());
+      assertEquals(5, run.edgeCount());
+      assertEquals(4, run.edgesExamined());
+      assertEquals(3, run.edgesAccepted());
+      assertTrue(run.sortNanos() >= 0);
+      assertTrue(run.unionNanos() >= 0);
+    }
+    KruskalStatistics run = runs.get(2);
+    assertEquals(4, run.nodeCount());
+    assertEquals(5, run.edgeCount());
+    assertEquals(5, run.edgesExamined());
+    assertEquals(3, run.edgesAccepted());
+    run.record();
+
+    // Presorted edges aren't timed sorting, and runs without a consumer report nothing.
+    List<EndpointPair<Integer>> sorted = new ArrayList<>(graph.edges());
+    sorted.sort((e1, e2) -> graph.edgeValue(e1.nodeU(), e1.nodeV())
+        .compareTo(graph.edgeValue(e2.nodeU(), e2.nodeV())));
+    MinimumSpanningTree.kruskals(graph, sorted, runs::add);
+    assertEquals(4, runs.size());
+    assertEquals(0, runs.get(3).sortNanos());
+    MinimumSpanningTree.kruskals(2, new int[] { 0 }, new int[] { 1 }, new long[] { 1 });
+    MinimumSpanningTree.kruskals(graph);
+    assertEquals(4, runs.size());
+  }
 }
@@ -0,0 +1,73 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+import io.acoia.graphs.MinimumSpanningTree.Algorithm;
+
+public class PrimTest {
+
+  @Test
+  public void matchesKruskalsOnEdgeList() {
+    Random random = new Random(41);
+    int n = 400;
+    int m = 30000;
+    int[] src = new int[m];
+    int[] dst = new int[m];
+    long[] weights = new long[m];
+    for (int i = 0; i < m; i++) {
+      src[i] = random.nextInt(n);
+      dst[i] = random.nextInt(n);
+      weights[i] = random.nextInt(1000);
+    }
+
+    assertArrayEquals(MinimumSpanningTree.kruskals(n, src, dst, weights), MinimumSpanningTree.prims(n, src, dst, weights));
+  }
+
+  @Test
+  public void forest() {
+    int[] src = { 0, 1, 4, 5, 5 };
+    int[] dst = { 1, 2, 5, 6, 4 };
+    double[] weights = { 1.5, 2.5, 0.5, -1, 0.5 };
+    assertArrayEquals(new int[] { 3, 2, 0, 1 }, MinimumSpanningTree.prims(7, src, dst, weights));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nodeOutOfRange() {
+    MinimumSpanningTree.prims(2, new int[] { 0 }, new int[] { 2 }, new long[] { 1 });
+  }
+
+  @Test
+  public void matchesKruskalsOnValueGraph() {
+    Random random = new Random(43);
+    MutableValueGraph<Integer, Integer> graph = ValueGraphBuilder.undirected().allowsSelfLoops(true).build();
+    for (int i = 0; i < 200; i++) {
+      graph.addNode(i);
+    }
+    for (int i = 0; i < 5000; i++) {
+      graph.putEdgeValue(random.nextInt(200), random.nextInt(200), random.nextInt(50));
+    }
+
+    ValueGraph<Integer, Integer> expected = MinimumSpanningTree.kruskals(graph);
+    BoruvkaTest.assertSameTree(expected, MinimumSpanningTree.prims(graph));
+    for (Algorithm algorithm : Algorithm.values()) {
+      BoruvkaTest.assertSameTree(expected, MinimumSpanningTree.minimumSpanningTree(graph, algorithm));
+    }
+  }
+
+  @Test
+  public void chooseAlgorithm() {
+    assertEquals(Algorithm.PRIM, MinimumSpanningTree.chooseAlgorithm(1000, 400000, 8));
+    assertEquals(Algorithm.BORUVKA, MinimumSpanningTree.chooseAlgorithm(1000000, 2000000, 8));
+    assertEquals(Algorithm.KRUSKAL, MinimumSpanningTree.chooseAlgorithm(1000000, 2000000, 1));
+    assertEquals(Algorithm.KRUSKAL, MinimumSpanningTree.chooseAlgorithm(1000, 3000, 8));
+    assertEquals(Algorithm.KRUSKAL, MinimumSpanningTree.chooseAlgorithm(0, 0, 8));
+  }
+}
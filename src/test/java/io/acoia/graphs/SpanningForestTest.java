@@ -0,0 +1,107 @@
+package io.acoia.graphs;
+
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class SpanningForestTest {
+
+  @Test
+  public void edgeList() {
+    int[] src = { 0, 2, 0, 3, 1 };
+    int[] dst = { 1, 3, 1, 4, 0 };
+    long[] weights = { 7, 1, 2, 9, 1 };
+    SpanningForest<Integer, Long> forest = MinimumSpanningTree.minimumSpanningForest(6, src, dst, weights);
+
+    assertArrayEquals(new int[] { 1, 4, 3 }, forest.edgeIndices());
+    assertEquals(3, forest.edgeCount());
+    assertEquals(11, forest.totalWeight(), 0);
+    assertEquals(Integer.valueOf(1), forest.nodeU(1));
+    assertEquals(Integer.valueOf(0), forest.nodeV(1));
+    assertEquals(Long.valueOf(1), forest.edgeValue(1));
+
+    // Trees {0, 1}, {2, 3, 4} and {5}, numbered in order of their first node.
+    assertEquals(3, forest.componentCount());
+    assertArrayEquals(new int[] { 0, 0, 1, 1, 1, 2 }, forest.componentIds());
+    assertEquals(1, forest.componentId(4));
+    try {
+      forest.componentId(6);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+
+    ValueGraph<Integer, Long> graph = forest.asGraph();
+    assertEquals(6, graph.nodes().size());
+    assertEquals(3, graph.edges().size());
+    assertSame(graph, forest.asGraph());
+  }
+
+  @Test
+  public void matchesKruskalsOnValueGraph() {
+    Random random = new Random(67);
+    MutableValueGraph<String, Integer> graph = ValueGraphBuilder.undirected().allowsSelfLoops(true).build();
+    for (int i = 0; i < 2000; i++) {
+      graph.putEdgeValue("n" + random.nextInt(400), "n" + random.nextInt(400), random.nextInt(50));
+    }
+    graph.addNode("isolated");
+
+    ValueGraph<String, Integer> expected = MinimumSpanningTree.kruskals(graph);
+    SpanningForest<String, Integer> forest = MinimumSpanningTree.minimumSpanningForest(graph);
+    BoruvkaTest.assertSameTree(expected, forest.asGraph());
+
+    long expectedWeight = 0;
+    for (int i = 0; i < forest.edgeCount(); i++) {
+      assertEquals(expected.edgeValueOrDefault(forest.nodeU(i), forest.nodeV(i), null), forest.edgeValue(i));
+      expectedWeight += forest.edgeValue(i);
+    }
+    assertEquals(expected.edges().size(), forest.edgeCount());
+    assertEquals(expectedWeight, forest.totalWeight(), 0);
+    assertEquals(graph.nodes().size() - forest.edgeCount(), forest.componentCount());
+
+    for (String u : expected.nodes()) {
+      for (String v : expected.adjacentNodes(u)) {
+        assertEquals(forest.componentId(u), forest.componentId(v));
+      }
+    }
+    assertNotEquals(forest.componentId("isolated"), forest.componentId(forest.nodeU(0)));
+  }
+
+  @Test
+  public void weightFunction() {
+    MutableValueGraph<Integer, String> graph = ValueGraphBuilder.undirected().build();
+    graph.putEdgeValue(0, 1, "b");
+    graph.putEdgeValue(1, 2, "a");
+    graph.putEdgeValue(0, 2, "c");
+    SpanningForest<Integer, String> forest = MinimumSpanningTree.minimumSpanningForest(graph, s -> s.charAt(0) - 'a');
+    assertEquals(1, forest.totalWeight(), 0);
+    assertEquals("a", forest.edgeValue(0));
+    assertEquals("b", forest.edgeValue(1));
+  }
+
+  @Test
+  public void doesNotRetainGraph() throws InterruptedException {
+    MutableValueGraph<Integer, Integer> graph = ValueGraphBuilder.undirected().build();
+    for (int i = 0; i < 100; i++) {
+      graph.putEdgeValue(i, i + 1, i);
+    }
+    SpanningForest<Integer, Integer> forest = MinimumSpanningTree.minimumSpanningForest(graph);
+    WeakReference<ValueGraph<Integer, Integer>> reference = new WeakReference<>(graph);
+    graph = null;
+
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(reference.get());
+    assertEquals(0, forest.componentId(100));
+  }
+}
@@ -0,0 +1,30 @@
+package io.acoia.jfr;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class JfrEventTypeTest {
+
+  @Test
+  public void testCommit() {
+    JfrEventType type = new JfrEventType("io.acoia.Test", "Test", "A test event")
+        .field("count", "Count")
+        .timespan("time", "Time");
+    // Nothing is recording, so the event is disabled whether or not this JVM has JFR.
+    assertFalse(type.isEnabled());
+    type.commit(1, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongValueCount() {
+    new JfrEventType("io.acoia.Test", "Test", "A test event").field("count", "Count").commit(1, 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFieldAfterCommit() {
+    JfrEventType type = new JfrEventType("io.acoia.Test", "Test", "A test event").field("count", "Count");
+    type.commit(1);
+    type.field("late", "Late");
+  }
+}
@@ -0,0 +1,93 @@
+package io.acoia.numbers;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchGCDTest {
+  private Path directory;
+
+  @Before
+  public void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("acoia-gcd");
+  }
+
+  @After
+  public void deleteDirectory() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  // Moduli that are products of two primes, some of which are shared.
+  private static BigInteger[] moduli(int n, Random random) {
+    BigInteger[] primes = new BigInteger[n * 2 - n / 8];
+    for (int i = 0; i < primes.length; i++) {
+      primes[i] = BigInteger.probablePrime(64, random);
+    }
+    BigInteger[] moduli = new BigInteger[n];
+    for (int i = 0; i < n; i++) {
+      moduli[i] = primes[random.nextInt(primes.length)].multiply(primes[random.nextInt(primes.length)]);
+    }
+    return moduli;
+  }
+
+  private static BigInteger[] pairwise(BigInteger[] x) {
+    BigInteger[] expected = new BigInteger[x.length];
+    for (int i = 0; i < x.length; i++) {
+      BigInteger product = BigInteger.ONE;
+      for (int j = 0; j < x.length; j++) {
+        if (j != i)
+          product = product.multiply(x[j]);
+      }
+      expected[i] = product.gcd(x[i]);
+    }
+    return expected;
+  }
+
+  @Test
+  public void matchesPairwiseGcd() {
+    Random random = new Random(109);
+    for (int n : new int[] { 1, 2, 3, 7, 64, 301 }) {
+      BigInteger[] x = moduli(n, random);
+      assertArrayEquals(pairwise(x), BatchGCD.gcds(x));
+    }
+  }
+
+  @Test
+  public void spillsToDisk() throws IOException {
+    Random random = new Random(113);
+    BigInteger[] x = moduli(200, random);
+    assertArrayEquals(pairwise(x), BatchGCD.gcds(x, directory));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  public void smallNumbers() {
+    BigInteger[] x = { BigInteger.valueOf(15), BigInteger.valueOf(7), BigInteger.valueOf(21), BigInteger.ONE,
+        BigInteger.valueOf(15) };
+    BigInteger[] expected = { BigInteger.valueOf(15), BigInteger.valueOf(7), BigInteger.valueOf(21), BigInteger.ONE,
+        BigInteger.valueOf(15) };
+    assertArrayEquals(expected, BatchGCD.gcds(x));
+    assertEquals(0, BatchGCD.gcds(new BigInteger[0]).length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveInput() {
+    BatchGCD.gcds(new BigInteger[] { BigInteger.TEN, BigInteger.ZERO });
+  }
+}
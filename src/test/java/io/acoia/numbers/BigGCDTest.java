@@ -0,0 +1,135 @@
+package io.acoia.numbers;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BigGCDTest {
+  private static BigInteger fibonacci(int n) {
+    BigInteger a = BigInteger.ZERO;
+    BigInteger b = BigInteger.ONE;
+    for (int i = 0; i < n; i++) {
+      BigInteger next = a.add(b);
+      a = b;
+      b = next;
+    }
+    return a;
+  }
+
+  @Test
+  public void testSmall() {
+    BigGCD gcd = new BigGCD();
+    assertEquals(BigInteger.ZERO, gcd.gcd(BigInteger.ZERO, BigInteger.ZERO));
+    assertEquals(BigInteger.valueOf(7), gcd.gcd(BigInteger.ZERO, BigInteger.valueOf(-7)));
+    assertEquals(BigInteger.valueOf(7), gcd.gcd(BigInteger.valueOf(7), BigInteger.ZERO));
+    assertEquals(BigInteger.valueOf(6), gcd.gcd(BigInteger.valueOf(-12), BigInteger.valueOf(18)));
+    assertEquals(BigInteger.ONE, gcd.gcd(BigInteger.valueOf(17), BigInteger.valueOf(5)));
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(1);
+    BigGCD gcd = new BigGCD();
+    for (int bits : new int[] { 1, 31, 32, 33, 63, 64, 65, 95, 96, 127, 128, 200, 500, 1000, 3000, 10000 }) {
+      for (int i = 0; i < 50; i++) {
+        BigInteger common = new BigInteger(1 + random.nextInt(bits), random);
+        BigInteger a = new BigInteger(bits, random).multiply(common);
+        BigInteger b = new BigInteger(1 + random.nextInt(bits), random).multiply(common);
+        assertEquals(a + ", " + b, a.gcd(b), gcd.gcd(a, b));
+        assertEquals(a.gcd(b), gcd.gcd(b.negate(), a));
+      }
+    }
+  }
+
+  @Test
+  public void testLimbBoundaries() {
+    // All-ones limbs and powers of two exercise the leading bit extraction and the normalisation in
+    // the remainder step.
+    BigGCD gcd = new BigGCD();
+    for (int i = 60; i < 200; i += 7) {
+      for (int j = 1; j < i; j += 11) {
+        BigInteger a = BigInteger.ONE.shiftLeft(i).subtract(BigInteger.ONE);
+        BigInteger b = BigInteger.ONE.shiftLeft(j).subtract(BigInteger.ONE);
+        BigInteger c = BigInteger.ONE.shiftLeft(i).add(BigInteger.ONE.shiftLeft(j));
+        assertEquals(a.gcd(b), gcd.gcd(a, b));
+        assertEquals(a.gcd(c), gcd.gcd(a, c));
+        assertEquals(c.gcd(b), gcd.gcd(c, b));
+        assertEquals(c.gcd(BigInteger.ONE.shiftLeft(j)), gcd.gcd(c, BigInteger.ONE.shiftLeft(j)));
+      }
+    }
+  }
+
+  @Test
+  public void testFibonacci() {
+    // Consecutive Fibonacci numbers take the most Euclidean steps for their size.
+    BigGCD gcd = new BigGCD();
+    assertEquals(BigInteger.ONE, gcd.gcd(fibonacci(5001), fibonacci(5000)));
+    assertEquals(fibonacci(20), gcd.gcd(fibonacci(3000), fibonacci(2020)));
+  }
+
+  @Test
+  public void testHalfGcd() {
+    Random random = new Random(2);
+    BigGCD gcd = new BigGCD(1000);
+    for (int bits : new int[] { 2000, 5000, 20000, 70000 }) {
+      for (int i = 0; i < 5; i++) {
+        BigInteger common = new BigInteger(1 + random.nextInt(bits / 2), random);
+        BigInteger a = new BigInteger(bits, random).multiply(common);
+        BigInteger b = new BigInteger(bits - random.nextInt(100), random).multiply(common);
+        assertEquals(a.gcd(b), gcd.gcd(a, b));
+      }
+    }
+    assertEquals(BigInteger.ONE, gcd.gcd(fibonacci(30001), fibonacci(30000)));
+    assertEquals(fibonacci(300), gcd.gcd(fibonacci(30000), fibonacci(20100)));
+
+    BigInteger a = new BigInteger(100000, random);
+    BigInteger b = new BigInteger(100000, random);
+    assertEquals(a.gcd(b), new BigGCD().gcd(a, b));
+  }
+
+  @Test
+  public void testMagnitudes() {
+    BigGCD gcd = new BigGCD();
+    int[] a = { 0, 0, 6, 0 };
+    int[] b = { 0, 0, 9 };
+    assertArrayEquals(new int[] { 0, 0, 3 }, gcd.gcd(a, b));
+    assertArrayEquals(new int[0], gcd.gcd(new int[] { 0 }, new int[0]));
+
+    // Lengths limit the limbs used, and the result may overwrite an input.
+    int[] c = { 12, -1, -1 };
+    int[] d = { 18, 5 };
+    assertEquals(1, gcd.gcd(c, 1, d, 1, c));
+    assertEquals(6, c[0]);
+    assertEquals(-1, c[1]);
+  }
+
+  @Test
+  public void testReuse() {
+    // Scratch buffers grown for a big gcd still give the right answers for small ones, and vice versa.
+    Random random = new Random(3);
+    BigGCD gcd = new BigGCD();
+    for (int i = 0; i < 200; i++) {
+      int bits = i % 2 == 0 ? 5000 : 70;
+      BigInteger a = new BigInteger(bits, random);
+      BigInteger b = new BigInteger(bits, random);
+      assertEquals(a.gcd(b), gcd.gcd(a, b));
+    }
+  }
+
+  @Test
+  public void testConversions() {
+    Random random = new Random(4);
+    for (int i = 0; i < 100; i++) {
+      BigInteger n = new BigInteger(random.nextInt(300), random);
+      int[] magnitude = BigGCD.magnitude(n);
+      assertEquals((n.bitLength() + 31) / 32, magnitude.length);
+      assertEquals(n, BigGCD.toBigInteger(magnitude, magnitude.length));
+      assertArrayEquals(magnitude, BigGCD.magnitude(n.negate()));
+    }
+    assertArrayEquals(new int[] { 0, 1 }, BigGCD.magnitude(BigInteger.ONE.shiftLeft(32)));
+    assertArrayEquals(new int[] { -1 }, BigGCD.magnitude(BigInteger.valueOf(0xffffffffL)));
+  }
+}
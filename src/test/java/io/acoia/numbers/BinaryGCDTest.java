@@ -0,0 +1,70 @@
+package io.acoia.numbers;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BinaryGCDTest {
+
+  @Test
+  public void matchesBigInteger() {
+    Random random = new Random(101);
+    for (int i = 0; i < 100000; i++) {
+      long a = random.nextLong() >> random.nextInt(64);
+      long b = random.nextLong() >> random.nextInt(64);
+      // Share some factors now and then.
+      if (i % 3 == 0) {
+        long factor = random.nextInt(1 << 20);
+        a *= factor;
+        b *= factor;
+      }
+      long expected = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+      if (expected < 0)
+        continue;
+      assertEquals(expected, BinaryGCD.gcd(a, b));
+      assertEquals(expected, EuclidsGCD.gcd(a, b));
+
+      int x = (int) a;
+      int y = (int) b;
+      int expectedInt = BigInteger.valueOf(x).gcd(BigInteger.valueOf(y)).intValue();
+      if (expectedInt >= 0)
+        assertEquals(expectedInt, BinaryGCD.gcd(x, y));
+    }
+  }
+
+  @Test
+  public void edgeCases() {
+    assertEquals(0, BinaryGCD.gcd(0L, 0L));
+    assertEquals(5, BinaryGCD.gcd(0L, -5L));
+    assertEquals(Long.MAX_VALUE, BinaryGCD.gcd(Long.MAX_VALUE, Long.MIN_VALUE - 1));
+    assertEquals(1, BinaryGCD.gcd(Long.MIN_VALUE, Long.MAX_VALUE));
+    assertEquals(1L << 62, BinaryGCD.gcd(Long.MIN_VALUE, 3L << 62));
+    assertEquals(1 << 30, BinaryGCD.gcd(Integer.MIN_VALUE, 1 << 30));
+    assertEquals(7, BinaryGCD.gcd(-14, 21));
+    try {
+      BinaryGCD.gcd(Long.MIN_VALUE, 0L);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+    try {
+      BinaryGCD.gcd(Long.MIN_VALUE, Long.MIN_VALUE);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+    try {
+      BinaryGCD.gcd(Integer.MIN_VALUE, 0);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+  }
+
+}
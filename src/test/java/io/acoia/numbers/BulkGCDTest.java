@@ -0,0 +1,109 @@
+package io.acoia.numbers;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BulkGCDTest {
+
+  @Test
+  public void gcd() {
+    assertEquals(0, BulkGCD.gcd(new long[0]));
+    assertEquals(0, BulkGCD.gcd(new long[] { 0, 0 }));
+    assertEquals(6, BulkGCD.gcd(new long[] { 12, -18, 0, 30 }));
+    assertEquals(3, BulkGCD.gcd(new long[] { 12, -18, 0, 30, 9 }));
+    assertEquals(4, BulkGCD.gcd(new long[] { 7, 12, 16, 20, 3 }, 1, 4));
+    // The running gcd passes through 2^63 without overflowing.
+    assertEquals(1L << 62, BulkGCD.gcd(new long[] { 0, Long.MIN_VALUE, 1L << 62 }));
+    try {
+      BulkGCD.gcd(new long[] { Long.MIN_VALUE, 0 });
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+    try {
+      BulkGCD.gcd(new long[] { 1, 2 }, 1, 3);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void largeGcd() {
+    Random random = new Random(103);
+    int n = 1_000_000;
+    long[] values = new long[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = 25L * (random.nextInt(1 << 30) | 1) * 4 * 3;
+    }
+    long expected = 0;
+    for (long value : values) {
+      expected = EuclidsGCD.gcd(expected, value);
+    }
+    assertEquals(expected, BulkGCD.gcd(values));
+    assertEquals(EuclidsGCD.gcd(values[10], values[11]), BulkGCD.gcd(values, 10, 12));
+
+    // Reaching 1 in one part gives 1 overall.
+    values[n - 1] = 7;
+    assertEquals(1, BulkGCD.gcd(values));
+  }
+
+  @Test
+  public void lcm() {
+    assertEquals(1, BulkGCD.lcm(new long[0]));
+    assertEquals(60, BulkGCD.lcm(new long[] { 4, -6, 10, 15 }));
+    assertEquals(0, BulkGCD.lcm(new long[] { Long.MAX_VALUE, Long.MAX_VALUE - 1, 0 }));
+    try {
+      BulkGCD.lcm(new long[] { Long.MAX_VALUE, Long.MAX_VALUE - 1 });
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+
+    long[] values = new long[300_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1L << (i % 40);
+    }
+    values[values.length - 1] = 3;
+    assertEquals(3L << 39, BulkGCD.lcm(values));
+  }
+
+  @Test
+  public void pairwiseGcd() {
+    Random random = new Random(107);
+    int n = 200_000;
+    long[] a = new long[n];
+    long[] b = new long[n];
+    for (int i = 0; i < n; i++) {
+      a[i] = random.nextLong() >> random.nextInt(64);
+      b[i] = random.nextLong() >> random.nextInt(64);
+    }
+    a[0] = Long.MIN_VALUE;
+    b[0] = 1L << 40;
+    long[] out = new long[n];
+    BulkGCD.gcd(a, b, out);
+    for (int i = 0; i < n; i++) {
+      assertEquals(EuclidsGCD.gcd(a[i], b[i]), out[i]);
+    }
+
+    long[] copy = Arrays.copyOf(a, n);
+    BulkGCD.gcd(copy, b, copy);
+    assertArrayEquals(out, copy);
+
+    try {
+      BulkGCD.gcd(a, b, new long[1]);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+}
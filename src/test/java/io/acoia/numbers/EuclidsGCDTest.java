@@ -2,6 +2,9 @@ package io.acoia.numbers;
 
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class EuclidsGCDTest {
@@ -14,4 +17,102 @@ public class EuclidsGCDTest {
     assertEquals(Long.MAX_VALUE, EuclidsGCD.gcd(Long.MAX_VALUE, Long.MIN_VALUE-1));
   }
 
+  @Test
+  public void minValue() {
+    assertEquals(1L << 62, EuclidsGCD.gcd(Long.MIN_VALUE, 1L << 62));
+    assertEquals(1L << 62, EuclidsGCD.gcd(-(1L << 62), Long.MIN_VALUE));
+    assertEquals(1, EuclidsGCD.gcd(Long.MIN_VALUE, Long.MAX_VALUE));
+    assertEquals(0, EuclidsGCD.gcd(0, 0));
+    try {
+      EuclidsGCD.gcd(Long.MIN_VALUE, 0);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void extendedGcd() {
+    Random random = new Random(89);
+    long[] edges = { 0, 1, -1, 2, Long.MAX_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE, 1L << 62, 3 };
+    for (int i = 0; i < 10000; i++) {
+      long a = i < 81 ? edges[i % 9] : random.nextLong() >> random.nextInt(64);
+      long b = i < 81 ? edges[i / 9] : random.nextLong() >> random.nextInt(64);
+      if (a == Long.MIN_VALUE && (b == 0 || b == Long.MIN_VALUE) || b == Long.MIN_VALUE && a == 0)
+        continue;
+
+      long[] egcd = EuclidsGCD.extendedGcd(a, b);
+      BigInteger bigA = BigInteger.valueOf(a);
+      BigInteger bigB = BigInteger.valueOf(b);
+      assertEquals(bigA.gcd(bigB).longValue(), egcd[0]);
+      assertEquals(BigInteger.valueOf(egcd[0]),
+          bigA.multiply(BigInteger.valueOf(egcd[1])).add(bigB.multiply(BigInteger.valueOf(egcd[2]))));
+    }
+
+    try {
+      EuclidsGCD.extendedGcd(Long.MIN_VALUE, Long.MIN_VALUE);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void modInverse() {
+    assertEquals(4, EuclidsGCD.modInverse(3, 11));
+    assertEquals(7, EuclidsGCD.modInverse(-3, 11));
+    assertEquals(0, EuclidsGCD.modInverse(5, 1));
+
+    Random random = new Random(97);
+    for (int i = 0; i < 1000; i++) {
+      long m = random.nextLong() >>> 1;
+      long a = random.nextLong();
+      BigInteger bigM = BigInteger.valueOf(m);
+      BigInteger bigA = BigInteger.valueOf(a);
+      if (!bigA.gcd(bigM).equals(BigInteger.ONE))
+        continue;
+      assertEquals(bigA.modInverse(bigM).longValue(), EuclidsGCD.modInverse(a, m));
+    }
+
+    try {
+      EuclidsGCD.modInverse(6, 9);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+    try {
+      EuclidsGCD.modInverse(2, 0);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void lcm() {
+    assertEquals(12, EuclidsGCD.lcm(4, 6));
+    assertEquals(12, EuclidsGCD.lcm(-4, 6));
+    assertEquals(0, EuclidsGCD.lcm(0, 6));
+    assertEquals(Long.MAX_VALUE, EuclidsGCD.lcm(Long.MAX_VALUE, -Long.MAX_VALUE));
+    assertEquals(1L << 62, EuclidsGCD.lcm(1L << 62, 1L << 40));
+    try {
+      EuclidsGCD.lcm(Long.MIN_VALUE, 1);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+    try {
+      EuclidsGCD.lcm(Long.MAX_VALUE, Long.MAX_VALUE - 1);
+      fail();
+    }
+    catch (ArithmeticException e) {
+      // Expected
+    }
+  }
+
 }
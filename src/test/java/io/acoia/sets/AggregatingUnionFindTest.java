@@ -0,0 +1,56 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AggregatingUnionFindTest {
+
+  @Test
+  public void testAggregates() {
+    AggregatingUnionFind<String> uf = new AggregatingUnionFind<>(Arrays.asList("a", "b", "c", "d"), String::concat);
+    assertEquals("c", uf.aggregate(2));
+
+    assertTrue(uf.join(0, 1));
+    assertEquals("ab", uf.aggregate(1));
+    assertFalse(uf.join(1, 0));
+    assertEquals("ab", uf.aggregate(0));
+
+    // The merge function needn't be commutative.
+    assertTrue(uf.join(3, 2));
+    assertEquals("dc", uf.aggregate(2));
+    assertTrue(uf.join(2, 0));
+    assertEquals("dcab", uf.aggregate(1));
+    assertEquals(1, uf.componentCount());
+    assertEquals(4, uf.setSize(3));
+  }
+
+  @Test
+  public void testAddMember() {
+    AggregatingUnionFind<Integer> uf = new AggregatingUnionFind<>(Math::max);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, uf.addMember(i * 7 % 100));
+    }
+    for (int i = 1; i < 100; i++) {
+      uf.join(i, i - 1);
+    }
+    assertEquals(99, (int) uf.aggregate(42));
+    assertEquals(100, uf.size());
+    assertTrue(uf.contains(99));
+  }
+
+  @Test
+  public void testNonexistantElement() {
+    AggregatingUnionFind<Integer> uf = new AggregatingUnionFind<>(Integer::sum);
+    uf.addMember(1);
+    try {
+      uf.aggregate(1);
+      fail("Expected an IllegalArgumentException as 1 is not in the AggregatingUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentUnionFindTest {
+
+  @Test
+  public void testSingleThreaded() {
+    ConcurrentUnionFind uf = new ConcurrentUnionFind(10);
+    for (int i = 1; i < 10; i++) {
+      assertFalse(uf.sameSet(0, i));
+    }
+
+    assertTrue(uf.join(0, 1));
+    assertFalse(uf.join(1, 0));
+    assertTrue(uf.join(2, 3));
+    assertTrue(uf.join(3, 1));
+    assertTrue(uf.sameSet(0, 2));
+    assertEquals(uf.findRoot(0), uf.findRoot(3));
+    assertFalse(uf.sameSet(0, 4));
+    assertEquals(7, uf.componentCount());
+  }
+
+  @Test
+  public void testNonexistantElement() {
+    ConcurrentUnionFind uf = new ConcurrentUnionFind(2);
+    assertFalse(uf.contains(2));
+    try {
+      uf.join(0, 2);
+      fail("Expected an IllegalArgumentException as 2 is not in the ConcurrentUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testConcurrentJoinsMatchUnionFind() throws Exception {
+    final int n = 20000;
+    final int threads = 8;
+    final int joinsPerThread = 4000;
+
+    // Generate every thread's joins up front so we can replay them sequentially.
+    Random random = new Random(42);
+    final int[][] pairs = new int[threads][joinsPerThread * 2];
+    for (int[] p : pairs) {
+      for (int i = 0; i < p.length; i++) {
+        p[i] = random.nextInt(n);
+      }
+    }
+
+    final ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+    final AtomicInteger merges = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int[] p = pairs[t];
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < p.length; i += 2) {
+            if (uf.join(p[i], p[i + 1]))
+              merges.incrementAndGet();
+            // Interleave some reads with the writes.
+            uf.sameSet(p[i + 1], p[(i + 2) % p.length]);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    UnionFind<Integer> expected = new UnionFind<>(n);
+    for (int i = 0; i < n; i++) {
+      expected.addMember(i);
+    }
+    for (int[] p : pairs) {
+      for (int i = 0; i < p.length; i += 2) {
+        expected.join(p[i], p[i + 1]);
+      }
+    }
+
+    int components = expected.sets().size();
+    assertEquals(components, uf.componentCount());
+    assertEquals(n - components, merges.get());
+    for (int i = 0; i < n; i++) {
+      int root = expected.findRoot(i);
+      assertEquals(uf.findRoot(root), uf.findRoot(i));
+    }
+  }
+}
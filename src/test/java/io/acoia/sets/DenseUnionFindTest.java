@@ -0,0 +1,324 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DenseUnionFindTest {
+
+  @Test
+  public void testNoUnions() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>();
+    for (int i = -100; i < 100; i++) {
+      uf.addMember(i);
+    }
+
+    assertEquals(200, uf.size());
+    assertEquals(200, uf.componentCount());
+    for (int i = -99; i < 100; i++) {
+      assertEquals(i, (int) uf.findRoot(i));
+      assertTrue(uf.sameSet(i, i));
+      assertFalse(uf.sameSet(i, i-1));
+    }
+  }
+
+  @Test
+  public void testNulls() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>();
+    uf.addMember(1);
+    uf.addMember(null);
+    assertNull(uf.findRoot(null));
+    uf.join(null, 1);
+    assertTrue(uf.sameSet(null, 1));
+    assertEquals(new HashSet<>(Arrays.asList(1, null)), uf.members(1));
+    assertTrue(uf.remove(null));
+    assertFalse(uf.contains(null));
+    assertEquals(Collections.singleton(1), uf.members(1));
+  }
+
+  @Test
+  public void testAllSame() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>();
+    for (int i = -100; i < 100; i++) {
+      uf.addMember(i);
+    }
+
+    for (int i = -99; i < 100; i++) {
+      uf.join(i-1, i);
+      assertTrue(uf.sameSet(-100, i));
+      if (i < 99)
+        assertFalse(uf.sameSet(-100, i+1));
+    }
+
+    for (int i = -100; i < 100; i++) {
+      assertTrue(uf.sameSet(0, i));
+    }
+    assertEquals(1, uf.componentCount());
+    assertEquals(200, uf.setSize(42));
+  }
+
+  @Test
+  public void testMatchesUnionFind() {
+    Random random = new Random(1);
+    UnionFind<String> expected = new UnionFind<>();
+    DenseUnionFind<String> uf = new DenseUnionFind<>();
+    for (int i = 0; i < 20000; i++) {
+      String a = "m" + random.nextInt(5000);
+      String b = "m" + random.nextInt(5000);
+      switch (random.nextInt(4)) {
+      case 0:
+        expected.addMember(a);
+        uf.addMember(a);
+        break;
+      case 1:
+        assertEquals(expected.remove(a), uf.remove(a));
+        break;
+      default:
+        expected.addMember(a);
+        expected.addMember(b);
+        expected.join(a, b);
+        uf.addMember(a);
+        uf.addMember(b);
+        uf.join(a, b);
+      }
+      assertEquals(expected.contains(b), uf.contains(b));
+      if (expected.contains(a))
+        assertEquals(expected.setSize(a), uf.setSize(a));
+    }
+    assertEquals(expected.size(), uf.size());
+    assertEquals(expected.componentCount(), uf.componentCount());
+    assertEquals(new HashSet<>(expected.sets()), new HashSet<>(uf.sets()));
+    assertEquals(new HashSet<>(expected.sets()), new HashSet<>(uf.setsView()));
+
+    uf.compact();
+    assertEquals(0, uf.tombstoneCount());
+    assertEquals(expected.size(), uf.size());
+    assertEquals(new HashSet<>(expected.sets()), new HashSet<>(uf.sets()));
+  }
+
+  @Test
+  public void testNonexistantElement() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>();
+    uf.addMember(1);
+    try {
+      uf.sameSet(1, 2);
+      fail("Expected an IllegalArgumentException as 2 is not in the DenseUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      uf.findRoot(2);
+      fail("Expected an IllegalArgumentException as 2 is not in the DenseUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testSizes() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>(Arrays.asList(1, 2, 3, 4, 4));
+    assertEquals(4, uf.componentCount());
+    assertEquals(4, uf.size());
+    assertEquals(1, uf.setSize(4));
+
+    uf.addMember(5);
+    uf.addMember(5);
+    assertEquals(5, uf.componentCount());
+
+    uf.join(1, 2);
+    uf.join(3, 4);
+    uf.join(2, 1);
+    assertEquals(3, uf.componentCount());
+    assertEquals(2, uf.setSize(1));
+    assertEquals(2, uf.setSize(4));
+    assertEquals(1, uf.setSize(5));
+
+    uf.join(4, 1);
+    assertEquals(2, uf.componentCount());
+    assertEquals(4, uf.setSize(3));
+  }
+
+  @Test
+  public void testViews() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>(Arrays.asList(1, 2, 3, 4));
+    Set<Integer> view = uf.membersView(1);
+    assertEquals(Collections.singleton(1), view);
+
+    uf.join(1, 2);
+    uf.join(3, 2);
+    assertEquals(3, view.size());
+    assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(view));
+    assertTrue(view.contains(3));
+    assertFalse(view.contains(4));
+    assertFalse(view.contains(5));
+    assertEquals(uf.members(3), view);
+
+    Collection<Set<Integer>> sets = uf.setsView();
+    assertEquals(2, sets.size());
+    assertTrue(sets.contains(new HashSet<>(Arrays.asList(1, 2, 3))));
+    assertTrue(sets.contains(Collections.singleton(4)));
+
+    try {
+      view.add(4);
+      fail("Expected an UnsupportedOperationException as views are unmodifiable");
+    }
+    catch (UnsupportedOperationException e) {
+      // Expected
+    }
+    try {
+      uf.membersView(5);
+      fail("Expected an IllegalArgumentException as 5 is not in the DenseUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testRemove() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>(Arrays.asList(1, 2, 3, 4, 5));
+    uf.join(1, 2);
+    uf.join(2, 3);
+    uf.join(4, 5);
+    assertFalse(uf.remove(6));
+
+    // Remove the root and make sure another member takes its place.
+    Integer root = uf.findRoot(2);
+    assertTrue(uf.remove(root));
+    assertFalse(uf.contains(root));
+    assertEquals(4, uf.size());
+    Integer newRoot = uf.findRoot(root == 1 ? 2 : 1);
+    assertNotEquals(root, newRoot);
+    assertTrue(uf.contains(newRoot));
+
+    Set<Integer> expected = new HashSet<>(Arrays.asList(1, 2, 3));
+    expected.remove(root);
+    assertEquals(expected, uf.members(newRoot));
+    assertEquals(expected, new HashSet<>(uf.membersView(newRoot)));
+    assertEquals(2, uf.setSize(newRoot));
+    assertEquals(1, uf.tombstoneCount());
+
+    // Removing a whole set drops the set, but its tombstones stay until compact().
+    uf.remove(4);
+    uf.remove(5);
+    assertEquals(3, uf.tombstoneCount());
+    assertEquals(1, uf.componentCount());
+    assertEquals(1, uf.sets().size());
+
+    uf.compact();
+    assertEquals(0, uf.tombstoneCount());
+    assertEquals(newRoot, uf.findRoot(3));
+    assertEquals(Collections.singleton(expected), new HashSet<>(uf.sets()));
+    uf.addMember(4);
+    uf.join(4, 3);
+    assertEquals(3, uf.setSize(4));
+  }
+
+  @Test
+  public void testIdentityKeys() {
+    String a1 = new String("a");
+    String a2 = new String("a");
+    DenseUnionFind<String> uf = DenseUnionFind.withIdentityKeys(2);
+    uf.addMember(a1);
+    uf.addMember(a2);
+    uf.addMember(null);
+    assertEquals(3, uf.size());
+    assertFalse(uf.sameSet(a1, a2));
+    assertFalse(uf.contains(new String("a")));
+
+    uf.join(a1, a2);
+    assertEquals(2, uf.members(a1).size());
+    assertTrue(uf.membersView(a2).contains(a1));
+    assertFalse(uf.membersView(a2).contains("b"));
+
+    DenseUnionFind<String> equality = new DenseUnionFind<>(Arrays.asList(a1, a2));
+    assertEquals(1, equality.size());
+    assertTrue(equality.contains(new String("a")));
+  }
+
+  @Test
+  public void testGrowth() {
+    DenseUnionFind<Long> uf = new DenseUnionFind<>();
+    for (long i = 0; i < 100000; i++) {
+      uf.addMember(i << 32);
+      if (i > 0)
+        uf.join(i << 32, (i / 2) << 32);
+    }
+    assertEquals(100000, uf.size());
+    assertEquals(1, uf.componentCount());
+    assertEquals(100000, uf.members(0L).size());
+    for (long i = 0; i < 100000; i += 2) {
+      assertTrue(uf.remove(i << 32));
+    }
+    assertEquals(50000, uf.setSize(1L << 32));
+    assertFalse(uf.contains(2L << 32));
+    assertTrue(uf.contains(3L << 32));
+  }
+
+  @Test
+  public void testStatistics() {
+    DenseUnionFind<Integer> uf = new DenseUnionFind<>(Arrays.asList(0, 1, 2, 3));
+    assertNull(uf.statistics());
+    uf.join(0, 1);
+
+    UnionFindStatistics statistics = new UnionFindStatistics();
+    uf.setStatistics(statistics);
+    assertSame(statistics, uf.statistics());
+    uf.join(2, 3);
+    uf.join(1, 0);
+    uf.join(0, 2);
+    assertEquals(6, statistics.finds());
+    assertEquals(3, statistics.joins());
+    assertEquals(1, statistics.noOpJoins());
+    assertEquals(0, statistics.hops());
+    assertEquals(3, statistics.maxRank());
+
+    // 3 hangs off 2, which now hangs off 0, so the first find hops once and halves the path.
+    assertEquals(0, (int) uf.findRoot(3));
+    assertEquals(0, (int) uf.findRoot(3));
+    assertEquals(8, statistics.finds());
+    assertEquals(1, statistics.hops());
+  }
+
+  @Test
+  public void testSnapshot() throws IOException {
+    Path file = Files.createTempFile("acoia-dense", ".bin");
+    try {
+      DenseUnionFind<String> uf = new DenseUnionFind<>(Arrays.asList("a", "b", "c", "d", "e", null));
+      uf.join("a", "b");
+      uf.join("b", "c");
+      uf.join("d", null);
+      uf.remove(uf.findRoot("a"));
+      uf.writeSnapshot(file, KeyCodec.strings());
+
+      DenseUnionFind<String> restored = DenseUnionFind.readSnapshot(file, KeyCodec.strings());
+      assertEquals(uf.size(), restored.size());
+      assertEquals(0, restored.tombstoneCount());
+      assertEquals(new HashSet<>(uf.sets()), new HashSet<>(restored.sets()));
+
+      // The format is shared with UnionFind.
+      UnionFind<String> other = UnionFind.readSnapshot(file, KeyCodec.strings());
+      assertEquals(new HashSet<>(uf.sets()), new HashSet<>(other.sets()));
+      other.join("e", "d");
+      other.writeSnapshot(file, KeyCodec.strings());
+      restored = DenseUnionFind.readSnapshot(file, KeyCodec.strings());
+      assertEquals(new HashSet<>(other.sets()), new HashSet<>(restored.sets()));
+      assertEquals(3, restored.setSize(null));
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DoubleAggregatingUnionFindTest {
+
+  @Test
+  public void testTotalWeight() {
+    DoubleAggregatingUnionFind uf = new DoubleAggregatingUnionFind(Double::sum);
+    uf.addMember(0.5);
+    uf.addMember(1.25);
+    uf.addMember(2.0);
+
+    assertTrue(uf.join(0, 2));
+    assertFalse(uf.join(2, 0));
+    assertEquals(2.5, uf.aggregate(2), 0);
+    assertEquals(1.25, uf.aggregate(1), 0);
+    assertTrue(uf.join(1, 0));
+    assertEquals(3.75, uf.aggregate(0), 0);
+    assertTrue(uf.sameSet(1, 2));
+    assertEquals(1, uf.componentCount());
+  }
+}
@@ -0,0 +1,140 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IntUnionFindTest {
+
+  @Test
+  public void testNoUnions() {
+    IntUnionFind uf = new IntUnionFind(200);
+
+    for (int i = 1; i < 200; i++) {
+      assertEquals(i, uf.findRoot(i));
+      assertTrue(uf.sameSet(i, i));
+      assertFalse(uf.sameSet(i, i-1));
+      assertEquals(1, uf.setSize(i));
+    }
+    assertEquals(200, uf.componentCount());
+  }
+
+  @Test
+  public void testAddMemberGrows() {
+    IntUnionFind uf = new IntUnionFind();
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, uf.size());
+      assertEquals(i, uf.addMember());
+      assertEquals(i + 1, uf.size());
+      assertTrue(uf.contains(i));
+      assertFalse(uf.contains(i + 1));
+    }
+
+    for (int i = 1; i < 1000; i++) {
+      assertTrue(uf.join(i-1, i));
+      assertTrue(uf.sameSet(0, i));
+      if (i < 999)
+        assertFalse(uf.sameSet(0, i+1));
+    }
+
+    assertEquals(1, uf.componentCount());
+    assertEquals(1000, uf.setSize(500));
+  }
+
+  @Test
+  public void testJoinReturnsWhetherMerged() {
+    IntUnionFind uf = new IntUnionFind(3);
+    assertTrue(uf.join(0, 1));
+    assertFalse(uf.join(1, 0));
+    assertFalse(uf.join(2, 2));
+    assertEquals(2, uf.componentCount());
+  }
+
+  @Test
+  public void testMembers() {
+    IntUnionFind uf = new IntUnionFind(6);
+    assertArrayEquals(new int[] { 3 }, uf.members(3));
+
+    uf.join(1, 5);
+    uf.join(5, 4);
+    uf.join(2, 3);
+    assertEquals(set(1, 4, 5), set(uf.members(4)));
+    assertEquals(set(2, 3), set(uf.members(2)));
+    assertEquals(set(0), set(uf.members(0)));
+
+    uf.join(3, 4);
+    assertEquals(set(1, 2, 3, 4, 5), set(uf.members(1)));
+    assertEquals(5, uf.setSize(2));
+  }
+
+  @Test
+  public void testSets() {
+    IntUnionFind uf = new IntUnionFind(4);
+    uf.join(0, 3);
+    List<int[]> sets = uf.sets();
+    assertEquals(3, sets.size());
+
+    Set<Set<Integer>> asSets = new HashSet<>();
+    for (int[] s : sets) {
+      asSets.add(set(s));
+    }
+    assertEquals(new HashSet<>(Arrays.asList(set(0, 3), set(1), set(2))), asSets);
+  }
+
+  @Test
+  public void testNonexistantElement() {
+    IntUnionFind uf = new IntUnionFind(2);
+    try {
+      uf.sameSet(1, 2);
+      fail("Expected an IllegalArgumentException as 2 is not in the IntUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      uf.findRoot(-1);
+      fail("Expected an IllegalArgumentException as -1 is not in the IntUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testMatchesUnionFind() {
+    Random random = new Random(17);
+    int n = 2000;
+    IntUnionFind uf = new IntUnionFind(n);
+    UnionFind<Integer> expected = new UnionFind<>(n);
+    for (int i = 0; i < n; i++) {
+      expected.addMember(i);
+    }
+
+    for (int i = 0; i < 1500; i++) {
+      int a = random.nextInt(n);
+      int b = random.nextInt(n);
+      assertEquals(!expected.sameSet(a, b), uf.join(a, b));
+      expected.join(a, b);
+    }
+
+    for (int i = 0; i < n; i++) {
+      assertEquals(expected.members(i), set(uf.members(i)));
+    }
+    assertEquals(expected.sets().size(), uf.componentCount());
+  }
+
+  private static Set<Integer> set(int... members) {
+    Set<Integer> result = new HashSet<>();
+    for (int m : members) {
+      result.add(m);
+    }
+    return result;
+  }
+}
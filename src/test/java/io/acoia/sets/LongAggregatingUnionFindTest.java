@@ -0,0 +1,50 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongAggregatingUnionFindTest {
+
+  @Test
+  public void testMinimumTimestamp() {
+    LongAggregatingUnionFind uf = new LongAggregatingUnionFind(new long[] { 50, 20, 30, 10 }, Math::min);
+    uf.join(0, 1);
+    uf.join(2, 3);
+    assertEquals(20, uf.aggregate(0));
+    assertEquals(10, uf.aggregate(2));
+    uf.join(1, 2);
+    assertEquals(10, uf.aggregate(0));
+  }
+
+  @Test
+  public void testMatchesScan() {
+    Random random = new Random(5);
+    LongAggregatingUnionFind uf = new LongAggregatingUnionFind(Long::sum);
+    IntUnionFind expected = new IntUnionFind();
+    long[] values = new long[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(1000);
+      assertEquals(i, uf.addMember(values[i]));
+      expected.addMember();
+    }
+
+    for (int i = 0; i < 700; i++) {
+      int a = random.nextInt(values.length);
+      int b = random.nextInt(values.length);
+      assertEquals(expected.join(a, b), uf.join(a, b));
+    }
+
+    for (int i = 0; i < values.length; i++) {
+      long sum = 0;
+      for (int m : expected.members(i)) {
+        sum += values[m];
+      }
+      assertEquals(sum, uf.aggregate(i));
+      assertEquals(expected.setSize(i), uf.setSize(i));
+    }
+    assertEquals(expected.componentCount(), uf.componentCount());
+  }
+}
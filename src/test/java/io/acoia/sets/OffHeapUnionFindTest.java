@@ -0,0 +1,88 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OffHeapUnionFindTest {
+
+  @Test
+  public void testJoinAcrossSegments() {
+    // 4 bit segments, so 16 members per segment.
+    OffHeapUnionFind uf = new OffHeapUnionFind(100, 4);
+    assertEquals(100, uf.componentCount());
+
+    for (long i = 1; i < 100; i++) {
+      assertEquals(i, uf.findRoot(i));
+      assertFalse(uf.sameSet(i, i - 1));
+    }
+
+    for (long i = 1; i < 100; i += 2) {
+      assertTrue(uf.join(i - 1, i));
+    }
+    assertFalse(uf.join(99, 98));
+    assertEquals(50, uf.componentCount());
+
+    for (long i = 3; i < 100; i += 2) {
+      assertTrue(uf.join(i, i - 2));
+    }
+    assertEquals(1, uf.componentCount());
+    for (long i = 0; i < 100; i++) {
+      assertTrue(uf.sameSet(0, i));
+    }
+  }
+
+  @Test
+  public void testLargeIdsAreNotAllocatedUpFront() {
+    // 2^40 members would need 9TB if we touched every segment.
+    long n = 1L << 40;
+    OffHeapUnionFind uf = new OffHeapUnionFind(n, 20);
+    assertEquals(n, uf.size());
+    assertTrue(uf.join(0, n - 1));
+    assertTrue(uf.sameSet(n - 1, 0));
+    assertFalse(uf.sameSet(n - 2, 0));
+    assertEquals(n - 1, uf.componentCount());
+  }
+
+  @Test
+  public void testNonexistantElement() {
+    OffHeapUnionFind uf = new OffHeapUnionFind(2);
+    assertFalse(uf.contains(2));
+    try {
+      uf.findRoot(2);
+      fail("Expected an IllegalArgumentException as 2 is not in the OffHeapUnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testMappedMatchesIntUnionFind() throws IOException {
+    Path file = Files.createTempFile("acoia-uf", ".bin");
+    try (OffHeapUnionFind uf = OffHeapUnionFind.mapped(file, 1000, 6)) {
+      IntUnionFind expected = new IntUnionFind(1000);
+      Random random = new Random(3);
+      for (int i = 0; i < 800; i++) {
+        int a = random.nextInt(1000);
+        int b = random.nextInt(1000);
+        assertEquals(expected.join(a, b), uf.join(a, b));
+      }
+
+      assertEquals(expected.componentCount(), uf.componentCount());
+      for (int i = 0; i < 1000; i++) {
+        for (int j : expected.members(i)) {
+          assertTrue(uf.sameSet(i, j));
+        }
+      }
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RollbackUnionFindTest {
+
+  @Test
+  public void testRollback() {
+    RollbackUnionFind uf = new RollbackUnionFind(5);
+    assertFalse(uf.rollback());
+
+    uf.join(0, 1);
+    int checkpoint = uf.checkpoint();
+    assertTrue(uf.join(1, 2));
+    assertFalse(uf.join(2, 0));
+    assertTrue(uf.join(3, 4));
+    assertEquals(2, uf.componentCount());
+    assertEquals(3, uf.setSize(0));
+
+    assertTrue(uf.rollback());
+    assertFalse(uf.sameSet(3, 4));
+    assertTrue(uf.sameSet(0, 2));
+
+    uf.rollbackTo(checkpoint);
+    assertEquals(checkpoint, uf.checkpoint());
+    assertTrue(uf.sameSet(0, 1));
+    assertFalse(uf.sameSet(1, 2));
+    assertEquals(2, uf.setSize(1));
+    assertEquals(4, uf.componentCount());
+
+    uf.rollbackTo(0);
+    assertEquals(5, uf.componentCount());
+    for (int i = 1; i < 5; i++) {
+      assertFalse(uf.sameSet(i - 1, i));
+    }
+  }
+
+  @Test
+  public void testInvalidCheckpoint() {
+    RollbackUnionFind uf = new RollbackUnionFind(3);
+    uf.join(0, 1);
+    int checkpoint = uf.checkpoint();
+    uf.rollbackTo(0);
+    try {
+      uf.rollbackTo(checkpoint);
+      fail("Expected an IllegalArgumentException as we've already rolled back past the checkpoint");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testAddMemberSurvivesRollback() {
+    RollbackUnionFind uf = new RollbackUnionFind();
+    int checkpoint = uf.checkpoint();
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, uf.addMember());
+      if (i > 0)
+        uf.join(i - 1, i);
+    }
+    assertEquals(1, uf.componentCount());
+
+    uf.rollbackTo(checkpoint);
+    assertEquals(100, uf.size());
+    assertEquals(100, uf.componentCount());
+  }
+
+  @Test
+  public void testRollbackMatchesRebuild() {
+    Random random = new Random(11);
+    int n = 500;
+    RollbackUnionFind uf = new RollbackUnionFind(n);
+    int[] joins = new int[1200];
+    for (int i = 0; i < joins.length; i++) {
+      joins[i] = random.nextInt(n);
+    }
+
+    int[] checkpoints = new int[joins.length / 2 + 1];
+    for (int i = 0; i < joins.length; i += 2) {
+      checkpoints[i / 2] = uf.checkpoint();
+      uf.join(joins[i], joins[i + 1]);
+    }
+    checkpoints[joins.length / 2] = uf.checkpoint();
+
+    // Roll back 100 joins at a time and compare against a union find built from scratch.
+    for (int prefix = joins.length / 2; prefix >= 0; prefix -= 100) {
+      uf.rollbackTo(checkpoints[prefix]);
+      IntUnionFind expected = new IntUnionFind(n);
+      for (int i = 0; i < prefix * 2; i += 2) {
+        expected.join(joins[i], joins[i + 1]);
+      }
+      assertEquals(expected.componentCount(), uf.componentCount());
+      for (int i = 0; i < n; i++) {
+        assertEquals(expected.setSize(i), uf.setSize(i));
+        assertTrue(uf.sameSet(i, expected.findRoot(i)));
+      }
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package io.acoia.sets;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UnionFindSnapshotTest {
+  private Path file;
+
+  @Before
+  public void createFile() throws IOException {
+    file = Files.createTempFile("acoia-snapshot", ".bin");
+  }
+
+  @After
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private static <T> void assertSameSets(UnionFind<T> expected, UnionFind<T> actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.componentCount(), actual.componentCount());
+    assertEquals(new HashSet<>(expected.sets()), new HashSet<>(actual.sets()));
+    for (Set<T> set : expected.sets()) {
+      for (T member : set) {
+        assertEquals(set.size(), actual.setSize(member));
+        assertTrue(actual.sameSet(member, set.iterator().next()));
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Random random = new Random(1);
+    UnionFind<Integer> uf = new UnionFind<>();
+    for (int i = 0; i < 10000; i++) {
+      uf.addMember(i);
+    }
+    for (int i = 0; i < 8000; i++) {
+      uf.join(random.nextInt(10000), random.nextInt(10000));
+    }
+    uf.writeSnapshot(file, KeyCodec.integers());
+    UnionFind<Integer> restored = UnionFind.readSnapshot(file, KeyCodec.integers());
+    assertSameSets(uf, restored);
+    assertEquals(0, restored.tombstoneCount());
+
+    // The restored UnionFind carries on like the original.
+    for (int i = 0; i < 2000; i++) {
+      int a = random.nextInt(10000);
+      int b = random.nextInt(10000);
+      uf.join(a, b);
+      restored.join(a, b);
+    }
+    restored.addMember(-1);
+    uf.addMember(-1);
+    assertSameSets(uf, restored);
+  }
+
+  @Test
+  public void testRemovedMembers() throws IOException {
+    UnionFind<String> uf = new UnionFind<>(Arrays.asList("a", "b", "c", "d", "e", null));
+    uf.join("a", "b");
+    uf.join("b", "c");
+    uf.join("d", null);
+    String root = uf.findRoot("a");
+    uf.remove(root);
+    uf.remove("e");
+    uf.writeSnapshot(file, KeyCodec.strings());
+    UnionFind<String> restored = UnionFind.readSnapshot(file, KeyCodec.strings());
+    assertSameSets(uf, restored);
+    assertFalse(restored.contains(root));
+    assertTrue(restored.sameSet(null, "d"));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    new UnionFind<Long>().writeSnapshot(file, KeyCodec.longs());
+    UnionFind<Long> restored = UnionFind.readSnapshot(file, KeyCodec.longs());
+    assertEquals(0, restored.size());
+    assertEquals(0, restored.componentCount());
+  }
+
+  @Test
+  public void testSmallWindows() throws IOException {
+    // Windows smaller than the sections, and members that straddle them, are mapped again.
+    List<String> members = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      members.add("member " + i);
+    }
+    UnionFind<String> uf = new UnionFind<>(members);
+    for (int i = 1; i < 500; i += 2) {
+      uf.join(members.get(i - 1), members.get(i));
+    }
+    uf.writeSnapshot(file, KeyCodec.strings());
+
+    try (UnionFindSnapshot.Reader<String> reader = new UnionFindSnapshot.Reader<>(file, KeyCodec.strings(), 37)) {
+      assertEquals(500, reader.memberCount());
+      assertEquals(250, reader.setCount());
+      Set<String> read = new HashSet<>();
+      for (int i = 0; i < 500; i++) {
+        reader.next();
+        read.add(reader.member());
+        assertEquals(i - i % 2, reader.root());
+      }
+      reader.checkEnd();
+      assertEquals(new HashSet<>(members), read);
+    }
+
+    try (UnionFindSnapshot.Reader<String> reader = new UnionFindSnapshot.Reader<>(file, KeyCodec.strings(), 8)) {
+      reader.next();
+      fail();
+    }
+    catch (IOException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testLargeMember() throws IOException {
+    char[] chars = new char[3 * UnionFindSnapshot.BUFFER_BYTES];
+    Arrays.fill(chars, 'x');
+    String large = new String(chars);
+    UnionFind<String> uf = new UnionFind<>(Arrays.asList("a", large, "b"));
+    uf.join("a", large);
+    uf.writeSnapshot(file, KeyCodec.strings());
+    assertSameSets(uf, UnionFind.readSnapshot(file, KeyCodec.strings()));
+  }
+
+  private void corrupt(long position) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer b = ByteBuffer.allocate(1);
+      channel.read(b, position);
+      b.put(0, (byte) (b.get(0) ^ 1));
+      b.rewind();
+      channel.write(b, position);
+    }
+  }
+
+  private void assertUnreadable() {
+    try {
+      UnionFind.readSnapshot(file, KeyCodec.integers());
+      fail();
+    }
+    catch (IOException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testCorruption() throws IOException {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(1, 2, 3, 4));
+    uf.join(1, 2);
+    uf.writeSnapshot(file, KeyCodec.integers());
+    long size = Files.size(file);
+    assertEquals(UnionFindSnapshot.HEADER_BYTES + 4 * 9, size);
+
+    // Not a snapshot, an unsupported version, a corrupt header and corrupt sections.
+    for (long position : new long[] { 0, 7, 12, 40, 56, size - 1 }) {
+      uf.writeSnapshot(file, KeyCodec.integers());
+      corrupt(position);
+      assertUnreadable();
+    }
+
+    // Truncated.
+    uf.writeSnapshot(file, KeyCodec.integers());
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 2);
+    }
+    assertUnreadable();
+
+    Files.write(file, new byte[10]);
+    assertUnreadable();
+  }
+}
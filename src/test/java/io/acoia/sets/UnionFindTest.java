@@ -193,4 +193,177 @@ public class UnionFindTest {
   }
 
 
+  @Test
+  public void testUnionFindSizes() {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(1, 2, 3, 4, 4));
+    assertEquals(4, uf.componentCount());
+    assertEquals(1, uf.setSize(4));
+
+    uf.addMember(5);
+    uf.addMember(5);
+    assertEquals(5, uf.componentCount());
+
+    uf.join(1, 2);
+    uf.join(3, 4);
+    uf.join(2, 1);
+    assertEquals(3, uf.componentCount());
+    assertEquals(2, uf.setSize(1));
+    assertEquals(2, uf.setSize(4));
+    assertEquals(1, uf.setSize(5));
+
+    uf.join(4, 1);
+    assertEquals(2, uf.componentCount());
+    assertEquals(4, uf.setSize(3));
+  }
+
+  @Test
+  public void testUnionFindMembersView() {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(1, 2, 3, 4));
+    Set<Integer> view = uf.membersView(1);
+    assertEquals(Collections.singleton(1), view);
+
+    uf.join(1, 2);
+    uf.join(3, 2);
+    assertEquals(3, view.size());
+    assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(view));
+    assertTrue(view.contains(3));
+    assertFalse(view.contains(4));
+    assertFalse(view.contains(5));
+    assertEquals(uf.members(3), view);
+
+    try {
+      view.add(4);
+      fail("Expected an UnsupportedOperationException as views are unmodifiable");
+    }
+    catch (UnsupportedOperationException e) {
+      // Expected
+    }
+    try {
+      uf.membersView(5);
+      fail("Expected an IllegalArgumentException as 5 is not in the UnionFind");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testUnionFindSetsView() {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(1, 2, 3, 4));
+    uf.join(1, 2);
+    uf.join(4, 2);
+
+    Collection<Set<Integer>> sets = uf.setsView();
+    assertEquals(2, sets.size());
+    assertTrue(sets.contains(new HashSet<>(Arrays.asList(1, 2, 4))));
+    assertTrue(sets.contains(Collections.singleton(3)));
+    assertEquals(new HashSet<>(uf.sets()), new HashSet<>(sets));
+  }
+
+  @Test
+  public void testUnionFindRemove() {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(1, 2, 3, 4, 5));
+    uf.join(1, 2);
+    uf.join(2, 3);
+    uf.join(4, 5);
+    assertFalse(uf.remove(6));
+
+    // Remove the root and make sure another member takes its place.
+    Integer root = uf.findRoot(2);
+    assertTrue(uf.remove(root));
+    assertFalse(uf.contains(root));
+    assertEquals(4, uf.size());
+    assertEquals(2, uf.setSize(4));
+    Integer newRoot = uf.findRoot(root == 1 ? 2 : 1);
+    assertNotEquals(root, newRoot);
+    assertTrue(uf.contains(newRoot));
+
+    Set<Integer> expected = new HashSet<>(Arrays.asList(1, 2, 3));
+    expected.remove(root);
+    assertEquals(expected, uf.members(newRoot));
+    assertEquals(expected, new HashSet<>(uf.membersView(newRoot)));
+    assertEquals(2, uf.setSize(newRoot));
+    assertEquals(1, uf.tombstoneCount());
+
+    try {
+      uf.findRoot(root);
+      fail("Expected an IllegalArgumentException as the root has been removed");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+
+    // Removing a whole set drops the set and its tombstones.
+    uf.remove(4);
+    assertEquals(2, uf.tombstoneCount());
+    uf.remove(5);
+    assertEquals(1, uf.tombstoneCount());
+    assertEquals(1, uf.componentCount());
+    assertEquals(1, uf.sets().size());
+  }
+
+  @Test
+  public void testUnionFindCompact() {
+    UnionFind<Integer> uf = new UnionFind<>();
+    for (int i = 0; i < 100; i++) {
+      uf.addMember(i);
+    }
+    for (int i = 0; i < 100; i++) {
+      uf.join(i, i % 10);
+    }
+    for (int i = 0; i < 100; i += 3) {
+      uf.remove(i);
+    }
+    assertEquals(34, uf.tombstoneCount());
+
+    Collection<Set<Integer>> before = uf.sets();
+    Integer root = uf.findRoot(1);
+    uf.compact();
+    assertEquals(0, uf.tombstoneCount());
+    assertEquals(root, uf.findRoot(1));
+    assertEquals(new HashSet<>(before), new HashSet<>(uf.sets()));
+    assertEquals(10, uf.componentCount());
+    assertEquals(66, uf.size());
+
+    uf.join(1, 2);
+    assertEquals(uf.setSize(1), uf.members(2).size());
+    assertTrue(uf.sameSet(11, 22));
+  }
+
+  @Test
+  public void testStatistics() {
+    UnionFind<Integer> uf = new UnionFind<>(Arrays.asList(0, 1, 2, 3));
+    assertNull(uf.statistics());
+    uf.join(0, 1);
+
+    UnionFindStatistics statistics = new UnionFindStatistics();
+    uf.setStatistics(statistics);
+    assertSame(statistics, uf.statistics());
+    uf.join(2, 3);
+    uf.join(1, 0);
+    uf.join(0, 2);
+    assertEquals(6, statistics.finds());
+    assertEquals(3, statistics.joins());
+    assertEquals(1, statistics.noOpJoins());
+    assertEquals(0, statistics.hops());
+    assertEquals(3, statistics.maxRank());
+
+    // 3 hangs off 2, which now hangs off 0, so the first find hops once and compresses the path.
+    assertEquals(0, (int) uf.findRoot(3));
+    assertEquals(0, (int) uf.findRoot(3));
+    assertEquals(8, statistics.finds());
+    assertEquals(1, statistics.hops());
+
+    uf.setStatistics(null);
+    uf.findRoot(1);
+    assertEquals(8, statistics.finds());
+
+    statistics.reset();
+    assertEquals(0, statistics.finds());
+    assertEquals(0, statistics.joins());
+    assertEquals(0, statistics.noOpJoins());
+    assertEquals(0, statistics.hops());
+    assertEquals(0, statistics.maxRank());
+    statistics.record();
+  }
 }